@@ -0,0 +1,249 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.ipc.netty.http.HttpException;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Limits the number of concurrent requests to a host, adapting the limit to the observed behavior of the host.  The limit grows additively while requests succeed within the latency threshold
+ * and shrinks multiplicatively when the host responds with {@code 429 Too Many Requests} or {@code 503 Service Unavailable}, when a request times out, or when a request exceeds the latency
+ * threshold.  The limit shrinks at most once per congestion window: a drop by a request that was admitted before the last decrease does not shrink it again.  Requests in excess of the
+ * limit wait in first-in, first-out order.
+ */
+public final class ConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final Duration latencyThreshold;
+
+    private final int maximumLimit;
+
+    private final int minimumLimit;
+
+    private final Object monitor = new Object();
+
+    private final Queue<Permit> pending = new ArrayDeque<>();
+
+    private int active;
+
+    private long epoch;
+
+    private int limit;
+
+    /**
+     * Creates a new limiter
+     *
+     * @param initialLimit     the initial number of concurrent requests
+     * @param minimumLimit     the minimum number of concurrent requests
+     * @param maximumLimit     the maximum number of concurrent requests
+     * @param latencyThreshold the latency above which a request is treated as a sign of overload
+     */
+    public ConcurrencyLimiter(int initialLimit, int minimumLimit, int maximumLimit, Duration latencyThreshold) {
+        if (minimumLimit < 1 || minimumLimit > maximumLimit) {
+            throw new IllegalArgumentException(String.format("Invalid limits: minimum %d, maximum %d", minimumLimit, maximumLimit));
+        }
+
+        this.latencyThreshold = latencyThreshold;
+        this.limit = Math.min(Math.max(initialLimit, minimumLimit), maximumLimit);
+        this.maximumLimit = maximumLimit;
+        this.minimumLimit = minimumLimit;
+    }
+
+    /**
+     * Returns the number of requests in flight
+     *
+     * @return the number of requests in flight
+     */
+    public int getActive() {
+        synchronized (this.monitor) {
+            return this.active;
+        }
+    }
+
+    /**
+     * Returns the current number of concurrent requests allowed
+     *
+     * @return the current limit
+     */
+    public int getLimit() {
+        synchronized (this.monitor) {
+            return this.limit;
+        }
+    }
+
+    /**
+     * Returns the number of requests waiting to be sent
+     *
+     * @return the number of pending requests
+     */
+    public int getPending() {
+        synchronized (this.monitor) {
+            return this.pending.size();
+        }
+    }
+
+    /**
+     * Executes a request once it is admitted by the limit.  The outcome of the request adjusts the limit.
+     *
+     * @param request the request to execute
+     * @param <T>     the type of the response
+     * @return the response of the request
+     */
+    public <T> Mono<T> limit(Mono<T> request) {
+        return limit(true, sent -> sent.then(request));
+    }
+
+    /**
+     * Executes a request once it is admitted by the limit.  The outcome of the request adjusts the limit.  The latency of the request is measured from the subscription to the {@link Mono}
+     * passed to the {@code request} function, so that time spent waiting for a connection once admitted is excluded.
+     *
+     * @param latencySensitive whether a response slower than the latency threshold shrinks the limit.  Requests whose latency is dominated by their payload, such as uploads, should not be
+     *                         latency sensitive.
+     * @param request          a function that returns the request, given a {@link Mono} that the request subscribes to when it is sent
+     * @param <T>              the type of the response
+     * @return the response of the request
+     */
+    public <T> Mono<T> limit(boolean latencySensitive, Function<Mono<Void>, Mono<T>> request) {
+        return Mono.defer(() -> {
+            Permit permit = new Permit();
+            acquire(permit);
+
+            Mono<Void> sent = Mono.defer(() -> {
+                permit.start = System.nanoTime();
+                return Mono.empty();
+            });
+
+            return permit.granted
+                .then(request.apply(sent))
+                .doOnSuccess(response -> release(permit, latencySensitive && isSlow(permit) ? Outcome.DROPPED : Outcome.SUCCEEDED))
+                .doOnError(t -> release(permit, isDropped(t) ? Outcome.DROPPED : Outcome.IGNORED))
+                .doOnCancel(() -> release(permit, Outcome.IGNORED));
+        });
+    }
+
+    @Override
+    public String toString() {
+        synchronized (this.monitor) {
+            return String.format("ConcurrencyLimiter{limit=%d, active=%d, pending=%d}", this.limit, this.active, this.pending.size());
+        }
+    }
+
+    private static boolean isDropped(Throwable t) {
+        if (t instanceof TimeoutException || t instanceof io.netty.handler.timeout.TimeoutException) {
+            return true;
+        }
+
+        if (t instanceof HttpException) {
+            int code = ((HttpException) t).getResponseStatus().code();
+            return code == HttpResponseStatus.TOO_MANY_REQUESTS.code() || code == HttpResponseStatus.SERVICE_UNAVAILABLE.code();
+        }
+
+        return false;
+    }
+
+    private void acquire(Permit permit) {
+        synchronized (this.monitor) {
+            if (!this.pending.isEmpty() || this.active >= this.limit) {
+                this.pending.add(permit);
+                return;
+            }
+
+            grant(permit);
+        }
+
+        permit.granted.onComplete();
+    }
+
+    private void grant(Permit permit) {
+        this.active++;
+        permit.epoch = this.epoch;
+        permit.inFlight = this.active;
+        permit.start = System.nanoTime();
+    }
+
+    private boolean isSlow(Permit permit) {
+        return System.nanoTime() - permit.start > this.latencyThreshold.toNanos();
+    }
+
+    private void release(Permit permit, Outcome outcome) {
+        if (!permit.released.compareAndSet(false, true)) {
+            return;
+        }
+
+        Queue<Permit> granted = new ArrayDeque<>();
+
+        synchronized (this.monitor) {
+            if (this.pending.remove(permit)) {
+                return;
+            }
+
+            this.active--;
+
+            if (outcome == Outcome.DROPPED) {
+                if (permit.epoch == this.epoch) {
+                    this.limit = Math.max(this.minimumLimit, (int) (this.limit * BACKOFF_RATIO));
+                    this.epoch++;
+                }
+            } else if (outcome == Outcome.SUCCEEDED && permit.inFlight * 2 >= this.limit) {
+                this.limit = Math.min(this.maximumLimit, this.limit + 1);
+            }
+
+            while (this.active < this.limit && !this.pending.isEmpty()) {
+                Permit next = this.pending.poll();
+                grant(next);
+                granted.add(next);
+            }
+        }
+
+        granted.forEach(next -> next.granted.onComplete());
+    }
+
+    private enum Outcome {
+
+        DROPPED,
+
+        IGNORED,
+
+        SUCCEEDED
+
+    }
+
+    private static final class Permit {
+
+        private final MonoProcessor<Void> granted = MonoProcessor.create();
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private long epoch;
+
+        private int inFlight;
+
+        private volatile long start;
+
+    }
+
+}
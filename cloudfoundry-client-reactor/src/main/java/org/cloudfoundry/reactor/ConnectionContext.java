@@ -20,11 +20,31 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.HttpClient;
 
+import java.util.Optional;
+
 /**
  * Common, reusable, connection context
  */
 public interface ConnectionContext {
 
+    /**
+     * The {@link ConcurrencyLimiter} to use for requests to a host.  The default implementation does not limit requests.
+     *
+     * @param host the host being requested
+     */
+    default Optional<ConcurrencyLimiter> getConcurrencyLimiter(String host) {
+        return Optional.empty();
+    }
+
+    /**
+     * The {@link ConnectionLimiter} to use for connections to a host.  The default implementation does not limit connections.
+     *
+     * @param host the host being connected to
+     */
+    default Optional<ConnectionLimiter> getConnectionLimiter(String host) {
+        return Optional.empty();
+    }
+
     /**
      * The {@link HttpClient} to use
      */
@@ -35,6 +55,27 @@ public interface ConnectionContext {
      */
     ObjectMapper getObjectMapper();
 
+    /**
+     * The {@link RequestCoalescer} to use for {@code GET} requests.  The default implementation does not coalesce requests.
+     */
+    default Optional<RequestCoalescer> getRequestCoalescer() {
+        return Optional.empty();
+    }
+
+    /**
+     * The {@link ResponseCache} to use for {@code GET} requests.  The default implementation does not cache responses.
+     */
+    default Optional<ResponseCache> getResponseCache() {
+        return Optional.empty();
+    }
+
+    /**
+     * The {@link RetryPolicy} to use for {@code GET} requests.  The default implementation does not retry requests.
+     */
+    default Optional<RetryPolicy> getRetryPolicy() {
+        return Optional.empty();
+    }
+
     /**
      * The normalized API root
      */
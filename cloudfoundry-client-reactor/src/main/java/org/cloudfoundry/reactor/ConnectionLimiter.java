@@ -0,0 +1,171 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limits the number of concurrent connections to a host.  Exchanges that cannot acquire a connection wait in a bounded queue until a connection is released.
+ */
+public final class ConnectionLimiter {
+
+    private final int limit;
+
+    private final int maximumPending;
+
+    private final Object monitor = new Object();
+
+    private final Queue<Permit> pending = new ArrayDeque<>();
+
+    private int active;
+
+    /**
+     * Creates a new limiter
+     *
+     * @param limit          the maximum number of concurrent connections
+     * @param maximumPending the maximum number of exchanges that may wait for a connection
+     */
+    public ConnectionLimiter(int limit, int maximumPending) {
+        this.limit = limit;
+        this.maximumPending = maximumPending;
+    }
+
+    /**
+     * Returns the number of connections in use
+     *
+     * @return the number of active connections
+     */
+    public int getActive() {
+        synchronized (this.monitor) {
+            return this.active;
+        }
+    }
+
+    /**
+     * Returns the number of connections that could be acquired without waiting
+     *
+     * @return the number of idle connections
+     */
+    public int getIdle() {
+        synchronized (this.monitor) {
+            return Math.max(0, this.limit - this.active);
+        }
+    }
+
+    /**
+     * Returns the maximum number of concurrent connections
+     *
+     * @return the maximum number of concurrent connections
+     */
+    public int getLimit() {
+        return this.limit;
+    }
+
+    /**
+     * Returns the number of exchanges waiting for a connection
+     *
+     * @return the number of pending exchanges
+     */
+    public int getPending() {
+        synchronized (this.monitor) {
+            return this.pending.size();
+        }
+    }
+
+    /**
+     * Executes an exchange once a connection can be acquired.  The connection is released when the exchange terminates or is cancelled.
+     *
+     * @param exchange the exchange to execute
+     * @param <T>      the type of the response
+     * @return the response of the exchange
+     */
+    public <T> Mono<T> limit(Mono<T> exchange) {
+        return Mono.defer(() -> {
+            Permit permit = new Permit();
+
+            if (!acquire(permit)) {
+                return Mono.error(new IllegalStateException(String.format("Maximum number of pending connections (%d) exceeded", this.maximumPending)));
+            }
+
+            return permit.granted
+                .then(exchange)
+                .doOnTerminate((response, t) -> release(permit))
+                .doOnCancel(() -> release(permit));
+        });
+    }
+
+    @Override
+    public String toString() {
+        synchronized (this.monitor) {
+            return String.format("ConnectionLimiter{limit=%d, active=%d, pending=%d}", this.limit, this.active, this.pending.size());
+        }
+    }
+
+    private boolean acquire(Permit permit) {
+        synchronized (this.monitor) {
+            if (this.active < this.limit) {
+                this.active++;
+            } else if (this.pending.size() < this.maximumPending) {
+                this.pending.add(permit);
+                return true;
+            } else {
+                return false;
+            }
+        }
+
+        permit.granted.onComplete();
+        return true;
+    }
+
+    private void release(Permit permit) {
+        if (!permit.released.compareAndSet(false, true)) {
+            return;
+        }
+
+        Permit next;
+
+        synchronized (this.monitor) {
+            if (this.pending.remove(permit)) {
+                return;
+            }
+
+            this.active--;
+            next = this.active < this.limit ? this.pending.poll() : null;
+            if (next != null) {
+                this.active++;
+            }
+        }
+
+        if (next != null) {
+            next.granted.onComplete();
+        }
+    }
+
+    private static final class Permit {
+
+        private final MonoProcessor<Void> granted = MonoProcessor.create();
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+    }
+
+}
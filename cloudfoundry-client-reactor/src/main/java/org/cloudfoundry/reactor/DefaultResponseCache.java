@@ -0,0 +1,166 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The default implementation of the {@link ResponseCache} interface.  Responses are cached for the time to live of the longest path prefix that matches the request, and the least recently used
+ * response is evicted once the cache reaches its maximum size.  Only the collection at a prefix and the resources directly within it (e.g. {@code /v2/stacks} and {@code /v2/stacks/{id}}) are
+ * cached; nested collections such as {@code /v2/service_plans/{id}/service_instances} are not.
+ */
+public final class DefaultResponseCache implements ResponseCache {
+
+    /**
+     * The time to live of responses from Cloud Controller endpoints that rarely change
+     */
+    public static final Map<String, Duration> READ_MOSTLY_ENDPOINTS;
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+    static {
+        Map<String, Duration> endpoints = new HashMap<>();
+        endpoints.put("/v2/buildpacks", Duration.ofMinutes(1));
+        endpoints.put("/v2/config/feature_flags", Duration.ofMinutes(1));
+        endpoints.put("/v2/info", Duration.ofMinutes(5));
+        endpoints.put("/v2/service_plans", Duration.ofMinutes(1));
+        endpoints.put("/v2/shared_domains", Duration.ofMinutes(1));
+        endpoints.put("/v2/stacks", Duration.ofMinutes(5));
+        READ_MOSTLY_ENDPOINTS = Collections.unmodifiableMap(endpoints);
+    }
+
+    private final int maximumSize;
+
+    private final Map<String, Entry> responses;
+
+    private final Map<String, Duration> timeToLives;
+
+    /**
+     * Creates a new cache for the {@link #READ_MOSTLY_ENDPOINTS}
+     */
+    public DefaultResponseCache() {
+        this(DEFAULT_MAXIMUM_SIZE, READ_MOSTLY_ENDPOINTS);
+    }
+
+    /**
+     * Creates a new cache
+     *
+     * @param maximumSize the maximum number of responses in the cache
+     * @param timeToLives the time to live of responses, keyed by path prefix (e.g. {@code /v2/info})
+     */
+    public DefaultResponseCache(int maximumSize, Map<String, Duration> timeToLives) {
+        this.maximumSize = maximumSize;
+        this.timeToLives = new HashMap<>(timeToLives);
+        this.responses = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 5830270478145617320L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > DefaultResponseCache.this.maximumSize;
+            }
+
+        };
+    }
+
+    @Override
+    public Optional<CachedResponse> get(String uri, String identity) {
+        synchronized (this.responses) {
+            return Optional.ofNullable(this.responses.get(getKey(uri, identity)))
+                .map(entry -> entry.response);
+        }
+    }
+
+    @Override
+    public Optional<Duration> getTimeToLive(String uri) {
+        String path = getPath(uri);
+        if (path == null || this.maximumSize <= 0) {
+            return Optional.empty();
+        }
+
+        return this.timeToLives.entrySet().stream()
+            .filter(entry -> path.equals(entry.getKey()) || isMember(entry.getKey(), path))
+            .max((a, b) -> Integer.compare(a.getKey().length(), b.getKey().length()))
+            .map(Map.Entry::getValue);
+    }
+
+    /**
+     * Removes the cached responses for the resource at a URI, the collection that contains it, and the resources it contains
+     *
+     * @param uri the URI of the modifying request
+     */
+    @Override
+    public void invalidate(String uri) {
+        String path = getPath(uri);
+        if (path == null) {
+            return;
+        }
+
+        synchronized (this.responses) {
+            this.responses.values().removeIf(entry -> entry.path.equals(path) || isMember(entry.path, path) || isMember(path, entry.path));
+        }
+    }
+
+    /**
+     * Removes every response from the cache
+     */
+    public void invalidateAll() {
+        synchronized (this.responses) {
+            this.responses.clear();
+        }
+    }
+
+    @Override
+    public void put(String uri, String identity, CachedResponse response) {
+        synchronized (this.responses) {
+            this.responses.put(getKey(uri, identity), new Entry(getPath(uri), response));
+        }
+    }
+
+    private static String getKey(String uri, String identity) {
+        return String.format("%s %s", uri, identity);
+    }
+
+    private static String getPath(String uri) {
+        return UriComponentsBuilder.fromUriString(uri).build().getPath();
+    }
+
+    private static boolean isMember(String collection, String path) {
+        return path.startsWith(collection + "/") && path.indexOf('/', collection.length() + 1) == -1;
+    }
+
+    private static final class Entry {
+
+        private final String path;
+
+        private final CachedResponse response;
+
+        private Entry(String path, CachedResponse response) {
+            this.path = path;
+            this.response = response;
+        }
+
+    }
+
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.ipc.netty.http.HttpException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * The default implementation of the {@link RetryPolicy} interface.  Connection failures and {@code 502 Bad Gateway}, {@code 503 Service Unavailable}, and {@code 504 Gateway Timeout} responses
+ * are retried with exponential backoff and full jitter.  {@code 429 Too Many Requests} responses are retried after the delay in their {@code Retry-After} header, if there is one, and are not retried if
+ * that delay exceeds the maximum backoff.  Optionally,
+ * a duplicate request is sent when a request takes longer than a percentile of the latencies recorded recently for the same endpoint.  Endpoints are identified by the path of the request with
+ * any GUID segments replaced, so that, for example, every {@code /v2/apps/{id}} request shares its latency samples.
+ */
+public final class DefaultRetryPolicy implements RetryPolicy {
+
+    private static final Duration DEFAULT_MAXIMUM_BACKOFF = Duration.ofSeconds(5);
+
+    private static final int DEFAULT_MAXIMUM_RETRIES = 3;
+
+    private static final Pattern GUID = Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    private static final Duration DEFAULT_MINIMUM_BACKOFF = Duration.ofMillis(100);
+
+    private static final int LATENCY_SAMPLES = 128;
+
+    private static final int MAXIMUM_ENDPOINTS = 64;
+
+    private static final int MINIMUM_LATENCY_SAMPLES = 20;
+
+    private static final String RETRY_AFTER = "Retry-After";
+
+    private final Optional<Double> hedgePercentile;
+
+    private final Map<String, Samples> latencies = new LinkedHashMap<String, Samples>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = -4418342335745381458L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Samples> eldest) {
+            return size() > MAXIMUM_ENDPOINTS;
+        }
+
+    };
+
+    private final Duration maximumBackoff;
+
+    private final int maximumRetries;
+
+    private final Duration minimumBackoff;
+
+    private final Object monitor = new Object();
+
+    /**
+     * Creates a new policy that retries up to three times, backing off from 100 milliseconds to 5 seconds, and does not hedge requests
+     */
+    public DefaultRetryPolicy() {
+        this(DEFAULT_MAXIMUM_RETRIES, DEFAULT_MINIMUM_BACKOFF, DEFAULT_MAXIMUM_BACKOFF);
+    }
+
+    /**
+     * Creates a new policy that does not hedge requests
+     *
+     * @param maximumRetries the maximum number of times a request is retried
+     * @param minimumBackoff the backoff before the first retry
+     * @param maximumBackoff the maximum backoff before any retry
+     */
+    public DefaultRetryPolicy(int maximumRetries, Duration minimumBackoff, Duration maximumBackoff) {
+        this(maximumRetries, minimumBackoff, maximumBackoff, Optional.empty());
+    }
+
+    /**
+     * Creates a new policy that hedges requests
+     *
+     * @param maximumRetries  the maximum number of times a request is retried
+     * @param minimumBackoff  the backoff before the first retry
+     * @param maximumBackoff  the maximum backoff before any retry
+     * @param hedgePercentile the percentile of recent latencies (e.g. {@code 0.95}) after which a duplicate request is sent
+     */
+    public DefaultRetryPolicy(int maximumRetries, Duration minimumBackoff, Duration maximumBackoff, double hedgePercentile) {
+        this(maximumRetries, minimumBackoff, maximumBackoff, Optional.of(hedgePercentile));
+    }
+
+    private DefaultRetryPolicy(int maximumRetries, Duration minimumBackoff, Duration maximumBackoff, Optional<Double> hedgePercentile) {
+        if (hedgePercentile.filter(percentile -> percentile <= 0 || percentile >= 1).isPresent()) {
+            throw new IllegalArgumentException(String.format("Hedge percentile %s must be between 0 and 1", hedgePercentile.get()));
+        }
+
+        this.hedgePercentile = hedgePercentile;
+        this.maximumBackoff = maximumBackoff;
+        this.maximumRetries = maximumRetries;
+        this.minimumBackoff = minimumBackoff;
+    }
+
+    @Override
+    public Optional<Duration> getHedgeDelay(String uri) {
+        return this.hedgePercentile
+            .flatMap(percentile -> getLatencyPercentile(getEndpoint(uri), percentile));
+    }
+
+    @Override
+    public Optional<Duration> getRetryDelay(int attempt, Throwable cause) {
+        if (attempt > this.maximumRetries) {
+            return Optional.empty();
+        }
+
+        if (cause instanceof IOException) {
+            return Optional.of(getBackoff(attempt));
+        }
+
+        if (!(cause instanceof HttpException)) {
+            return Optional.empty();
+        }
+
+        HttpException httpException = (HttpException) cause;
+        int code = httpException.getResponseStatus().code();
+
+        if (code == HttpResponseStatus.TOO_MANY_REQUESTS.code()) {
+            Optional<Duration> retryAfter = getRetryAfter(httpException.getChannel().responseHeaders().get(RETRY_AFTER));
+            if (retryAfter.filter(delay -> delay.compareTo(this.maximumBackoff) > 0).isPresent()) {
+                return Optional.empty();
+            }
+
+            return Optional.of(retryAfter.orElseGet(() -> getBackoff(attempt)));
+        }
+
+        if (code == HttpResponseStatus.BAD_GATEWAY.code() || code == HttpResponseStatus.SERVICE_UNAVAILABLE.code() || code == HttpResponseStatus.GATEWAY_TIMEOUT.code()) {
+            return Optional.of(getBackoff(attempt));
+        }
+
+        return Optional.empty();
+    }
+
+    @Override
+    public void recordLatency(String uri, Duration latency) {
+        String endpoint = getEndpoint(uri);
+
+        synchronized (this.monitor) {
+            Samples samples = this.latencies.computeIfAbsent(endpoint, e -> new Samples());
+            samples.latencies[(int) (samples.recorded++ % LATENCY_SAMPLES)] = latency.toNanos();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DefaultRetryPolicy{maximumRetries=%d, minimumBackoff=%s, maximumBackoff=%s, hedgePercentile=%s}", this.maximumRetries, this.minimumBackoff, this.maximumBackoff,
+            this.hedgePercentile.map(String::valueOf).orElse("none"));
+    }
+
+    static String getEndpoint(String uri) {
+        String path = UriComponentsBuilder.fromUriString(uri).build().getPath();
+        return GUID.matcher(path != null ? path : uri).replaceAll("{id}");
+    }
+
+    static Optional<Duration> getRetryAfter(String retryAfter) {
+        if (retryAfter == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(retryAfter.trim()))));
+        } catch (NumberFormatException e) {
+            // Not a number of seconds, so try an HTTP date
+        }
+
+        try {
+            Duration delay = Duration.between(ZonedDateTime.now(), ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+            return Optional.of(delay.isNegative() ? Duration.ZERO : delay);
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns an exponential backoff with full jitter: a random delay between zero and the exponential backoff for the attempt
+     */
+    private Duration getBackoff(int attempt) {
+        long ceiling = this.minimumBackoff.toNanos() << Math.min(attempt - 1, 30);
+        if (ceiling <= 0 || ceiling > this.maximumBackoff.toNanos()) {
+            ceiling = this.maximumBackoff.toNanos();
+        }
+
+        return Duration.ofNanos(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    private Optional<Duration> getLatencyPercentile(String endpoint, double percentile) {
+        long[] samples;
+
+        synchronized (this.monitor) {
+            Samples recorded = this.latencies.get(endpoint);
+            if (recorded == null || recorded.recorded < MINIMUM_LATENCY_SAMPLES) {
+                return Optional.empty();
+            }
+
+            samples = Arrays.copyOf(recorded.latencies, (int) Math.min(recorded.recorded, LATENCY_SAMPLES));
+        }
+
+        Arrays.sort(samples);
+        return Optional.of(Duration.ofNanos(samples[(int) Math.ceil(percentile * samples.length) - 1]));
+    }
+
+    private static final class Samples {
+
+        private final long[] latencies = new long[LATENCY_SAMPLES];
+
+        private long recorded;
+
+    }
+
+}
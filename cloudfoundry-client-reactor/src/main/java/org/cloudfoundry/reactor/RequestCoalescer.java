@@ -0,0 +1,91 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical {@code GET} requests that are in flight at the same time, so that they share a single exchange and a single decoded response.  Responses are not retained once the exchange
+ * completes.
+ */
+public final class RequestCoalescer {
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final ConcurrentMap<String, MonoProcessor<?>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Executes an exchange, or joins an identical exchange that is already in flight
+     *
+     * @param key      the key identifying the exchange.  Typically made up of the method, the URI, and the identity of the token of the request.
+     * @param exchange a {@link Supplier} of the exchange
+     * @param <T>      the type of the response
+     * @return the response of the exchange
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> coalesce(String key, Supplier<Mono<T>> exchange) {
+        return Mono.defer(() -> {
+            MonoProcessor<T> candidate = MonoProcessor.create();
+
+            MonoProcessor<T> existing = (MonoProcessor<T>) this.inFlight.putIfAbsent(key, candidate);
+            if (existing != null) {
+                this.hits.incrementAndGet();
+                return existing;
+            }
+
+            this.misses.incrementAndGet();
+
+            exchange.get()
+                .doOnTerminate((response, t) -> this.inFlight.remove(key, candidate))
+                .subscribe(candidate);
+
+            return candidate;
+        });
+    }
+
+    /**
+     * Returns the number of requests that joined an exchange that was already in flight
+     *
+     * @return the number of coalesced requests
+     */
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Returns the number of requests that executed an exchange
+     *
+     * @return the number of executed requests
+     */
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RequestCoalescer{hits=%d, misses=%d, inFlight=%d}", getHits(), getMisses(), this.inFlight.size());
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * A cache of the responses to {@code GET} requests.  Responses are cached per identity, so that a response retrieved with one token is never returned to a request made with another.
+ */
+public interface ResponseCache {
+
+    /**
+     * Returns the cached response for a URI
+     *
+     * @param uri      the URI of the request
+     * @param identity the identity that the request is made with
+     * @return the cached response, or empty if there is no cached response
+     */
+    Optional<CachedResponse> get(String uri, String identity);
+
+    /**
+     * Returns the time to live of responses for a URI.  A {@code Cache-Control} header sent by the server takes precedence over this time to live.
+     *
+     * @param uri the URI of the request
+     * @return the time to live, or empty if responses for the URI should not be cached
+     */
+    Optional<Duration> getTimeToLive(String uri);
+
+    /**
+     * Removes the responses that a modification of the resource at a URI may have changed, for every identity
+     *
+     * @param uri the URI of the modifying request
+     */
+    void invalidate(String uri);
+
+    /**
+     * Caches the response for a URI
+     *
+     * @param uri      the URI of the request
+     * @param identity the identity that the request was made with
+     * @param response the response to cache
+     */
+    void put(String uri, String identity, CachedResponse response);
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * A policy for retrying and hedging idempotent {@code GET} requests.  A policy is consulted before the cause of a failure is translated into a client exception, so it can inspect the raw HTTP
+ * response.
+ */
+public interface RetryPolicy {
+
+    /**
+     * Returns the delay after which a duplicate request is sent if the original request has not yet completed
+     *
+     * @param uri the URI of the request
+     * @return the delay, or empty if requests for the URI should not be hedged
+     */
+    Optional<Duration> getHedgeDelay(String uri);
+
+    /**
+     * Returns the delay before a failed request is retried
+     *
+     * @param attempt the number of the retry, starting at {@code 1}
+     * @param cause   the cause of the failure
+     * @return the delay, or empty if the request should not be retried
+     */
+    Optional<Duration> getRetryDelay(int attempt, Throwable cause);
+
+    /**
+     * Records the latency of a successful request
+     *
+     * @param uri     the URI of the request
+     * @param latency the latency of the request
+     */
+    void recordLatency(String uri, Duration latency);
+
+}
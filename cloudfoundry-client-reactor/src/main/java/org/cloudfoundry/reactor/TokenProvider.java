@@ -31,4 +31,13 @@ public interface TokenProvider {
      */
     Mono<String> getToken(ConnectionContext connectionContext);
 
+    /**
+     * Invalidates a token that has been rejected by a server, so that a subsequent call to {@link #getToken(ConnectionContext)} provides a new token.  The default implementation does nothing.
+     *
+     * @param connectionContext A {@link ConnectionContext} to be used if a token needs to be retrieved via a network request
+     * @param token             the rejected token
+     */
+    default void invalidate(ConnectionContext connectionContext, String token) {
+    }
+
 }
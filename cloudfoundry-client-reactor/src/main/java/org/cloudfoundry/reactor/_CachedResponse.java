@@ -0,0 +1,52 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import org.immutables.value.Value;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * A response held in a {@link ResponseCache}
+ */
+@Value.Immutable
+abstract class _CachedResponse {
+
+    /**
+     * The value of the {@code ETag} header of the response
+     */
+    public abstract Optional<String> getEntityTag();
+
+    /**
+     * The instant after which the response must be revalidated with the server
+     */
+    public abstract Instant getExpiration();
+
+    /**
+     * The deserialized payload of the response
+     */
+    public abstract Object getPayload();
+
+    /**
+     * Whether the response can be used without revalidating it with the server
+     */
+    public final boolean isFresh() {
+        return Instant.now().isBefore(getExpiration());
+    }
+
+}
@@ -19,6 +19,11 @@ package org.cloudfoundry.reactor;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import org.cloudfoundry.reactor.util.DefaultSslCertificateTruster;
 import org.cloudfoundry.reactor.util.JsonCodec;
 import org.cloudfoundry.reactor.util.NetworkLogging;
@@ -34,9 +39,13 @@ import reactor.ipc.netty.config.HttpClientOptions;
 import reactor.ipc.netty.http.HttpClient;
 
 import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadFactory;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -49,8 +58,16 @@ import static com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKN
 @Value.Immutable
 abstract class _DefaultConnectionContext implements ConnectionContext {
 
+    private static final int DEFAULT_INITIAL_CONCURRENCY_LIMIT = 20;
+
+    private static final Duration DEFAULT_LATENCY_THRESHOLD = Duration.ofSeconds(10);
+
+    private static final int DEFAULT_PENDING_ACQUIRE_QUEUE_SIZE = Integer.MAX_VALUE;
+
     private static final int DEFAULT_PORT = 443;
 
+    private static final int DEFAULT_THREAD_POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
     private static final Pattern HOSTNAME_PATTERN = Pattern.compile("^[a-zA-Z0-9-.]+$");
 
     private static final int RECEIVE_BUFFER_SIZE = 10 * 1024 * 1024;
@@ -59,6 +76,57 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
 
     private static final int UNDEFINED_PORT = -1;
 
+    private final ConcurrentMap<String, ConcurrencyLimiter> concurrencyLimiters = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, ConnectionLimiter> connectionLimiters = new ConcurrentHashMap<>();
+
+    private volatile EventLoopGroup createdEventLoopGroup;
+
+    /**
+     * Shuts down the event loop group that this context created for a configured thread pool size or native transport preference.  A group supplied with {@link #getEventLoopGroup()} is
+     * not shut down, as it is owned by the caller.
+     */
+    public void dispose() {
+        EventLoopGroup eventLoopGroup = this.createdEventLoopGroup;
+
+        if (eventLoopGroup != null) {
+            eventLoopGroup.shutdownGracefully();
+        }
+    }
+
+    @Override
+    public Optional<ConcurrencyLimiter> getConcurrencyLimiter(String host) {
+        return getMaximumConcurrentRequests()
+            .map(maximumConcurrentRequests -> this.concurrencyLimiters
+                .computeIfAbsent(host, h -> new ConcurrencyLimiter(DEFAULT_INITIAL_CONCURRENCY_LIMIT, 1, maximumConcurrentRequests,
+                    getLatencyThreshold().orElse(DEFAULT_LATENCY_THRESHOLD))));
+    }
+
+    /**
+     * Returns the concurrency limiters for each host that has been requested, so that their current limits can be monitored
+     *
+     * @return the concurrency limiters keyed by host
+     */
+    public Map<String, ConcurrencyLimiter> getConcurrencyLimiters() {
+        return Collections.unmodifiableMap(this.concurrencyLimiters);
+    }
+
+    @Override
+    public Optional<ConnectionLimiter> getConnectionLimiter(String host) {
+        return getConnectionPoolSize()
+            .map(connectionPoolSize -> this.connectionLimiters
+                .computeIfAbsent(host, h -> new ConnectionLimiter(connectionPoolSize, getPendingAcquireQueueSize().orElse(DEFAULT_PENDING_ACQUIRE_QUEUE_SIZE))));
+    }
+
+    /**
+     * Returns the connection limiters for each host that has been connected to, so that their active, idle, and pending gauges can be monitored
+     *
+     * @return the connection limiters keyed by host
+     */
+    public Map<String, ConnectionLimiter> getConnectionLimiters() {
+        return Collections.unmodifiableMap(this.connectionLimiters);
+    }
+
     @Override
     @Value.Default
     public HttpClient getHttpClient() {
@@ -67,6 +135,13 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
             .sndbuf(SEND_BUFFER_SIZE)
             .rcvbuf(RECEIVE_BUFFER_SIZE);
 
+        if (getEventLoopGroup().isPresent()) {
+            options.eventLoopGroup(getEventLoopGroup().get());
+        } else if (getThreadPoolSize().isPresent() || getPreferNativeTransport().isPresent()) {
+            this.createdEventLoopGroup = createEventLoopGroup(getThreadPoolSize().orElse(DEFAULT_THREAD_POOL_SIZE), getPreferNativeTransport().orElse(false));
+            options.eventLoopGroup(this.createdEventLoopGroup);
+        }
+
         getKeepAlive().ifPresent(options::keepAlive);
         getProxyConfiguration().ifPresent(c -> options.proxy(ClientOptions.Proxy.HTTP, c.getHost(), c.getPort().orElse(null), c.getUsername().orElse(null), u -> c.getPassword().orElse(null)));
         getSocketTimeout().ifPresent(options::timeout);
@@ -147,11 +222,44 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
             .cache();
     }
 
+    /**
+     * The maximum number of concurrent connections to each host.  Connections are not limited unless this is set.  Downloads and WebSocket streams, whose payloads are consumed by the caller,
+     * are not counted.
+     */
+    abstract Optional<Integer> getConnectionPoolSize();
+
+    /**
+     * The (optional) event loop group to use for connections.  The caller is responsible for shutting the group down.  When set, the thread pool size and native transport preference are
+     * ignored.
+     */
+    abstract Optional<EventLoopGroup> getEventLoopGroup();
+
     /**
      * The {@code SO_KEEPALIVE} value
      */
     abstract Optional<Boolean> getKeepAlive();
 
+    /**
+     * The latency above which a request reduces the adaptive concurrency limit.  Defaults to 10 seconds.
+     */
+    abstract Optional<Duration> getLatencyThreshold();
+
+    /**
+     * The maximum number of concurrent requests to each host.  When set, the number of concurrent requests adapts between one and this maximum based on the latency and rate-limiting
+     * responses observed.  Requests are not limited unless this is set.
+     */
+    abstract Optional<Integer> getMaximumConcurrentRequests();
+
+    /**
+     * The maximum number of requests that may wait for a connection to a host once the connection pool size has been reached.  Defaults to unbounded.
+     */
+    abstract Optional<Integer> getPendingAcquireQueueSize();
+
+    /**
+     * Whether to use the native epoll transport when it is available.  Defaults to {@code false}.
+     */
+    abstract Optional<Boolean> getPreferNativeTransport();
+
     /**
      * Jackson deserialization problem handlers.  Typically only used for testing.
      */
@@ -162,6 +270,24 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
      */
     abstract Optional<ProxyConfiguration> getProxyConfiguration();
 
+    /**
+     * The (optional) coalescer for identical {@code GET} requests that are in flight at the same time
+     */
+    @Override
+    public abstract Optional<RequestCoalescer> getRequestCoalescer();
+
+    /**
+     * The (optional) cache for responses to {@code GET} requests
+     */
+    @Override
+    public abstract Optional<ResponseCache> getResponseCache();
+
+    /**
+     * The (optional) policy for retrying and hedging {@code GET} requests
+     */
+    @Override
+    public abstract Optional<RetryPolicy> getRetryPolicy();
+
     /**
      * Whether to skip SSL certificate validation for all hosts reachable from the API host.  Defaults to {@code false}.
      */
@@ -186,6 +312,21 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
      */
     abstract Optional<Duration> getSslHandshakeTimeout();
 
+    /**
+     * The number of event loop threads.  Defaults to twice the number of available processors.  The event loop group created for this setting is shut down by {@link #dispose()}.
+     */
+    abstract Optional<Integer> getThreadPoolSize();
+
+    private static EventLoopGroup createEventLoopGroup(int threadPoolSize, boolean preferNativeTransport) {
+        ThreadFactory threadFactory = new DefaultThreadFactory("cloudfoundry-client", true);
+
+        if (preferNativeTransport && Epoll.isAvailable()) {
+            return new EpollEventLoopGroup(threadPoolSize, threadFactory);
+        }
+
+        return new NioEventLoopGroup(threadPoolSize, threadFactory);
+    }
+
     private static UriComponents normalize(UriComponentsBuilder builder) {
         UriComponents components = builder.build();
 
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.client;
+
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * A precompiled accessor for a no-argument getter method, backed by a {@link MethodHandle}
+ */
+public final class PropertyAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final MethodHandle methodHandle;
+
+    private PropertyAccessor(MethodHandle methodHandle) {
+        this.methodHandle = methodHandle;
+    }
+
+    /**
+     * Creates a new accessor for a method
+     *
+     * @param method the getter method to access
+     * @return the accessor
+     */
+    public static PropertyAccessor of(Method method) {
+        ReflectionUtils.makeAccessible(method);
+
+        try {
+            return new PropertyAccessor(MethodHandles.lookup().unreflect(method).asType(GETTER_TYPE));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(String.format("Unable to access method %s", method), e);
+        }
+    }
+
+    /**
+     * Invokes the getter on an instance
+     *
+     * @param instance the instance to invoke the getter on
+     * @return the value returned by the getter
+     */
+    public Object get(Object instance) {
+        try {
+            return this.methodHandle.invokeExact(instance);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new UndeclaredThrowableException(t);
+        }
+    }
+
+}
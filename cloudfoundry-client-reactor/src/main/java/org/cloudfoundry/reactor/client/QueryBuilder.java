@@ -22,8 +22,12 @@ import org.springframework.util.ReflectionUtils;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 /**
@@ -31,6 +35,8 @@ import java.util.stream.Collectors;
  */
 public final class QueryBuilder {
 
+    private static final ConcurrentMap<Class<?>, List<QueryWriter>> WRITERS = new ConcurrentHashMap<>();
+
     private QueryBuilder() {
     }
 
@@ -41,29 +47,55 @@ public final class QueryBuilder {
      * @param instance the instance to inspect and invoke
      */
     public static void augment(UriComponentsBuilder builder, Object instance) {
-        Method[] methods = ReflectionUtils.getAllDeclaredMethods(instance.getClass());
+        for (QueryWriter writer : WRITERS.computeIfAbsent(instance.getClass(), QueryBuilder::getWriters)) {
+            writer.write(builder, instance);
+        }
+    }
+
+    private static List<QueryWriter> getWriters(Class<?> type) {
+        Method[] methods = ReflectionUtils.getAllDeclaredMethods(type);
         Arrays.sort(methods, MethodNameComparator.INSTANCE);
 
+        List<QueryWriter> writers = new ArrayList<>();
         for (Method method : methods) {
             QueryParameter queryParameter = AnnotationUtils.getAnnotation(method, QueryParameter.class);
-            if (queryParameter == null) {
-                continue;
+            if (queryParameter != null) {
+                writers.add(new QueryWriter(PropertyAccessor.of(method), queryParameter.value(), queryParameter.delimiter()));
             }
+        }
+
+        return writers;
+    }
 
-            ReflectionUtils.makeAccessible(method);
-            Object value = ReflectionUtils.invokeMethod(method, instance);
+    private static final class QueryWriter {
+
+        private final PropertyAccessor accessor;
+
+        private final String delimiter;
+
+        private final String name;
+
+        private QueryWriter(PropertyAccessor accessor, String name, String delimiter) {
+            this.accessor = accessor;
+            this.delimiter = delimiter;
+            this.name = name;
+        }
+
+        private void write(UriComponentsBuilder builder, Object instance) {
+            Object value = this.accessor.get(instance);
 
             if (value != null) {
 
                 if (value instanceof Collection) {
-                    builder.queryParam(queryParameter.value(), ((Collection<?>) value).stream()
+                    builder.queryParam(this.name, ((Collection<?>) value).stream()
                         .map(Object::toString)
-                        .collect(Collectors.joining(queryParameter.delimiter())));
+                        .collect(Collectors.joining(this.delimiter)));
                 } else {
-                    builder.queryParam(queryParameter.value(), value);
+                    builder.queryParam(this.name, value);
                 }
             }
         }
+
     }
 
 }
@@ -18,6 +18,7 @@ package org.cloudfoundry.reactor.client.v2;
 
 import org.cloudfoundry.client.v2.FilterParameter;
 import org.cloudfoundry.reactor.client.MethodNameComparator;
+import org.cloudfoundry.reactor.client.PropertyAccessor;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
@@ -26,9 +27,12 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 /**
@@ -36,6 +40,8 @@ import java.util.stream.Collectors;
  */
 final class FilterBuilder {
 
+    private static final ConcurrentMap<Class<?>, List<FilterWriter>> WRITERS = new ConcurrentHashMap<>();
+
     private FilterBuilder() {
     }
 
@@ -46,33 +52,14 @@ final class FilterBuilder {
      * @param instance the instance to inspect and invoke
      */
     public static void augment(UriComponentsBuilder builder, Object instance) {
-        Method[] methods = ReflectionUtils.getAllDeclaredMethods(instance.getClass());
-        Arrays.sort(methods, MethodNameComparator.INSTANCE);
-
-        for (Method method : methods) {
-            for (Annotation annotation : AnnotationUtils.getAnnotations(method)) {
-                if (AnnotationUtils.isAnnotationMetaPresent(annotation.getClass(), FilterParameter.class)) {
-                    Object value = getValue(method, instance);
-
-                    if (value != null) {
-                        FilterParameter filterParameter = AnnotationUtils.getAnnotation(annotation, FilterParameter.class);
-
-                        Object name = AnnotationUtils.getValue(annotation);
-                        String operation = filterParameter.operator();
-
-                        builder.queryParam("q", String.format("%s%s%s", name, operation, value));
-                    }
-
-                    break;
-                }
-            }
+        for (FilterWriter writer : WRITERS.computeIfAbsent(instance.getClass(), FilterBuilder::getWriters)) {
+            writer.write(builder, instance);
         }
     }
 
     @SuppressWarnings("unchecked")
-    private static Object getValue(Method method, Object instance) {
-        ReflectionUtils.makeAccessible(method);
-        Object value = ReflectionUtils.invokeMethod(method, instance);
+    private static Object getValue(PropertyAccessor accessor, Object instance) {
+        Object value = accessor.get(instance);
 
         if (!(value instanceof Collection)) {
             return value;
@@ -89,4 +76,45 @@ final class FilterBuilder {
         return StringUtils.collectionToCommaDelimitedString(collection);
     }
 
+    private static List<FilterWriter> getWriters(Class<?> type) {
+        Method[] methods = ReflectionUtils.getAllDeclaredMethods(type);
+        Arrays.sort(methods, MethodNameComparator.INSTANCE);
+
+        List<FilterWriter> writers = new ArrayList<>();
+        for (Method method : methods) {
+            for (Annotation annotation : AnnotationUtils.getAnnotations(method)) {
+                if (AnnotationUtils.isAnnotationMetaPresent(annotation.getClass(), FilterParameter.class)) {
+                    FilterParameter filterParameter = AnnotationUtils.getAnnotation(annotation, FilterParameter.class);
+                    Object name = AnnotationUtils.getValue(annotation);
+
+                    writers.add(new FilterWriter(PropertyAccessor.of(method), String.format("%s%s", name, filterParameter.operator())));
+                    break;
+                }
+            }
+        }
+
+        return writers;
+    }
+
+    private static final class FilterWriter {
+
+        private final PropertyAccessor accessor;
+
+        private final String prefix;
+
+        private FilterWriter(PropertyAccessor accessor, String prefix) {
+            this.accessor = accessor;
+            this.prefix = prefix;
+        }
+
+        private void write(UriComponentsBuilder builder, Object instance) {
+            Object value = getValue(this.accessor, instance);
+
+            if (value != null) {
+                builder.queryParam("q", this.prefix + value);
+            }
+        }
+
+    }
+
 }
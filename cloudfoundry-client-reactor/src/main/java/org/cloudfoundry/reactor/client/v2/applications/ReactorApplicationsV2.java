@@ -54,11 +54,14 @@ import org.cloudfoundry.client.v2.applications.UploadApplicationResponse;
 import org.cloudfoundry.reactor.ConnectionContext;
 import org.cloudfoundry.reactor.TokenProvider;
 import org.cloudfoundry.reactor.client.v2.AbstractClientV2Operations;
+import org.cloudfoundry.reactor.util.FileCodec;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.HttpClientRequest;
 import reactor.ipc.netty.http.HttpClientResponse;
 
+import java.nio.file.Path;
+
 /**
  * The Reactor-based implementation of {@link ApplicationsV2}
  */
@@ -101,12 +104,36 @@ public final class ReactorApplicationsV2 extends AbstractClientV2Operations impl
             .flatMap(HttpClientResponse::receiveByteArray);
     }
 
+    /**
+     * Downloads the bits for an application, writing them to a file as they are received rather than buffering them on the heap
+     *
+     * @param request     the Download Application request
+     * @param destination the file to write the bits to
+     * @return a completion signal once the bits have been written
+     */
+    public Mono<Void> download(DownloadApplicationRequest request, Path destination) {
+        return get(request, builder -> builder.pathSegment("v2", "apps", request.getApplicationId(), "download"), HttpClientRequest::followRedirect)
+            .then(response -> FileCodec.write(destination).apply(response.receive()));
+    }
+
     @Override
     public Flux<byte[]> downloadDroplet(DownloadApplicationDropletRequest request) {
         return get(request, builder -> builder.pathSegment("v2", "apps", request.getApplicationId(), "droplet", "download"), HttpClientRequest::followRedirect)
             .flatMap(HttpClientResponse::receiveByteArray);
     }
 
+    /**
+     * Downloads the staged droplet for an application, writing it to a file as it is received rather than buffering it on the heap
+     *
+     * @param request     the Download Droplet request
+     * @param destination the file to write the droplet to
+     * @return a completion signal once the droplet has been written
+     */
+    public Mono<Void> downloadDroplet(DownloadApplicationDropletRequest request, Path destination) {
+        return get(request, builder -> builder.pathSegment("v2", "apps", request.getApplicationId(), "droplet", "download"), HttpClientRequest::followRedirect)
+            .then(response -> FileCodec.write(destination).apply(response.receive()));
+    }
+
     @Override
     public Mono<ApplicationEnvironmentResponse> environment(ApplicationEnvironmentRequest request) {
         return get(request, ApplicationEnvironmentResponse.class, builder -> builder.pathSegment("v2", "apps", request.getApplicationId(), "env"));
@@ -179,9 +206,16 @@ public final class ReactorApplicationsV2 extends AbstractClientV2Operations impl
                 .addPart(part -> part.setContentDispositionFormData("resources")
                     .addHeader(CONTENT_TYPE, APPLICATION_JSON)
                     .send(request.getResources()))
-                .addPart(part -> part.setContentDispositionFormData("application", "application.zip")
-                    .addHeader(CONTENT_TYPE, APPLICATION_ZIP)
-                    .sendInputStream(request.getApplication()))
+                .addPart(part -> {
+                    part.setContentDispositionFormData("application", "application.zip")
+                        .addHeader(CONTENT_TYPE, APPLICATION_ZIP);
+
+                    if (request.getApplicationPath() != null) {
+                        part.sendFile(request.getApplicationPath());
+                    } else {
+                        part.sendInputStream(request.getApplication());
+                    }
+                })
                 .done());
     }
 
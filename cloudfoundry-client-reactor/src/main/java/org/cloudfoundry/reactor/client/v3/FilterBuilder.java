@@ -18,6 +18,7 @@ package org.cloudfoundry.reactor.client.v3;
 
 import org.cloudfoundry.client.v3.FilterParameter;
 import org.cloudfoundry.reactor.client.MethodNameComparator;
+import org.cloudfoundry.reactor.client.PropertyAccessor;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
@@ -25,13 +26,18 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 final class FilterBuilder {
 
+    private static final ConcurrentMap<Class<?>, List<FilterWriter>> WRITERS = new ConcurrentHashMap<>();
+
     private FilterBuilder() {
     }
 
@@ -41,28 +47,15 @@ final class FilterBuilder {
      * @param builder  the builder to augment
      * @param instance the instance to inspect and invoke
      */
-    @SuppressWarnings("unchecked")
     public static void augment(UriComponentsBuilder builder, Object instance) {
-        Method[] methods = ReflectionUtils.getAllDeclaredMethods(instance.getClass());
-        Arrays.sort(methods, MethodNameComparator.INSTANCE);
-
-        for (Method method : methods) {
-            FilterParameter filterParameter = AnnotationUtils.getAnnotation(method, FilterParameter.class);
-            if (filterParameter == null) {
-                continue;
-            }
-
-            String value = getValue(method, instance);
-            if (StringUtils.hasText(value)) {
-                builder.queryParam(filterParameter.value(), value);
-            }
+        for (FilterWriter writer : WRITERS.computeIfAbsent(instance.getClass(), FilterBuilder::getWriters)) {
+            writer.write(builder, instance);
         }
     }
 
     @SuppressWarnings("unchecked")
-    private static String getValue(Method method, Object instance) {
-        ReflectionUtils.makeAccessible(method);
-        Object value = ReflectionUtils.invokeMethod(method, instance);
+    private static String getValue(PropertyAccessor accessor, Object instance) {
+        Object value = accessor.get(instance);
 
         if (value == null) {
             return "";
@@ -77,4 +70,40 @@ final class FilterBuilder {
         }
     }
 
+    private static List<FilterWriter> getWriters(Class<?> type) {
+        Method[] methods = ReflectionUtils.getAllDeclaredMethods(type);
+        Arrays.sort(methods, MethodNameComparator.INSTANCE);
+
+        List<FilterWriter> writers = new ArrayList<>();
+        for (Method method : methods) {
+            FilterParameter filterParameter = AnnotationUtils.getAnnotation(method, FilterParameter.class);
+            if (filterParameter != null) {
+                writers.add(new FilterWriter(PropertyAccessor.of(method), filterParameter.value()));
+            }
+        }
+
+        return writers;
+    }
+
+    private static final class FilterWriter {
+
+        private final PropertyAccessor accessor;
+
+        private final String name;
+
+        private FilterWriter(PropertyAccessor accessor, String name) {
+            this.accessor = accessor;
+            this.name = name;
+        }
+
+        private void write(UriComponentsBuilder builder, Object instance) {
+            String value = getValue(this.accessor, instance);
+
+            if (StringUtils.hasText(value)) {
+                builder.queryParam(this.name, value);
+            }
+        }
+
+    }
+
 }
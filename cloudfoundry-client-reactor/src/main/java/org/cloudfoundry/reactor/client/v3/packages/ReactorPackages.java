@@ -34,10 +34,13 @@ import org.cloudfoundry.client.v3.packages.UploadPackageResponse;
 import org.cloudfoundry.reactor.ConnectionContext;
 import org.cloudfoundry.reactor.TokenProvider;
 import org.cloudfoundry.reactor.client.v3.AbstractClientV3Operations;
+import org.cloudfoundry.reactor.util.FileCodec;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.HttpClientResponse;
 
+import java.nio.file.Path;
+
 /**
  * The Reactor-based implementation of {@link Packages}
  */
@@ -75,6 +78,18 @@ public final class ReactorPackages extends AbstractClientV3Operations implements
             .flatMap(HttpClientResponse::receiveByteArray);
     }
 
+    /**
+     * Downloads the bits for a package, writing them to a file as they are received rather than buffering them on the heap
+     *
+     * @param request     the Download Package request
+     * @param destination the file to write the bits to
+     * @return a completion signal once the bits have been written
+     */
+    public Mono<Void> download(DownloadPackageRequest request, Path destination) {
+        return get(request, builder -> builder.pathSegment("v3", "packages", request.getPackageId(), "download"))
+            .then(response -> FileCodec.write(destination).apply(response.receive()));
+    }
+
     @Override
     public Mono<GetPackageResponse> get(GetPackageRequest request) {
         return get(request, GetPackageResponse.class, builder -> builder.pathSegment("v3", "packages", request.getPackageId()));
@@ -94,9 +109,16 @@ public final class ReactorPackages extends AbstractClientV3Operations implements
     public Mono<UploadPackageResponse> upload(UploadPackageRequest request) {
         return post(request, UploadPackageResponse.class, builder -> builder.pathSegment("v3", "packages", request.getPackageId(), "upload"),
             outbound -> outbound
-                .addPart(part -> part.setContentDispositionFormData("bits", "application.zip")
-                    .addHeader(CONTENT_TYPE, APPLICATION_ZIP)
-                    .sendInputStream(request.getBits()))
+                .addPart(part -> {
+                    part.setContentDispositionFormData("bits", "application.zip")
+                        .addHeader(CONTENT_TYPE, APPLICATION_ZIP);
+
+                    if (request.getBitsPath() != null) {
+                        part.sendFile(request.getBitsPath());
+                    } else {
+                        part.sendInputStream(request.getBits());
+                    }
+                })
                 .done());
     }
 
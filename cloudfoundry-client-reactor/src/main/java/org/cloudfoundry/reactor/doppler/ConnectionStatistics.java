@@ -0,0 +1,153 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics for a single streaming connection to Doppler
+ */
+public final class ConnectionStatistics {
+
+    private final AtomicInteger buffered = new AtomicInteger();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final String name;
+
+    private final AtomicLong received = new AtomicLong();
+
+    private final AtomicLong receivedSinceConnect = new AtomicLong();
+
+    private final AtomicLong reconnects = new AtomicLong();
+
+    private final AtomicLong sampled = new AtomicLong();
+
+    private volatile long connectedAt = System.nanoTime();
+
+    ConnectionStatistics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the number of envelopes currently buffered for the consumer
+     *
+     * @return the number of buffered envelopes
+     */
+    public int getBuffered() {
+        return this.buffered.get();
+    }
+
+    /**
+     * Returns the number of envelopes dropped because the buffer was full or the consumer cancelled before they were delivered
+     *
+     * @return the number of dropped envelopes
+     */
+    public long getDropped() {
+        return this.dropped.get();
+    }
+
+    /**
+     * Returns the name of the connection
+     *
+     * @return the name of the connection
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Returns the number of envelopes received over the lifetime of the connection
+     *
+     * @return the number of envelopes received
+     */
+    public long getReceived() {
+        return this.received.get();
+    }
+
+    /**
+     * Returns the number of times the connection has been re-established
+     *
+     * @return the number of reconnects
+     */
+    public long getReconnects() {
+        return this.reconnects.get();
+    }
+
+    /**
+     * Returns the number of envelopes discarded by sampling
+     *
+     * @return the number of sampled out envelopes
+     */
+    public long getSampled() {
+        return this.sampled.get();
+    }
+
+    /**
+     * Returns the average number of envelopes received per second since the connection was last established
+     *
+     * @return the throughput of the connection
+     */
+    public double getThroughput() {
+        long elapsed = System.nanoTime() - this.connectedAt;
+        return elapsed <= 0 ? 0 : this.receivedSinceConnect.get() / ((double) elapsed / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConnectionStatistics{name=%s, received=%d, reconnects=%d, throughput=%.1f/s, buffered=%d, dropped=%d, sampled=%d}", this.name, getReceived(), getReconnects(),
+            getThroughput(), getBuffered(), getDropped(), getSampled());
+    }
+
+    void onBuffer() {
+        this.buffered.incrementAndGet();
+    }
+
+    void onConnect() {
+        this.connectedAt = System.nanoTime();
+        this.receivedSinceConnect.set(0);
+    }
+
+    void onDeliver() {
+        this.buffered.decrementAndGet();
+    }
+
+    void onDiscard() {
+        this.buffered.decrementAndGet();
+        this.dropped.incrementAndGet();
+    }
+
+    void onDrop() {
+        this.dropped.incrementAndGet();
+    }
+
+    void onReceive() {
+        this.received.incrementAndGet();
+        this.receivedSinceConnect.incrementAndGet();
+    }
+
+    void onReconnect() {
+        this.reconnects.incrementAndGet();
+    }
+
+    void onSample() {
+        this.sampled.incrementAndGet();
+    }
+
+}
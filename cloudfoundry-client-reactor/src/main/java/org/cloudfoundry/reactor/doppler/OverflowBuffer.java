@@ -0,0 +1,276 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import org.cloudfoundry.doppler.Envelope;
+import org.cloudfoundry.doppler.OverflowStrategy;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded buffer between a Doppler connection and a slow consumer.  The connection is always read as fast as envelopes arrive so that Doppler does not disconnect it as a slow consumer, and
+ * envelopes that do not fit in the buffer are dropped according to an {@link OverflowStrategy}.
+ */
+final class OverflowBuffer implements Publisher<Envelope> {
+
+    private final int capacity;
+
+    private final Publisher<Envelope> source;
+
+    private final ConnectionStatistics statistics;
+
+    private final OverflowStrategy strategy;
+
+    OverflowBuffer(Publisher<Envelope> source, int capacity, OverflowStrategy strategy, ConnectionStatistics statistics) {
+        this.capacity = capacity;
+        this.source = source;
+        this.statistics = statistics;
+        this.strategy = strategy;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super Envelope> subscriber) {
+        this.source.subscribe(new OverflowBufferSubscriber(subscriber, this.capacity, this.strategy, this.statistics));
+    }
+
+    private static final class OverflowBufferSubscriber implements Subscriber<Envelope>, Subscription {
+
+        private final Subscriber<? super Envelope> actual;
+
+        private final int capacity;
+
+        private final Queue<Envelope> queue;
+
+        private final AtomicLong requested = new AtomicLong();
+
+        private final ConnectionStatistics statistics;
+
+        private final OverflowStrategy strategy;
+
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private volatile boolean cancelled;
+
+        private volatile boolean done;
+
+        private Throwable error;
+
+        private volatile Throwable invalidRequest;
+
+        private Subscription upstream;
+
+        private OverflowBufferSubscriber(Subscriber<? super Envelope> actual, int capacity, OverflowStrategy strategy, ConnectionStatistics statistics) {
+            this.actual = actual;
+            this.capacity = capacity;
+            this.queue = new ArrayDeque<>(Math.min(capacity, 1024));
+            this.statistics = statistics;
+            this.strategy = strategy;
+        }
+
+        @Override
+        public void cancel() {
+            if (this.cancelled) {
+                return;
+            }
+
+            this.cancelled = true;
+            this.upstream.cancel();
+
+            if (this.wip.getAndIncrement() == 0) {
+                clear();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            this.done = true;
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            this.error = t;
+            this.done = true;
+            drain();
+        }
+
+        @Override
+        public void onNext(Envelope envelope) {
+            if (this.done) {
+                return;
+            }
+
+            boolean dropped = false;
+
+            synchronized (this.queue) {
+                if (this.queue.size() < this.capacity) {
+                    this.queue.offer(envelope);
+                    this.statistics.onBuffer();
+                } else if (this.strategy == OverflowStrategy.DROP_OLDEST) {
+                    this.queue.poll();
+                    this.queue.offer(envelope);
+                    dropped = true;
+                } else {
+                    dropped = true;
+                }
+            }
+
+            if (dropped) {
+                this.statistics.onDrop();
+            }
+
+            drain();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            this.upstream = s;
+            this.actual.onSubscribe(this);
+            s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                this.invalidRequest = new IllegalArgumentException(String.format("Request must be positive, but was %d", n));
+                this.upstream.cancel();
+                drain();
+                return;
+            }
+
+            long current;
+            do {
+                current = this.requested.get();
+            } while (current != Long.MAX_VALUE && !this.requested.compareAndSet(current, current + n < 0 ? Long.MAX_VALUE : current + n));
+
+            drain();
+        }
+
+        private void clear() {
+            synchronized (this.queue) {
+                this.queue.forEach(envelope -> this.statistics.onDiscard());
+                this.queue.clear();
+            }
+        }
+
+        private void drain() {
+            if (this.wip.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+
+            do {
+                long requested = this.requested.get();
+                long emitted = 0;
+
+                while (emitted != requested) {
+                    if (isCancelled()) {
+                        return;
+                    }
+
+                    boolean done = this.done;
+                    Envelope envelope = poll();
+
+                    if (done && envelope == null) {
+                        terminate();
+                        return;
+                    }
+
+                    if (envelope == null) {
+                        break;
+                    }
+
+                    this.actual.onNext(envelope);
+                    emitted++;
+                }
+
+                if (emitted == requested) {
+                    if (isCancelled()) {
+                        return;
+                    }
+
+                    if (this.done && isEmpty()) {
+                        terminate();
+                        return;
+                    }
+                }
+
+                if (emitted != 0 && requested != Long.MAX_VALUE) {
+                    this.requested.addAndGet(-emitted);
+                }
+
+                missed = this.wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Returns whether the subscription has been cancelled, discarding any buffered envelopes.  An invalid request cancels the subscription and is signalled from here so that it is serialized
+         * with the delivery of envelopes.
+         */
+        private boolean isCancelled() {
+            if (this.cancelled) {
+                clear();
+                return true;
+            }
+
+            Throwable invalidRequest = this.invalidRequest;
+            if (invalidRequest != null) {
+                this.cancelled = true;
+                clear();
+                this.actual.onError(invalidRequest);
+                return true;
+            }
+
+            return false;
+        }
+
+        private boolean isEmpty() {
+            synchronized (this.queue) {
+                return this.queue.isEmpty();
+            }
+        }
+
+        private Envelope poll() {
+            synchronized (this.queue) {
+                Envelope envelope = this.queue.poll();
+
+                if (envelope != null) {
+                    this.statistics.onDeliver();
+                }
+
+                return envelope;
+            }
+        }
+
+        private void terminate() {
+            if (this.error != null) {
+                this.actual.onError(this.error);
+            } else {
+                this.actual.onComplete();
+            }
+        }
+
+    }
+
+}
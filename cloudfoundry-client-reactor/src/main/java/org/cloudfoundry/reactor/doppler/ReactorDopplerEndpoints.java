@@ -16,23 +16,49 @@
 
 package org.cloudfoundry.reactor.doppler;
 
+import io.netty.buffer.ByteBuf;
 import org.cloudfoundry.doppler.ContainerMetricsRequest;
 import org.cloudfoundry.doppler.Envelope;
+import org.cloudfoundry.doppler.EventType;
 import org.cloudfoundry.doppler.FirehoseRequest;
+import org.cloudfoundry.doppler.OverflowStrategy;
 import org.cloudfoundry.doppler.RecentLogsRequest;
 import org.cloudfoundry.doppler.StreamRequest;
+import org.cloudfoundry.doppler.StreamingRequest;
 import org.cloudfoundry.reactor.ConnectionContext;
 import org.cloudfoundry.reactor.TokenProvider;
+import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.HttpClientResponse;
+import reactor.ipc.netty.http.HttpException;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
 
 final class ReactorDopplerEndpoints extends AbstractDopplerOperations {
 
+    private static final Duration MAXIMUM_BACKOFF = Duration.ofSeconds(30);
+
+    private static final Duration MINIMUM_BACKOFF = Duration.ofMillis(100);
+
+    private final Set<ConnectionStatistics> connectionStatistics = ConcurrentHashMap.newKeySet();
+
     ReactorDopplerEndpoints(ConnectionContext connectionContext, Mono<String> root, TokenProvider tokenProvider) {
         super(connectionContext, root, tokenProvider);
     }
@@ -44,9 +70,15 @@ final class ReactorDopplerEndpoints extends AbstractDopplerOperations {
     }
 
     Flux<Envelope> firehose(FirehoseRequest request) {
-        return ws(builder -> builder.pathSegment("firehose", request.getSubscriptionId()))
-            .flatMap(HttpClientResponse::receiveInputStream)
-            .map(ReactorDopplerEndpoints::toEnvelope);
+        int connections = Optional.ofNullable(request.getConnections()).orElse(1);
+        boolean reconnect = Optional.ofNullable(request.getReconnect()).orElse(false);
+
+        return shard(connections, index -> connection(String.format("firehose/%s/%d", request.getSubscriptionId(), index), request,
+            builder -> builder.pathSegment("firehose", request.getSubscriptionId()), reconnect));
+    }
+
+    Collection<ConnectionStatistics> getConnectionStatistics() {
+        return Collections.unmodifiableCollection(new ArrayList<>(this.connectionStatistics));
     }
 
     Flux<Envelope> recentLogs(RecentLogsRequest request) {
@@ -56,9 +88,73 @@ final class ReactorDopplerEndpoints extends AbstractDopplerOperations {
     }
 
     Flux<Envelope> stream(StreamRequest request) {
-        return ws(builder -> builder.pathSegment("apps", request.getApplicationId(), "stream"))
-            .flatMap(HttpClientResponse::receiveInputStream)
-            .map(ReactorDopplerEndpoints::toEnvelope);
+        return connection(String.format("stream/%s", request.getApplicationId()), request, builder -> builder.pathSegment("apps", request.getApplicationId(), "stream"), false);
+    }
+
+    private static Duration getBackoff(long attempt) {
+        Duration candidate = MINIMUM_BACKOFF.multipliedBy(1L << Math.min(attempt, 20));
+        return candidate.compareTo(MAXIMUM_BACKOFF) < 0 ? candidate : MAXIMUM_BACKOFF;
+    }
+
+    /**
+     * Returns whether a connection failure is transient and the connection should be re-established.  I/O errors, closed connections, and server errors are transient.  Other errors, such as a
+     * token that is still rejected after being refreshed or an envelope that cannot be decoded, are not.
+     */
+    static boolean isTransient(Throwable t) {
+        if (t instanceof HttpException) {
+            return ((HttpException) t).getResponseStatus().code() >= 500;
+        }
+
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectionClosedException || cause instanceof IOException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Re-establishes a connection, after the backoff for the number of consecutive failed attempts, whenever it closes or fails with a transient error.  The attempt count is reset once items
+     * flow again.
+     */
+    static <T> Flux<T> reconnect(Flux<T> connection, String name, ConnectionStatistics statistics, LongFunction<Duration> backoff) {
+        return Flux.defer(() -> {
+            AtomicLong attempts = new AtomicLong();
+
+            return connection
+                .doOnNext(item -> attempts.set(0))
+                .concatWith(Mono.error(new ConnectionClosedException(name)))
+                .retryWhen(errors -> errors
+                    .concatMap(error -> {
+                        if (!isTransient(error)) {
+                            return Mono.<Long>error(error);
+                        }
+
+                        statistics.onReconnect();
+                        return Mono.delay(backoff.apply(attempts.getAndIncrement()));
+                    }));
+        });
+    }
+
+    private static Predicate<Envelope> sampler(Map<EventType, Integer> sampleRates, ConnectionStatistics statistics) {
+        Map<EventType, AtomicLong> counters = new EnumMap<>(EventType.class);
+        sampleRates.keySet().forEach(eventType -> counters.put(eventType, new AtomicLong()));
+
+        return envelope -> {
+            AtomicLong counter = counters.get(envelope.getEventType());
+            if (counter == null || counter.getAndIncrement() % sampleRates.get(envelope.getEventType()) == 0) {
+                return true;
+            }
+
+            statistics.onSample();
+            return false;
+        };
+    }
+
+    static <T> Flux<T> shard(int connections, IntFunction<Flux<T>> connection) {
+        return Flux.range(0, connections)
+            .flatMap(connection::apply, connections);
     }
 
     private static Envelope toEnvelope(InputStream inputStream) {
@@ -69,4 +165,47 @@ final class ReactorDopplerEndpoints extends AbstractDopplerOperations {
         }
     }
 
+    private Flux<Envelope> connection(String name, StreamingRequest request, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer, boolean reconnect) {
+        ConnectionStatistics statistics = new ConnectionStatistics(name);
+
+        Flux<Envelope> envelopes = Flux
+            .defer(() -> {
+                statistics.onConnect();
+                return ws(uriTransformer);
+            })
+            .flatMap(HttpClientResponse::receive)
+            .map(ByteBuf::nioBuffer)
+            .filter(buffer -> request.getEventTypes().isEmpty() || request.getEventTypes().contains(Envelope.peekEventType(buffer)))
+            .map(Envelope::from)
+            .doOnNext(envelope -> statistics.onReceive());
+
+        if (reconnect) {
+            envelopes = reconnect(envelopes, name, statistics, ReactorDopplerEndpoints::getBackoff);
+        }
+
+        if (!request.getSampleRates().isEmpty()) {
+            envelopes = envelopes
+                .filter(sampler(request.getSampleRates(), statistics));
+        }
+
+        if (request.getBufferSize() != null) {
+            envelopes = Flux.from(new OverflowBuffer(envelopes, request.getBufferSize(), Optional.ofNullable(request.getOverflowStrategy()).orElse(OverflowStrategy.DROP_OLDEST), statistics));
+        }
+
+        return envelopes
+            .doOnSubscribe(subscription -> this.connectionStatistics.add(statistics))
+            .doOnCancel(() -> this.connectionStatistics.remove(statistics))
+            .doOnTerminate(() -> this.connectionStatistics.remove(statistics));
+    }
+
+    private static final class ConnectionClosedException extends IllegalStateException {
+
+        private static final long serialVersionUID = -1536484212530442455L;
+
+        private ConnectionClosedException(String name) {
+            super(String.format("Connection %s closed", name));
+        }
+
+    }
+
 }
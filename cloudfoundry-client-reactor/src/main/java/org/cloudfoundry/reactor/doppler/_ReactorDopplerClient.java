@@ -31,6 +31,8 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.HttpClient;
 
+import java.util.Collection;
+
 /**
  * The Reactor-based implementation of {@link DopplerClient}
  */
@@ -47,6 +49,15 @@ abstract class _ReactorDopplerClient implements DopplerClient {
         return getDopplerEndpoints().firehose(request);
     }
 
+    /**
+     * Returns statistics for each of the currently open firehose and stream connections
+     *
+     * @return the statistics for each connection
+     */
+    public Collection<ConnectionStatistics> getConnectionStatistics() {
+        return getDopplerEndpoints().getConnectionStatistics();
+    }
+
     @Override
     public Flux<Envelope> recentLogs(RecentLogsRequest request) {
         return getDopplerEndpoints().recentLogs(request);
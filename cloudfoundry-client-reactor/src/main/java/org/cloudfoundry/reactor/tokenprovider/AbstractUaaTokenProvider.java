@@ -27,17 +27,21 @@ import org.immutables.value.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.util.UriComponentsBuilder;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
 
 import java.time.Duration;
 import java.util.Base64;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
 
 /**
- * An abstract base class for all token providers that interact with the UAA.  It encapsulates the logic to refresh the token before expiration.
+ * An abstract base class for all token providers that interact with the UAA.  It encapsulates the logic to refresh the token before expiration.  Concurrent requests for a token share a
+ * single request to the UAA, tokens are refreshed in the background ahead of expiry while they are still being requested, and a token that has been rejected by a server can be invalidated.
  */
 public abstract class AbstractUaaTokenProvider implements TokenProvider {
 
@@ -45,9 +49,11 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
 
     private static final Duration REFRESH_MARGIN = Duration.ofSeconds(10);
 
-    private final Object refreshTokenMonitor = new Object();
+    private final RefreshStatistics refreshStatistics = new RefreshStatistics();
 
-    private final ConcurrentMap<ConnectionContext, Mono<String>> tokens = new ConcurrentHashMap<>(1);
+    private final Set<ConnectionContext> requested = ConcurrentHashMap.newKeySet();
+
+    private final ConcurrentMap<ConnectionContext, AtomicReference<MonoProcessor<String>>> tokens = new ConcurrentHashMap<>(1);
 
     private volatile String refreshToken;
 
@@ -67,18 +73,36 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
         return "";
     }
 
+    /**
+     * Returns statistics about the token requests performed by this provider
+     *
+     * @return the refresh statistics
+     */
+    public final RefreshStatistics getRefreshStatistics() {
+        return this.refreshStatistics;
+    }
+
     /**
      * Returns the current refresh token.  May be {@code null} if there is no valid refresh token.
      */
     public final String getRefreshToken() {
-        synchronized (this.refreshTokenMonitor) {
-            return this.refreshToken;
-        }
+        return this.refreshToken;
     }
 
     @Override
     public final Mono<String> getToken(ConnectionContext connectionContext) {
-        return this.tokens.computeIfAbsent(connectionContext, this::getTokenFlow);
+        return Mono.defer(() -> getToken(connectionContext, getTokenReference(connectionContext)));
+    }
+
+    @Override
+    public final void invalidate(ConnectionContext connectionContext, String token) {
+        AtomicReference<MonoProcessor<String>> reference = getTokenReference(connectionContext);
+        MonoProcessor<String> current = reference.get();
+
+        if (current != null && token.equals(current.peek()) && reference.compareAndSet(current, null)) {
+            LOGGER.debug("JWT Token invalidated");
+            this.refreshStatistics.onInvalidate();
+        }
     }
 
     /**
@@ -89,8 +113,15 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
      */
     protected abstract UriComponentsBuilder getAccessTokenUri(UriComponentsBuilder builder);
 
-    private static Duration getRefreshDelay(Map<String, Integer> r) {
-        return Duration.ofSeconds(r.get("expires_in")).minus(REFRESH_MARGIN);
+    private static String getAccessToken(Map<String, Object> response) {
+        String token = (String) response.get("access_token");
+        LOGGER.debug("JWT Token: {}", token);
+        return token;
+    }
+
+    private static Duration getRefreshDelay(Map<String, Object> response) {
+        Duration delay = Duration.ofSeconds(((Number) response.get("expires_in")).longValue()).minus(REFRESH_MARGIN);
+        return delay.isNegative() ? Duration.ZERO : delay;
     }
 
     private String getAuthorizationValue() {
@@ -106,47 +137,105 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
             .queryParam("refresh_token", refreshToken);
     }
 
-    @SuppressWarnings("unchecked")
-    private Mono<String> getTokenFlow(ConnectionContext connectionContext) {
-        return connectionContext
-            .getRoot("authorization_endpoint")
-            .map(this::getTokenUri)
-            .then(uri -> connectionContext.getHttpClient()
-                .post(uri, outbound -> outbound
-                    .addHeader("Content-Length", "0")
-                    .addHeader(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_X_WWW_FORM_URLENCODED)
-                    .addHeader(HttpHeaderNames.AUTHORIZATION, getAuthorizationValue())
-                    .removeTransferEncodingChunked()
-                    .sendHeaders())
-                .doOnSubscribe(NetworkLogging.get(uri))
-                .compose(NetworkLogging.response(uri)))
-            .then(i -> i.receive().aggregate().toInputStream())
-            .map(JsonCodec.decode(connectionContext.getObjectMapper(), Map.class))
-            .doOnNext(r -> {
-                synchronized (this.refreshTokenMonitor) {
-                    this.refreshToken = (String) r.get("refresh_token");
-                }
-            })
-            .flatMap(r -> Flux.merge(
-                Mono.just(r.get("access_token")),
-                Mono.delay(getRefreshDelay(r)).then()
-            ))
-            .repeat()
-            .cast(String.class)
-            .doOnNext(token -> LOGGER.debug("JWT Token: {}", token))
-            .cache(1)
-            .next();
-    }
-
-    private String getTokenUri(String root) {
+    private Mono<String> getToken(ConnectionContext connectionContext, AtomicReference<MonoProcessor<String>> reference) {
+        MonoProcessor<String> current = reference.get();
+        if (current != null) {
+            this.requested.add(connectionContext);
+            return current;
+        }
+
+        MonoProcessor<String> processor = MonoProcessor.create();
+        if (!reference.compareAndSet(null, processor)) {
+            return getToken(connectionContext, reference);
+        }
+
+        requestToken(connectionContext, this.refreshStatistics::onFetch)
+            .subscribe(response -> {
+                processor.onNext(getAccessToken(response));
+                scheduleRefresh(connectionContext, reference, processor, response);
+            }, t -> {
+                reference.compareAndSet(processor, null);
+                processor.onError(t);
+            });
+
+        return processor;
+    }
+
+    private AtomicReference<MonoProcessor<String>> getTokenReference(ConnectionContext connectionContext) {
+        return this.tokens.computeIfAbsent(connectionContext, c -> new AtomicReference<>());
+    }
+
+    private String getTokenUri(String root, String refreshToken) {
         UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(root)
             .pathSegment("oauth", "token");
 
-        synchronized (this.refreshTokenMonitor) {
-            builder = this.refreshToken == null ? getAccessTokenUri(builder) : getRefreshTokenUri(builder, this.refreshToken);
-        }
+        builder = refreshToken == null ? getAccessTokenUri(builder) : getRefreshTokenUri(builder, refreshToken);
 
         return builder.build().encode().toUriString();
     }
 
+    private void refreshAhead(ConnectionContext connectionContext, AtomicReference<MonoProcessor<String>> reference, MonoProcessor<String> expected) {
+        if (reference.get() != expected) {
+            return;
+        }
+
+        if (!this.requested.remove(connectionContext)) {  // Stop refreshing a token that nobody has requested since it was last fetched, and fetch a new one when it is next requested
+            if (reference.compareAndSet(expected, null)) {
+                LOGGER.debug("JWT Token unused since last refresh, no longer refreshing ahead of expiry");
+            }
+
+            return;
+        }
+
+        requestToken(connectionContext, this.refreshStatistics::onRefresh)
+            .subscribe(response -> {
+                MonoProcessor<String> processor = MonoProcessor.create();
+                processor.onNext(getAccessToken(response));
+
+                if (reference.compareAndSet(expected, processor)) {
+                    scheduleRefresh(connectionContext, reference, processor, response);
+                }
+            }, t -> LOGGER.debug("Unable to refresh JWT Token ahead of expiry", t));  // The current token remains in use until it is rejected
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<Map<String, Object>> requestToken(ConnectionContext connectionContext, LongConsumer onSuccess) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            String refreshToken = this.refreshToken;
+
+            return connectionContext
+                .getRoot("authorization_endpoint")
+                .map(root -> getTokenUri(root, refreshToken))
+                .then(uri -> connectionContext.getHttpClient()
+                    .post(uri, outbound -> outbound
+                        .addHeader("Content-Length", "0")
+                        .addHeader(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_X_WWW_FORM_URLENCODED)
+                        .addHeader(HttpHeaderNames.AUTHORIZATION, getAuthorizationValue())
+                        .removeTransferEncodingChunked()
+                        .sendHeaders())
+                    .doOnSubscribe(NetworkLogging.get(uri))
+                    .compose(NetworkLogging.response(uri)))
+                .then(i -> i.receive().aggregate().toInputStream())
+                .map(JsonCodec.decode(connectionContext.getObjectMapper(), Map.class))
+                .map(r -> (Map<String, Object>) r)
+                .doOnNext(r -> {
+                    this.refreshToken = (String) r.get("refresh_token");
+                    onSuccess.accept(System.nanoTime() - start);
+                })
+                .doOnError(t -> {
+                    if (refreshToken != null && refreshToken.equals(this.refreshToken)) {  // A rejected refresh token is discarded so that the next request falls back to the access grant
+                        this.refreshToken = null;
+                    }
+
+                    this.refreshStatistics.onFailure();
+                });
+        });
+    }
+
+    private void scheduleRefresh(ConnectionContext connectionContext, AtomicReference<MonoProcessor<String>> reference, MonoProcessor<String> processor, Map<String, Object> response) {
+        Mono.delay(getRefreshDelay(response))
+            .subscribe(n -> refreshAhead(connectionContext, reference, processor));
+    }
+
 }
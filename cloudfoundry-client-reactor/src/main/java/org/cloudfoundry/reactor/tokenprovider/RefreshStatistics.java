@@ -0,0 +1,126 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.tokenprovider;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics for the token requests performed by a token provider.  Fetches, made when no token is available, are counted separately from refreshes made ahead of expiry.
+ */
+public final class RefreshStatistics {
+
+    private final AtomicLong failures = new AtomicLong();
+
+    private final AtomicLong fetches = new AtomicLong();
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final AtomicLong refreshes = new AtomicLong();
+
+    private final AtomicLong totalLatency = new AtomicLong();
+
+    private volatile long lastLatency;
+
+    RefreshStatistics() {
+    }
+
+    /**
+     * Returns the average latency of successful token fetches and refreshes
+     *
+     * @return the average request latency
+     */
+    public Duration getAverageLatency() {
+        long requests = this.fetches.get() + this.refreshes.get();
+        return requests == 0 ? Duration.ZERO : Duration.ofNanos(this.totalLatency.get() / requests);
+    }
+
+    /**
+     * Returns the number of token fetches and refreshes that have failed
+     *
+     * @return the number of failed requests
+     */
+    public long getFailures() {
+        return this.failures.get();
+    }
+
+    /**
+     * Returns the number of tokens that have been fetched because no token was available, either initially or after a token was invalidated or went unused
+     *
+     * @return the number of successful fetches
+     */
+    public long getFetches() {
+        return this.fetches.get();
+    }
+
+    /**
+     * Returns the number of tokens that have been invalidated after being rejected by a server
+     *
+     * @return the number of invalidated tokens
+     */
+    public long getInvalidations() {
+        return this.invalidations.get();
+    }
+
+    /**
+     * Returns the latency of the most recent successful token fetch or refresh
+     *
+     * @return the latest request latency
+     */
+    public Duration getLastLatency() {
+        return Duration.ofNanos(this.lastLatency);
+    }
+
+    /**
+     * Returns the number of tokens that have been refreshed ahead of expiry
+     *
+     * @return the number of successful refreshes
+     */
+    public long getRefreshes() {
+        return this.refreshes.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RefreshStatistics{fetches=%d, refreshes=%d, failures=%d, invalidations=%d, averageLatency=%dms, lastLatency=%dms}", getFetches(), getRefreshes(), getFailures(),
+            getInvalidations(), getAverageLatency().toMillis(), getLastLatency().toMillis());
+    }
+
+    void onFailure() {
+        this.failures.incrementAndGet();
+    }
+
+    void onFetch(long latency) {
+        this.fetches.incrementAndGet();
+        onLatency(latency);
+    }
+
+    void onInvalidate() {
+        this.invalidations.incrementAndGet();
+    }
+
+    void onRefresh(long latency) {
+        this.refreshes.incrementAndGet();
+        onLatency(latency);
+    }
+
+    private void onLatency(long latency) {
+        this.lastLatency = latency;
+        this.totalLatency.addAndGet(latency);
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.uaa;
+
+import io.jsonwebtoken.impl.Base64Codec;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.X509EncodedKeySpec;
+
+/**
+ * Utilities for working with the signing keys published by the UAA
+ */
+final class TokenKeys {
+
+    private static final Base64Codec BASE64 = new Base64Codec();
+
+    private static final String BEGIN = "-----BEGIN PUBLIC KEY-----";
+
+    private static final String END = "-----END PUBLIC KEY-----";
+
+    private TokenKeys() {
+    }
+
+    /**
+     * Converts a PEM encoded RSA public key to a {@link PublicKey}
+     *
+     * @param pem the PEM encoded key
+     * @return the public key
+     */
+    static PublicKey toPublicKey(String pem) {
+        try {
+            return KeyFactory
+                .getInstance("RSA")
+                .generatePublic(new X509EncodedKeySpec(BASE64.decode(pem.replace(BEGIN, "").replace(END, "").trim())));
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
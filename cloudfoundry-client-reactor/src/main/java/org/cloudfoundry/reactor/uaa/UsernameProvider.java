@@ -19,7 +19,6 @@ package org.cloudfoundry.reactor.uaa;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.impl.Base64Codec;
 import org.cloudfoundry.reactor.ConnectionContext;
 import org.cloudfoundry.reactor.TokenProvider;
 import org.cloudfoundry.uaa.tokens.GetTokenKeyRequest;
@@ -27,22 +26,13 @@ import org.cloudfoundry.uaa.tokens.GetTokenKeyResponse;
 import org.cloudfoundry.uaa.tokens.Tokens;
 import reactor.core.publisher.Mono;
 
-import java.security.GeneralSecurityException;
-import java.security.KeyFactory;
 import java.security.PublicKey;
-import java.security.spec.X509EncodedKeySpec;
 import java.util.Optional;
 
 import static org.cloudfoundry.util.tuple.TupleUtils.function;
 
 final class UsernameProvider {
 
-    private static final Base64Codec BASE64 = new Base64Codec();
-
-    private static final String BEGIN = "-----BEGIN PUBLIC KEY-----";
-
-    private static final String END = "-----END PUBLIC KEY-----";
-
     private final ConnectionContext connectionContext;
 
     private final TokenProvider tokenProvider;
@@ -63,21 +53,10 @@ final class UsernameProvider {
             .map(function(UsernameProvider::getUsername));
     }
 
-    private static PublicKey generateKey(String pem) {
-        try {
-            return KeyFactory
-                .getInstance("RSA")
-                .generatePublic(new X509EncodedKeySpec(BASE64.decode(pem)));
-        } catch (GeneralSecurityException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
     private static Mono<PublicKey> getSigningKey(Tokens tokens) {
         return requestTokenKey(tokens)
             .map(GetTokenKeyResponse::getValue)
-            .map(pem -> pem.replace(BEGIN, "").replace(END, "").trim())
-            .map(UsernameProvider::generateKey);
+            .map(TokenKeys::toPublicKey);
     }
 
     private static String getUsername(PublicKey publicKey, String token) {
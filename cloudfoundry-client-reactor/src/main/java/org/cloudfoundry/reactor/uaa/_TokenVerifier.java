@@ -0,0 +1,185 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.uaa;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import org.cloudfoundry.uaa.tokens.CheckTokenRequest;
+import org.cloudfoundry.uaa.tokens.KeyType;
+import org.cloudfoundry.uaa.tokens.ListTokenKeysRequest;
+import org.cloudfoundry.uaa.tokens.TokenKey;
+import org.cloudfoundry.uaa.tokens.Tokens;
+import org.immutables.value.Value;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Verifies UAA issued JWTs locally.  The signing keys of the UAA are retrieved once and cached, and are retrieved again when a token signed by an unknown key is encountered.  Tokens are only
+ * sent to the UAA's {@code /check_token} endpoint when they cannot be verified locally, for example when they are signed with a symmetric key.
+ */
+@Value.Immutable
+abstract class _TokenVerifier {
+
+    private static final TypeReference<Map<String, Object>> CLAIMS_TYPE = new TypeReference<Map<String, Object>>() {
+
+    };
+
+    private final AtomicReference<MonoProcessor<Map<String, PublicKey>>> keys = new AtomicReference<>();
+
+    private volatile long keysRequestedAt;
+
+    /**
+     * Verifies the signature and expiry of a token
+     *
+     * @param token the token to verify
+     * @return the claims of the token
+     */
+    public final Mono<Claims> verify(String token) {
+        return getKeys(false)
+            .then(keys -> parse(keys, token))
+            .otherwiseIfEmpty(getKeys(true)
+                .then(keys -> parse(keys, token)))
+            .otherwiseIfEmpty(Mono.defer(() -> check(token)));
+    }
+
+    /**
+     * The client id used to authenticate with the {@code /check_token} endpoint
+     */
+    abstract String getClientId();
+
+    /**
+     * The client secret used to authenticate with the {@code /check_token} endpoint
+     */
+    abstract String getClientSecret();
+
+    /**
+     * The minimum interval between retrievals of the signing keys caused by tokens signed with an unknown key.  Defaults to 30 seconds.
+     */
+    @Value.Default
+    Duration getKeyRefreshInterval() {
+        return Duration.ofSeconds(30);
+    }
+
+    @Value.Default
+    ObjectMapper getObjectMapper() {
+        return new ObjectMapper();
+    }
+
+    /**
+     * The tokens API of the UAA that issued the tokens
+     */
+    abstract Tokens getTokens();
+
+    private static Mono<Claims> parse(Map<String, PublicKey> keys, String token) {
+        try {
+            return Mono.just(Jwts.parser()
+                .setSigningKeyResolver(new KeyResolver(keys))
+                .parseClaimsJws(token)
+                .getBody());
+        } catch (UnknownKeyException e) {
+            return Mono.empty();
+        }
+    }
+
+    private Mono<Claims> check(String token) {
+        return getTokens()
+            .check(CheckTokenRequest.builder()
+                .clientId(getClientId())
+                .clientSecret(getClientSecret())
+                .token(token)
+                .build())
+            .map(response -> Jwts.claims(getObjectMapper().convertValue(response, CLAIMS_TYPE)));
+    }
+
+    private Mono<Map<String, PublicKey>> getKeys(boolean refresh) {
+        return Mono.defer(() -> {
+            MonoProcessor<Map<String, PublicKey>> current = this.keys.get();
+            if (current != null && !(refresh && System.nanoTime() - this.keysRequestedAt > getKeyRefreshInterval().toNanos())) {
+                return current;
+            }
+
+            MonoProcessor<Map<String, PublicKey>> processor = MonoProcessor.create();
+            if (!this.keys.compareAndSet(current, processor)) {
+                return getKeys(refresh);
+            }
+
+            this.keysRequestedAt = System.nanoTime();
+            requestKeys()
+                .subscribe(processor::onNext, t -> {
+                    this.keys.compareAndSet(processor, null);
+                    processor.onError(t);
+                });
+
+            return processor;
+        });
+    }
+
+    private Mono<Map<String, PublicKey>> requestKeys() {
+        return getTokens()
+            .listKeys(ListTokenKeysRequest.builder()
+                .build())
+            .flatMap(response -> Flux.fromIterable(response.getKeys()))
+            .filter(key -> KeyType.RSA == key.getKeyType())
+            .collectMap(TokenKey::getId, key -> TokenKeys.toPublicKey(key.getValue()));
+    }
+
+    private static final class KeyResolver extends SigningKeyResolverAdapter {
+
+        private final Map<String, PublicKey> keys;
+
+        private KeyResolver(Map<String, PublicKey> keys) {
+            this.keys = keys;
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            if (!SignatureAlgorithm.forName(header.getAlgorithm()).isRsa()) {
+                throw new UnknownKeyException();
+            }
+
+            String keyId = header.getKeyId();
+            PublicKey key = keyId == null && this.keys.size() == 1 ? this.keys.values().iterator().next() : this.keys.get(keyId);
+
+            if (key == null) {
+                throw new UnknownKeyException();
+            }
+
+            return key;
+        }
+
+    }
+
+    private static final class UnknownKeyException extends RuntimeException {
+
+        private static final long serialVersionUID = -5541278040452516447L;
+
+    }
+
+}
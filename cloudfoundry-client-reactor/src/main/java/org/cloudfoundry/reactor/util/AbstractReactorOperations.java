@@ -18,16 +18,30 @@ package org.cloudfoundry.reactor.util;
 
 
 import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.util.AsciiString;
+import org.cloudfoundry.reactor.CachedResponse;
+import org.cloudfoundry.reactor.ConcurrencyLimiter;
 import org.cloudfoundry.reactor.ConnectionContext;
+import org.cloudfoundry.reactor.ConnectionLimiter;
+import org.cloudfoundry.reactor.RequestCoalescer;
+import org.cloudfoundry.reactor.ResponseCache;
+import org.cloudfoundry.reactor.RetryPolicy;
 import org.cloudfoundry.reactor.TokenProvider;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.HttpClientRequest;
 import reactor.ipc.netty.http.HttpClientResponse;
+import reactor.ipc.netty.http.HttpException;
 import reactor.ipc.netty.http.HttpOutbound;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 public abstract class AbstractReactorOperations {
 
@@ -41,6 +55,18 @@ public abstract class AbstractReactorOperations {
 
     protected static final AsciiString CONTENT_TYPE = new AsciiString("Content-Type");
 
+    private static final AsciiString CACHE_CONTROL = new AsciiString("Cache-Control");
+
+    private static final AsciiString ETAG = new AsciiString("ETag");
+
+    private static final AsciiString IF_NONE_MATCH = new AsciiString("If-None-Match");
+
+    private static final String MAX_AGE = "max-age=";
+
+    private static final String NO_CACHE = "no-cache";
+
+    private static final String NO_STORE = "no-store";
+
     private final ConnectionContext connectionContext;
 
     private final Mono<String> root;
@@ -57,103 +83,104 @@ public abstract class AbstractReactorOperations {
                                          Function<HttpClientRequest, HttpClientRequest> requestTransformer) {
         return this.root
             .map(root -> buildUri(root, uriTransformer))
-            .then(uri -> this.connectionContext.getHttpClient()
-                .delete(uri, outbound -> addAuthorization(outbound, this.connectionContext, this.tokenProvider)
+            .then(uri -> limit(uri, exchange(true, token -> this.connectionContext.getHttpClient()
+                .delete(uri, outbound -> addAuthorization(outbound, token)
                     .map(requestTransformer)
                     .then(o -> o.send(serializedRequest(o, request))))
                 .doOnSubscribe(NetworkLogging.delete(uri))
                 .compose(NetworkLogging.response(uri)))
-            .compose(deserializedResponse(responseType));
+                .compose(deserializedResponse(responseType)))
+                .doOnSuccess(response -> invalidate(uri)));
     }
 
     protected final <T> Mono<T> doGet(Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer, Function<HttpClientRequest, HttpClientRequest> requestTransformer) {
-        return doGet(uriTransformer, requestTransformer)
-            .compose(deserializedResponse(responseType));
+        return this.root
+            .map(root -> buildUri(root, uriTransformer))
+            .then(uri -> coalesce(uri, responseType, () -> retry(uri, () -> this.connectionContext.getResponseCache()
+                .flatMap(responseCache -> responseCache.getTimeToLive(uri)
+                    .map(timeToLive -> this.tokenProvider.getToken(this.connectionContext)
+                        .then(token -> getCached(responseCache, timeToLive, uri, token, responseType, requestTransformer))))
+                .orElseGet(() -> hedge(uri, () -> limit(uri, get(uri, requestTransformer)
+                    .compose(deserializedResponse(responseType))))))));
     }
 
+    /**
+     * Executes a {@code GET} request whose response payload is consumed by the caller.  The exchange is not limited, as the limiters cannot observe when the caller finishes with the payload.
+     */
     protected final Mono<HttpClientResponse> doGet(Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer, Function<HttpClientRequest, HttpClientRequest> requestTransformer) {
         return this.root
             .map(root -> buildUri(root, uriTransformer))
-            .then(uri -> this.connectionContext.getHttpClient()
-                .get(uri, outbound -> addAuthorization(outbound, this.connectionContext, this.tokenProvider)
-                    .map(requestTransformer)
-                    .then(HttpClientRequest::sendHeaders))
-                .doOnSubscribe(NetworkLogging.get(uri))
-                .compose(NetworkLogging.response(uri)));
+            .then(uri -> retry(uri, () -> get(uri, requestTransformer)));
     }
 
     protected final <T> Mono<T> doPatch(Object request, Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer,
                                         Function<HttpClientRequest, HttpClientRequest> requestTransformer) {
         return this.root
             .map(root -> buildUri(root, uriTransformer))
-            .then(uri -> this.connectionContext.getHttpClient()
-                .patch(uri, outbound -> addAuthorization(outbound, this.connectionContext, this.tokenProvider)
+            .then(uri -> limit(uri, exchange(true, token -> this.connectionContext.getHttpClient()
+                .patch(uri, outbound -> addAuthorization(outbound, token)
                     .map(requestTransformer)
                     .then(o -> o.send(serializedRequest(o, request))))
                 .doOnSubscribe(NetworkLogging.patch(uri))
                 .compose(NetworkLogging.response(uri)))
-            .compose(deserializedResponse(responseType));
+                .compose(deserializedResponse(responseType)))
+                .doOnSuccess(response -> invalidate(uri)));
     }
 
     protected final <T> Mono<T> doPost(Object request, Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer,
                                        Function<HttpClientRequest, HttpClientRequest> requestTransformer) {
 
-        return doPost(responseType, uriTransformer, outbound -> requestTransformer.apply(outbound)
+        return doPost(true, responseType, uriTransformer, outbound -> requestTransformer.apply(outbound)
             .send(serializedRequest(outbound, request)));
     }
 
     protected final <T> Mono<T> doPost(Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer, Function<HttpClientRequest, Mono<Void>> requestTransformer) {
-        return this.root
-            .map(root -> buildUri(root, uriTransformer))
-            .then(uri -> this.connectionContext.getHttpClient()
-                .post(uri, outbound -> addAuthorization(outbound, this.connectionContext, this.tokenProvider)
-                    .then(requestTransformer))
-                .doOnSubscribe(NetworkLogging.post(uri))
-                .compose(NetworkLogging.response(uri)))
-            .compose(deserializedResponse(responseType));
+        return doPost(false, responseType, uriTransformer, requestTransformer);
     }
 
     protected final <T> Mono<T> doPut(Object request, Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer,
                                       Function<HttpClientRequest, HttpClientRequest> requestTransformer) {
         return this.root
             .map(root -> buildUri(root, uriTransformer))
-            .then(uri -> this.connectionContext.getHttpClient()
-                .put(uri, outbound -> addAuthorization(outbound, this.connectionContext, this.tokenProvider)
+            .then(uri -> limit(uri, exchange(true, token -> this.connectionContext.getHttpClient()
+                .put(uri, outbound -> addAuthorization(outbound, token)
                     .map(requestTransformer)
                     .then(o -> o.send(serializedRequest(o, request))))
                 .doOnSubscribe(NetworkLogging.put(uri))
                 .compose(NetworkLogging.response(uri)))
-            .compose(deserializedResponse(responseType));
+                .compose(deserializedResponse(responseType)))
+                .doOnSuccess(response -> invalidate(uri)));
     }
 
     protected final <T> Mono<T> doPut(Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer, Function<HttpClientRequest, Mono<Void>> requestTransformer) {
         return this.root
             .map(root -> buildUri(root, uriTransformer))
-            .then(uri -> this.connectionContext.getHttpClient()
-                .put(uri, outbound -> addAuthorization(outbound, this.connectionContext, this.tokenProvider)
+            .then(uri -> limit(uri, false, exchange(false, token -> this.connectionContext.getHttpClient()
+                .put(uri, outbound -> addAuthorization(outbound, token)
                     .then(requestTransformer))
                 .doOnSubscribe(NetworkLogging.put(uri))
                 .compose(NetworkLogging.response(uri)))
-            .compose(deserializedResponse(responseType));
+                .compose(deserializedResponse(responseType)))
+                .doOnSuccess(response -> invalidate(uri)));
     }
 
+    /**
+     * Executes a WebSocket upgrade request.  The exchange is not limited, as the connection stays open for as long as the caller consumes the stream.
+     */
     protected final Mono<HttpClientResponse> doWs(Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer, Function<HttpClientRequest, HttpClientRequest> requestTransformer) {
         return this.root
             .map(root -> buildUri(root, uriTransformer))
-            .then(uri -> this.connectionContext.getHttpClient()
-                .get(uri, outbound -> addAuthorization(outbound, this.connectionContext, this.tokenProvider)
+            .then(uri -> exchange(true, token -> this.connectionContext.getHttpClient()
+                .get(uri, outbound -> addAuthorization(outbound, token)
                     .map(requestTransformer)
                     .then(HttpClientRequest::upgradeToTextWebsocket))
                 .doOnSubscribe(NetworkLogging.ws(uri))
-                .compose(NetworkLogging.response(uri)));
+                .compose(NetworkLogging.response(uri))));
     }
 
-    private static <T extends HttpOutbound> Mono<T> addAuthorization(T outbound, ConnectionContext connectionContext, TokenProvider tokenProvider) {
-        return tokenProvider.getToken(connectionContext)
-            .map(token -> {
-                outbound.addHeader("Authorization", String.format("bearer %s", token));
-                return outbound;
-            });
+    private static <T extends HttpOutbound> Mono<T> addAuthorization(T outbound, String token) {
+        outbound.addHeader(AUTHORIZATION, String.format("bearer %s", token));
+        return Mono.just(outbound);
     }
 
     private static String buildUri(String root, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer) {
@@ -162,6 +189,74 @@ public abstract class AbstractReactorOperations {
             .build().encode().toUriString();
     }
 
+    /**
+     * Returns the time to live of a response, taking its {@code Cache-Control} header into account
+     *
+     * @return the time to live, or empty if the response must not be stored
+     */
+    private static Optional<Duration> getTimeToLive(HttpClientResponse inbound, Duration timeToLive) {
+        String cacheControl = inbound.responseHeaders().get(CACHE_CONTROL);
+        if (cacheControl == null) {
+            return Optional.of(timeToLive);
+        }
+
+        Duration candidate = timeToLive;
+        for (String directive : cacheControl.toLowerCase(Locale.ENGLISH).split(",")) {
+            directive = directive.trim();
+
+            if (NO_STORE.equals(directive)) {
+                return Optional.empty();
+            } else if (NO_CACHE.equals(directive)) {
+                return Optional.of(Duration.ZERO);
+            } else if (directive.startsWith(MAX_AGE)) {
+                try {
+                    candidate = Duration.ofSeconds(Long.parseLong(directive.substring(MAX_AGE.length())));
+                } catch (NumberFormatException e) {
+                    candidate = Duration.ZERO;
+                }
+            }
+        }
+
+        return Optional.of(candidate);
+    }
+
+    private static String getHost(String uri) {
+        return UriComponentsBuilder.fromUriString(uri).build().getHost();
+    }
+
+    private static boolean isUnauthorized(Throwable t) {
+        return t instanceof HttpException && ((HttpException) t).getResponseStatus().code() == HttpResponseStatus.UNAUTHORIZED.code();
+    }
+
+    private static void store(ResponseCache responseCache, String uri, String identity, HttpClientResponse inbound, Duration timeToLive, Optional<String> entityTag, Object payload) {
+        if (payload == null) {
+            return;
+        }
+
+        String responseEntityTag = inbound.responseHeaders().get(ETAG);
+
+        getTimeToLive(inbound, timeToLive)
+            .ifPresent(duration -> responseCache.put(uri, identity, CachedResponse.builder()
+                .entityTag(responseEntityTag != null ? Optional.of(responseEntityTag) : entityTag)
+                .expiration(Instant.now().plus(duration))
+                .payload(payload)
+                .build()));
+    }
+
+    /**
+     * Executes a {@code GET} exchange through the {@link RequestCoalescer}, if one is configured.  Exchanges are identified by their URI, response type, and token, so that requests made with
+     * different identities are never coalesced.
+     */
+    private <T> Mono<T> coalesce(String uri, Class<T> responseType, Supplier<Mono<T>> exchange) {
+        Optional<RequestCoalescer> requestCoalescer = this.connectionContext.getRequestCoalescer();
+        if (!requestCoalescer.isPresent()) {
+            return exchange.get();
+        }
+
+        return this.tokenProvider.getToken(this.connectionContext)
+            .then(token -> requestCoalescer.get().coalesce(String.format("GET %s %s %s", uri, responseType.getName(), token), exchange));
+    }
+
     private <T> Function<Mono<HttpClientResponse>, Mono<T>> deserializedResponse(Class<T> responseType) {
         return inbound -> inbound
             .then(i -> i.receive().aggregate().toInputStream())
@@ -169,6 +264,159 @@ public abstract class AbstractReactorOperations {
             .doOnError(JsonParsingException.class, e -> NetworkLogging.RESPONSE_LOGGER.debug("\n{}", e.getPayload()));
     }
 
+    private <T> Mono<T> doPost(boolean repeatable, Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer,
+                               Function<HttpClientRequest, Mono<Void>> requestTransformer) {
+        return this.root
+            .map(root -> buildUri(root, uriTransformer))
+            .then(uri -> limit(uri, repeatable, exchange(repeatable, token -> this.connectionContext.getHttpClient()
+                .post(uri, outbound -> addAuthorization(outbound, token)
+                    .then(requestTransformer))
+                .doOnSubscribe(NetworkLogging.post(uri))
+                .compose(NetworkLogging.response(uri)))
+                .compose(deserializedResponse(responseType)))
+                .doOnSuccess(response -> invalidate(uri)));
+    }
+
+    /**
+     * Executes an exchange with the current token.  If the exchange is repeatable and the token is rejected, the token is invalidated and the exchange is retried once with a new token.
+     */
+    private Mono<HttpClientResponse> exchange(boolean repeatable, Function<String, Mono<HttpClientResponse>> exchange) {
+        return this.tokenProvider.getToken(this.connectionContext)
+            .then(token -> {
+                Mono<HttpClientResponse> response = exchange.apply(token);
+
+                if (!repeatable) {
+                    return response;
+                }
+
+                return response
+                    .otherwise(AbstractReactorOperations::isUnauthorized, t -> {
+                        this.tokenProvider.invalidate(this.connectionContext, token);
+                        return this.tokenProvider.getToken(this.connectionContext).then(exchange);
+                    });
+            });
+    }
+
+    private Mono<HttpClientResponse> get(String uri, Function<HttpClientRequest, HttpClientRequest> requestTransformer) {
+        return exchange(true, token -> this.connectionContext.getHttpClient()
+            .get(uri, outbound -> addAuthorization(outbound, token)
+                .map(requestTransformer)
+                .then(HttpClientRequest::sendHeaders))
+            .doOnSubscribe(NetworkLogging.get(uri))
+            .compose(NetworkLogging.response(uri)));
+    }
+
+    /**
+     * Executes a {@code GET} request through a {@link ResponseCache}.  A fresh cached response is returned without a request.  A stale cached response is revalidated with its {@code ETag} and
+     * returned again if the server responds with {@code 304 Not Modified}.  Responses are cached under the token that the request is made with.
+     */
+    private <T> Mono<T> getCached(ResponseCache responseCache, Duration timeToLive, String uri, String token, Class<T> responseType,
+                                  Function<HttpClientRequest, HttpClientRequest> requestTransformer) {
+        Optional<CachedResponse> cached = responseCache.get(uri, token)
+            .filter(response -> responseType.isInstance(response.getPayload()));
+
+        if (cached.filter(CachedResponse::isFresh).isPresent()) {
+            return Mono.just(responseType.cast(cached.get().getPayload()));
+        }
+
+        Optional<String> entityTag = cached.flatMap(CachedResponse::getEntityTag);
+
+        Function<HttpClientRequest, HttpClientRequest> conditionalRequestTransformer = outbound -> {
+            entityTag.ifPresent(tag -> outbound.headers().set(IF_NONE_MATCH, tag));
+            return requestTransformer.apply(outbound);
+        };
+
+        return hedge(uri, () -> limit(uri, get(uri, conditionalRequestTransformer)
+            .then(inbound -> {
+                if (entityTag.isPresent() && inbound.status().code() == HttpResponseStatus.NOT_MODIFIED.code()) {
+                    T payload = responseType.cast(cached.get().getPayload());
+                    store(responseCache, uri, token, inbound, timeToLive, entityTag, payload);
+
+                    return inbound.receive().then()
+                        .then(Mono.just(payload));
+                }
+
+                return Mono.just(inbound)
+                    .compose(deserializedResponse(responseType))
+                    .doOnSuccess(payload -> store(responseCache, uri, token, inbound, timeToLive, Optional.empty(), payload));
+            })));
+    }
+
+    /**
+     * Executes a {@code GET} exchange that goes to the network, sending a duplicate exchange if the original is slower than the hedge delay of the {@link RetryPolicy}, if one is configured.  The
+     * first exchange to complete is used and the other is cancelled.  The duplicate exchange is only created once the delay has elapsed, and its failure is ignored so that it never preempts the
+     * original.  Responses served from a {@link ResponseCache} are not hedged, so that their latencies are never recorded by the policy.
+     */
+    private <T> Mono<T> hedge(String uri, Supplier<Mono<T>> exchange) {
+        Optional<RetryPolicy> retryPolicy = this.connectionContext.getRetryPolicy();
+        if (!retryPolicy.isPresent()) {
+            return exchange.get();
+        }
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            Mono<T> primary = exchange.get();
+
+            return retryPolicy.get().getHedgeDelay(uri)
+                .map(delay -> Mono.first(primary, Mono.delay(delay)
+                    .then(n -> exchange.get()
+                        .otherwise(t -> Mono.<T>never()))))
+                .orElse(primary)
+                .doOnSuccess(response -> retryPolicy.get().recordLatency(uri, Duration.ofNanos(System.nanoTime() - start)));
+        });
+    }
+
+    /**
+     * Removes the cached responses that a modifying request may have changed from the {@link ResponseCache}, if one is configured
+     */
+    private void invalidate(String uri) {
+        this.connectionContext.getResponseCache()
+            .ifPresent(responseCache -> responseCache.invalidate(uri));
+    }
+
+    private <T> Mono<T> limit(String uri, Mono<T> exchange) {
+        return limit(uri, true, exchange);
+    }
+
+    /**
+     * Executes an exchange through the host's {@link ConcurrencyLimiter} and {@link ConnectionLimiter}, if they are configured.  The connection is held until the returned {@link Mono} terminates,
+     * so callers should include the consumption of the response payload in the exchange.  Exchanges whose payload is consumed outside of the returned {@link Mono} must not be limited.  The
+     * latency seen by the concurrency limiter excludes the time spent waiting for a connection, and uploads, whose latency depends on the size of their payload, are not latency sensitive.
+     */
+    private <T> Mono<T> limit(String uri, boolean latencySensitive, Mono<T> exchange) {
+        String host = getHost(uri);
+        Optional<ConnectionLimiter> connectionLimiter = this.connectionContext.getConnectionLimiter(host);
+
+        Function<Mono<Void>, Mono<T>> request = sent -> connectionLimiter
+            .map(limiter -> limiter.limit(sent.then(exchange)))
+            .orElseGet(() -> sent.then(exchange));
+
+        return this.connectionContext.getConcurrencyLimiter(host)
+            .map(concurrencyLimiter -> concurrencyLimiter.limit(latencySensitive, request))
+            .orElseGet(() -> request.apply(Mono.empty()));
+    }
+
+    /**
+     * Executes a {@code GET} exchange through the {@link RetryPolicy}, if one is configured.  Failed exchanges are retried after the delay chosen by the policy, before the failure is translated
+     * into a client exception.
+     */
+    private <T> Mono<T> retry(String uri, Supplier<Mono<T>> exchange) {
+        Optional<RetryPolicy> retryPolicy = this.connectionContext.getRetryPolicy();
+        if (!retryPolicy.isPresent()) {
+            return exchange.get();
+        }
+
+        return Mono.defer(() -> {
+            AtomicInteger attempts = new AtomicInteger();
+
+            return Mono.defer(exchange)
+                .retryWhen(errors -> errors
+                    .concatMap(error -> retryPolicy.get().getRetryDelay(attempts.incrementAndGet(), error)
+                        .map(Mono::delay)
+                        .orElseGet(() -> Mono.error(error))));
+        });
+    }
+
     private Mono<ByteBuf> serializedRequest(HttpClientRequest outbound, Object request) {
         return Mono.just(request)
             .filter(req -> this.connectionContext.getObjectMapper().canSerialize(req.getClass()))
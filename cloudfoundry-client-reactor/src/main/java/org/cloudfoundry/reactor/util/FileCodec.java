@@ -0,0 +1,105 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.buffer.ByteBuf;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Writes payloads directly to files.  Each chunk is transferred from its network buffer to a {@link FileChannel} as it is received, so the payload is never copied onto the heap.  Writes block,
+ * so they are performed on the {@link Schedulers#elastic()} scheduler rather than the event loop that received the chunk.  Chunks are retained until they are written, and any chunks still
+ * waiting to be written when the payload fails or is cancelled are released.
+ */
+public final class FileCodec {
+
+    private FileCodec() {
+    }
+
+    /**
+     * Write a payload to a file, creating or truncating the file as required
+     *
+     * @param destination the file to write to
+     * @return a function that writes a payload to the file and completes when the payload has been fully written
+     */
+    public static Function<Flux<ByteBuf>, Mono<Void>> write(Path destination) {
+        return chunks -> Mono.<Void, FileChannel>using(
+            () -> FileChannel.open(destination, CREATE, TRUNCATE_EXISTING, WRITE),
+            channel -> {
+                Queue<ByteBuf> received = new ConcurrentLinkedQueue<>();
+
+                return chunks
+                    .doOnNext(chunk -> received.add(chunk.retain()))
+                    .publishOn(Schedulers.elastic())
+                    .doOnNext(chunk -> write(channel, received))
+                    .doOnCancel(() -> release(received))
+                    .doOnError(t -> release(received))
+                    .then();
+            },
+            FileCodec::close);
+    }
+
+    private static void close(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private static void release(Queue<ByteBuf> received) {
+        ByteBuf chunk;
+
+        while ((chunk = received.poll()) != null) {
+            chunk.release();
+        }
+    }
+
+    private static void write(FileChannel channel, Queue<ByteBuf> received) {
+        ByteBuf chunk = received.poll();
+        if (chunk == null) {
+            return;
+        }
+
+        try {
+            int index = chunk.readerIndex();
+            int end = chunk.writerIndex();
+
+            while (index < end) {
+                index += chunk.getBytes(index, channel, end - index);
+            }
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        } finally {
+            chunk.release();
+        }
+    }
+
+}
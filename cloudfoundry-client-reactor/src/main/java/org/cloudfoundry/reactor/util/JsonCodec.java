@@ -16,16 +16,19 @@
 
 package org.cloudfoundry.reactor.util;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.util.AsciiString;
 import reactor.core.Exceptions;
 import reactor.ipc.netty.http.HttpClientRequest;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 
 public final class JsonCodec {
@@ -34,6 +37,10 @@ public final class JsonCodec {
 
     private static final AsciiString CONTENT_TYPE = new AsciiString("Content-Type");
 
+    private static final int DEFAULT_SIZE_HINT = 256;
+
+    private static final ConcurrentMap<Class<?>, Integer> SIZE_HINTS = new ConcurrentHashMap<>();
+
     public static <T> Function<InputStream, T> decode(ObjectMapper objectMapper, Class<T> type) {
         return inputStream -> {
             try (InputStream in = inputStream) {
@@ -49,12 +56,22 @@ public final class JsonCodec {
         return source -> encode(request.delegate().alloc(), objectMapper, source);
     }
 
+    /**
+     * Encode a value as JSON directly into a buffer from the allocator.  The initial capacity of the buffer is the size of the last value of the same type that was encoded.
+     */
     static <T> ByteBuf encode(ByteBufAllocator allocator, ObjectMapper objectMapper, T source) {
-        try {
-            return allocator.directBuffer().writeBytes(objectMapper.writeValueAsBytes(source));
-        } catch (JsonProcessingException e) {
+        Class<?> type = source.getClass();
+        ByteBuf byteBuf = allocator.directBuffer(SIZE_HINTS.getOrDefault(type, DEFAULT_SIZE_HINT));
+
+        try (OutputStream out = new ByteBufOutputStream(byteBuf)) {
+            objectMapper.writeValue(out, source);
+        } catch (IOException e) {
+            byteBuf.release();
             throw Exceptions.propagate(e);
         }
+
+        SIZE_HINTS.put(type, byteBuf.readableBytes());
+        return byteBuf;
     }
 
 }
@@ -16,25 +16,41 @@
 
 package org.cloudfoundry.reactor.util;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
-import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
 import io.netty.handler.codec.http.DefaultHttpHeaders;
 import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.ssl.SslHandler;
 import io.netty.util.AsciiString;
 import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+import reactor.core.scheduler.Schedulers;
 import reactor.ipc.netty.http.HttpClientRequest;
 
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
+/**
+ * A {@code multipart/form-data} request body.  Parts are written as a stream of chunks so that large payloads are never held in memory in their entirety.  If the length of every part is known
+ * up front, the request is sent with a {@code Content-Length} header, otherwise it falls back to chunked transfer encoding.  File parts on a connection without TLS are sent with the outbound's
+ * {@code sendFile}, which transfers them as zero-copy file regions.
+ */
 public final class MultipartHttpClientRequest {
 
     private static final byte[] BOUNDARY_CHARS = new byte[]{'-', '_', '1', '2', '3', '4', '5', '6', '7', '8', '9', '0', 'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm', 'n', 'o',
@@ -42,6 +58,8 @@ public final class MultipartHttpClientRequest {
 
     private static final AsciiString BOUNDARY_PREAMBLE = new AsciiString("; boundary=");
 
+    private static final int CHUNK_SIZE = 64 * 1024;
+
     private static final AsciiString CONTENT_DISPOSITION = new AsciiString("Content-Disposition");
 
     private static final AsciiString CONTENT_LENGTH = new AsciiString("Content-Length");
@@ -58,6 +76,8 @@ public final class MultipartHttpClientRequest {
 
     private static final Random RND = new Random();
 
+    private static final long UNKNOWN_LENGTH = -1;
+
     private final ObjectMapper objectMapper;
 
     private final HttpClientRequest outbound;
@@ -78,15 +98,33 @@ public final class MultipartHttpClientRequest {
         AsciiString boundary = generateMultipartBoundary();
         ByteBufAllocator allocator = this.outbound.delegate().alloc();
 
-        CompositeByteBuf bodyBuf = allocator.compositeBuffer();
-        this.partConsumers.forEach(partConsumer -> bodyBuf.addComponent(getPart(allocator, boundary, this.objectMapper, partConsumer)));
-        bodyBuf.addComponent(getCloseDelimiter(allocator, boundary));
+        List<PartHttpClientRequest> parts = this.partConsumers.stream()
+            .map(partConsumer -> {
+                PartHttpClientRequest part = new PartHttpClientRequest(this.objectMapper);
+                partConsumer.accept(part);
+                return part;
+            })
+            .collect(Collectors.toList());
+
+        this.outbound.addHeader(CONTENT_TYPE, MULTIPART_FORM_DATA.concat(BOUNDARY_PREAMBLE).concat(boundary));
+
+        long contentLength = getContentLength(boundary, parts);
+        if (contentLength != UNKNOWN_LENGTH) {
+            this.outbound
+                .removeTransferEncodingChunked()
+                .addHeader(CONTENT_LENGTH, String.valueOf(contentLength));
+        }
+
+        if (contentLength != UNKNOWN_LENGTH && isZeroCopySupported(this.outbound.delegate()) && parts.stream().anyMatch(PartHttpClientRequest::isFile)) {
+            return Flux.fromIterable(parts)
+                .concatMap(part -> part.send(this.outbound, allocator, boundary))
+                .then(Mono.defer(() -> this.outbound.send(Mono.fromSupplier(() -> toByteBuf(allocator, getCloseDelimiter(boundary))))));
+        }
 
         return this.outbound
-            .removeTransferEncodingChunked()
-            .addHeader(CONTENT_TYPE, MULTIPART_FORM_DATA.concat(BOUNDARY_PREAMBLE).concat(boundary))
-            .addHeader(CONTENT_LENGTH, String.valueOf(bodyBuf.capacity()))
-            .sendOne(bodyBuf.writerIndex(bodyBuf.capacity()));
+            .send(Flux.fromIterable(parts)
+                .concatMap(part -> part.getBody(allocator, boundary))
+                .concatWith(Mono.fromSupplier(() -> toByteBuf(allocator, getCloseDelimiter(boundary)))));
     }
 
     private static AsciiString generateMultipartBoundary() {
@@ -97,26 +135,31 @@ public final class MultipartHttpClientRequest {
         return new AsciiString(boundary);
     }
 
-    private static ByteBuf getCloseDelimiter(ByteBufAllocator allocator, AsciiString boundary) {
-        AsciiString s = DOUBLE_DASH.concat(boundary).concat(DOUBLE_DASH);
-        return allocator.directBuffer(s.length()).writeBytes(s.toByteArray());
+    private static AsciiString getCloseDelimiter(AsciiString boundary) {
+        return DOUBLE_DASH.concat(boundary).concat(DOUBLE_DASH);
     }
 
-    private static ByteBuf getDelimiter(ByteBufAllocator allocator, AsciiString boundary) {
-        AsciiString s = DOUBLE_DASH.concat(boundary).concat(CRLF);
-        return allocator.directBuffer(s.length()).writeBytes(s.toByteArray());
-    }
+    private static long getContentLength(AsciiString boundary, List<PartHttpClientRequest> parts) {
+        long contentLength = getCloseDelimiter(boundary).length();
+
+        for (PartHttpClientRequest part : parts) {
+            long partLength = part.getLength(boundary);
+            if (partLength == UNKNOWN_LENGTH) {
+                return UNKNOWN_LENGTH;
+            }
 
-    private static ByteBuf getPart(ByteBufAllocator allocator, AsciiString boundary, ObjectMapper objectMapper, Consumer<PartHttpClientRequest> partConsumer) {
-        PartHttpClientRequest part = new PartHttpClientRequest(objectMapper);
-        partConsumer.accept(part);
+            contentLength += partLength;
+        }
 
-        CompositeByteBuf body = allocator.compositeBuffer();
-        body.addComponent(getDelimiter(allocator, boundary));
-        body.addComponent(part.getHeaders(allocator));
-        body.addComponent(part.getData(allocator));
+        return contentLength;
+    }
 
-        return body.writerIndex(body.capacity());
+    private static boolean isZeroCopySupported(Channel channel) {
+        return channel.pipeline().get(SslHandler.class) == null;
+    }
+
+    private static ByteBuf toByteBuf(ByteBufAllocator allocator, AsciiString s) {
+        return allocator.directBuffer(s.length()).writeBytes(s.array(), s.arrayOffset(), s.length());
     }
 
     public static final class PartHttpClientRequest {
@@ -125,10 +168,16 @@ public final class MultipartHttpClientRequest {
 
         private final ObjectMapper objectMapper;
 
+        private long contentLength = UNKNOWN_LENGTH;
+
         private InputStream inputStream;
 
+        private Path path;
+
         private Object source;
 
+        private byte[] sourceBytes;
+
         private PartHttpClientRequest(ObjectMapper objectMapper) {
             this.objectMapper = objectMapper;
         }
@@ -142,8 +191,39 @@ public final class MultipartHttpClientRequest {
             this.source = source;
         }
 
+        /**
+         * Send the contents of a file.  When the transport allows it, the file is transferred to the connection as a file region, without being copied through user space.
+         *
+         * @param path the file to send
+         */
+        public void sendFile(Path path) {
+            try {
+                this.path = path;
+                this.contentLength = Files.size(path);
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+        }
+
+        /**
+         * Send the contents of a stream.  If the stream reads a file, the remaining length of the file is used as the length of the part, otherwise the request falls back to chunked transfer
+         * encoding.
+         *
+         * @param inputStream the stream to send
+         */
         public void sendInputStream(InputStream inputStream) {
+            sendInputStream(inputStream, getRemainingLength(inputStream));
+        }
+
+        /**
+         * Send the contents of a stream of a known length
+         *
+         * @param inputStream   the stream to send
+         * @param contentLength the number of bytes that will be read from the stream
+         */
+        public void sendInputStream(InputStream inputStream, long contentLength) {
             this.inputStream = inputStream;
+            this.contentLength = contentLength;
         }
 
         public PartHttpClientRequest setContentDispositionFormData(String name) {
@@ -162,47 +242,116 @@ public final class MultipartHttpClientRequest {
             return this;
         }
 
-        private static ByteBuf getData(ByteBufAllocator allocator, InputStream inputStream) {
-            try (InputStream in = inputStream) {
-                ByteBuf byteBuf = allocator.directBuffer(in.available());
-                byteBuf.writeBytes(inputStream, inputStream.available());
-                return byteBuf;
+        private static void close(InputStream inputStream) {
+            try {
+                inputStream.close();
             } catch (IOException e) {
                 throw Exceptions.propagate(e);
             }
         }
 
-        private static ByteBuf getData(ByteBufAllocator allocator, ObjectMapper objectMapper, Object source) {
-            return JsonCodec.encode(allocator, objectMapper, source);
+        private static long getRemainingLength(InputStream inputStream) {
+            if (!(inputStream instanceof FileInputStream)) {
+                return UNKNOWN_LENGTH;
+            }
+
+            try {
+                FileChannel channel = ((FileInputStream) inputStream).getChannel();
+                return channel.size() - channel.position();
+            } catch (IOException e) {
+                return UNKNOWN_LENGTH;
+            }
         }
 
-        private ByteBuf getData(ByteBufAllocator allocator) {
-            CompositeByteBuf dataBuf = allocator.compositeBuffer();
+        private static InputStream read(InputStream inputStream, ByteBufAllocator allocator, SynchronousSink<ByteBuf> sink) {
+            ByteBuf byteBuf = allocator.directBuffer(CHUNK_SIZE);
 
-            dataBuf.addComponent(allocator.directBuffer(CRLF.length()).writeBytes(CRLF.toByteArray()));
+            try {
+                if (byteBuf.writeBytes(inputStream, CHUNK_SIZE) == -1) {
+                    byteBuf.release();
+                    sink.complete();
+                } else {
+                    sink.next(byteBuf);
+                }
+            } catch (IOException e) {
+                byteBuf.release();
+                sink.error(e);
+            }
 
-            if (this.inputStream != null) {
-                dataBuf.addComponent(getData(allocator, this.inputStream));
+            return inputStream;
+        }
+
+        private Flux<ByteBuf> getBody(ByteBufAllocator allocator, AsciiString boundary) {
+            return Flux.concat(
+                Mono.fromSupplier(() -> toByteBuf(allocator, getPreamble(boundary))),
+                getData(allocator),
+                Mono.fromSupplier(() -> toByteBuf(allocator, CRLF)));
+        }
+
+        private Flux<ByteBuf> getData(ByteBufAllocator allocator) {
+            if (this.inputStream != null) {  // Blocking reads are moved off the event loop
+                return Flux.<ByteBuf, InputStream>generate(() -> this.inputStream, (in, sink) -> read(in, allocator, sink), PartHttpClientRequest::close)
+                    .subscribeOn(Schedulers.elastic());
+            } else if (this.path != null) {
+                return Flux.<ByteBuf, InputStream>generate(() -> Files.newInputStream(this.path), (in, sink) -> read(in, allocator, sink), PartHttpClientRequest::close)
+                    .subscribeOn(Schedulers.elastic());
             } else if (this.source != null) {
-                dataBuf.addComponent(getData(allocator, this.objectMapper, this.source));
+                return Flux.just(Unpooled.wrappedBuffer(getSourceBytes()));
+            } else {
+                return Flux.empty();
             }
+        }
 
-            dataBuf.addComponent(allocator.directBuffer(CRLF.length()).writeBytes(CRLF.toByteArray()));
+        private long getDataLength() {
+            if (this.inputStream != null || this.path != null) {
+                return this.contentLength;
+            } else if (this.source != null) {
+                return getSourceBytes().length;
+            } else {
+                return 0;
+            }
+        }
 
-            return dataBuf.writerIndex(dataBuf.capacity());
+        private long getLength(AsciiString boundary) {
+            long dataLength = getDataLength();
+            return dataLength == UNKNOWN_LENGTH ? UNKNOWN_LENGTH : getPreamble(boundary).length() + dataLength + CRLF.length();
         }
 
-        private ByteBuf getHeaders(ByteBufAllocator allocator) {
-            AsciiString s = AsciiString.EMPTY_STRING;
+        private AsciiString getPreamble(AsciiString boundary) {
+            AsciiString s = DOUBLE_DASH.concat(boundary).concat(CRLF);
 
             for (Map.Entry<String, String> entry : this.headers) {
                 s = s.concat(new AsciiString(entry.getKey())).concat(HEADER_DELIMITER).concat(entry.getValue()).concat(CRLF);
             }
 
-            return allocator.directBuffer(s.length()).writeBytes(s.toByteArray());
+            return s.concat(CRLF);
         }
 
+        private byte[] getSourceBytes() {
+            if (this.sourceBytes == null) {
+                try {
+                    this.sourceBytes = this.objectMapper.writeValueAsBytes(this.source);
+                } catch (JsonProcessingException e) {
+                    throw Exceptions.propagate(e);
+                }
+            }
+
+            return this.sourceBytes;
+        }
 
+        private boolean isFile() {
+            return this.path != null;
+        }
+
+        private Mono<Void> send(HttpClientRequest outbound, ByteBufAllocator allocator, AsciiString boundary) {
+            if (this.path == null) {
+                return outbound.send(getBody(allocator, boundary));
+            }
+
+            return outbound.send(Mono.fromSupplier(() -> toByteBuf(allocator, getPreamble(boundary))))
+                .then(Mono.defer(() -> outbound.sendFile(this.path.toFile(), 0, this.contentLength)))
+                .then(Mono.defer(() -> outbound.send(Mono.fromSupplier(() -> toByteBuf(allocator, CRLF)))));
+        }
     }
 
 }
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import org.cloudfoundry.util.test.TestSubscriber;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+
+public final class ConcurrencyLimiterTest {
+
+    private final ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(2, 1, 3, Duration.ofSeconds(1));
+
+    @Test
+    public void limit() throws InterruptedException {
+        MonoProcessor<String> first = MonoProcessor.create();
+        MonoProcessor<String> second = MonoProcessor.create();
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        this.concurrencyLimiter.limit(first).subscribe();
+        this.concurrencyLimiter.limit(second).subscribe();
+        this.concurrencyLimiter.limit(Mono.just("test-third"))
+            .subscribe(testSubscriber
+                .expectEquals("test-third"));
+
+        assertEquals(2, this.concurrencyLimiter.getActive());
+        assertEquals(1, this.concurrencyLimiter.getPending());
+
+        first.onNext("test-first");
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+        assertEquals(3, this.concurrencyLimiter.getLimit());
+        assertEquals(1, this.concurrencyLimiter.getActive());
+        assertEquals(0, this.concurrencyLimiter.getPending());
+    }
+
+    @Test
+    public void limitDropped() throws InterruptedException {
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        this.concurrencyLimiter.limit(Mono.<String>error(new TimeoutException("test-timeout")))
+            .subscribe(testSubscriber
+                .expectError(TimeoutException.class, "test-timeout"));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+        assertEquals(1, this.concurrencyLimiter.getLimit());
+        assertEquals(0, this.concurrencyLimiter.getActive());
+    }
+
+    @Test
+    public void limitDroppedOncePerWindow() throws InterruptedException {
+        ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(10, 1, 20, Duration.ofSeconds(1));
+        MonoProcessor<String> first = MonoProcessor.create();
+        MonoProcessor<String> second = MonoProcessor.create();
+
+        concurrencyLimiter.limit(first).subscribe(new TestSubscriber<>());
+        concurrencyLimiter.limit(second).subscribe(new TestSubscriber<>());
+
+        first.onError(new TimeoutException("test-timeout"));
+        second.onError(new TimeoutException("test-timeout"));
+        assertEquals(9, concurrencyLimiter.getLimit());
+
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        concurrencyLimiter.limit(Mono.<String>error(new TimeoutException("test-timeout")))
+            .subscribe(testSubscriber
+                .expectError(TimeoutException.class, "test-timeout"));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+        assertEquals(8, concurrencyLimiter.getLimit());
+    }
+
+    @Test
+    public void limitExcludesWait() throws InterruptedException {
+        ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(2, 1, 3, Duration.ofMillis(50));
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        concurrencyLimiter.limit(true, sent -> Mono.delay(Duration.ofMillis(100))
+            .then(sent)
+            .then(Mono.just("test-value")))
+            .subscribe(testSubscriber
+                .expectEquals("test-value"));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+        assertEquals(3, concurrencyLimiter.getLimit());
+    }
+
+    @Test
+    public void limitIgnoredError() throws InterruptedException {
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        this.concurrencyLimiter.limit(Mono.<String>error(new IllegalArgumentException("test-error")))
+            .subscribe(testSubscriber
+                .expectError(IllegalArgumentException.class, "test-error"));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+        assertEquals(2, this.concurrencyLimiter.getLimit());
+    }
+
+    @Test
+    public void limitMaximum() throws InterruptedException {
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        Flux.range(0, 10)
+            .flatMap(i -> this.concurrencyLimiter.limit(Mono.delay(Duration.ofMillis(10)).map(n -> "test-value")))
+            .subscribe(testSubscriber
+                .expectCount(10));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+        assertEquals(3, this.concurrencyLimiter.getLimit());
+    }
+
+    @Test
+    public void limitNotLatencySensitive() throws InterruptedException {
+        ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(2, 1, 3, Duration.ofMillis(10));
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        concurrencyLimiter.limit(false, sent -> sent.then(Mono.delay(Duration.ofMillis(100)).map(n -> "test-value")))
+            .subscribe(testSubscriber
+                .expectEquals("test-value"));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+        assertEquals(3, concurrencyLimiter.getLimit());
+    }
+
+    @Test
+    public void limitSlow() throws InterruptedException {
+        ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(2, 1, 3, Duration.ofMillis(10));
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        concurrencyLimiter.limit(Mono.delay(Duration.ofMillis(100)).map(n -> "test-value"))
+            .subscribe(testSubscriber
+                .expectEquals("test-value"));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+        assertEquals(1, concurrencyLimiter.getLimit());
+    }
+
+}
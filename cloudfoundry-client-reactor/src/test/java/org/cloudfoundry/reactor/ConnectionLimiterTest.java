@@ -0,0 +1,87 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import org.cloudfoundry.util.test.TestSubscriber;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+
+public final class ConnectionLimiterTest {
+
+    private final ConnectionLimiter connectionLimiter = new ConnectionLimiter(1, 1);
+
+    @Test
+    public void limit() throws InterruptedException {
+        MonoProcessor<String> first = MonoProcessor.create();
+        TestSubscriber<String> firstSubscriber = new TestSubscriber<>();
+        TestSubscriber<String> secondSubscriber = new TestSubscriber<>();
+
+        this.connectionLimiter.limit(first)
+            .subscribe(firstSubscriber
+                .expectEquals("test-first"));
+
+        this.connectionLimiter.limit(Mono.just("test-second"))
+            .subscribe(secondSubscriber
+                .expectEquals("test-second"));
+
+        assertEquals(1, this.connectionLimiter.getActive());
+        assertEquals(0, this.connectionLimiter.getIdle());
+        assertEquals(1, this.connectionLimiter.getPending());
+
+        first.onNext("test-first");
+
+        firstSubscriber.verify(Duration.ofSeconds(1));
+        secondSubscriber.verify(Duration.ofSeconds(1));
+        assertEquals(0, this.connectionLimiter.getActive());
+        assertEquals(1, this.connectionLimiter.getIdle());
+        assertEquals(0, this.connectionLimiter.getPending());
+    }
+
+    @Test
+    public void limitError() throws InterruptedException {
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        this.connectionLimiter.limit(Mono.<String>error(new IllegalArgumentException("test-error")))
+            .subscribe(testSubscriber
+                .expectError(IllegalArgumentException.class, "test-error"));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+        assertEquals(0, this.connectionLimiter.getActive());
+    }
+
+    @Test
+    public void limitPendingExceeded() throws InterruptedException {
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        this.connectionLimiter.limit(Mono.<String>never()).subscribe();
+        this.connectionLimiter.limit(Mono.<String>never()).subscribe();
+
+        this.connectionLimiter.limit(Mono.just("test-value"))
+            .subscribe(testSubscriber
+                .expectError(IllegalStateException.class, "Maximum number of pending connections (1) exceeded"));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+        assertEquals(1, this.connectionLimiter.getActive());
+        assertEquals(1, this.connectionLimiter.getPending());
+    }
+
+}
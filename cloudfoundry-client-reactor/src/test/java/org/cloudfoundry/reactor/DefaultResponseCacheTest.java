@@ -0,0 +1,122 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import org.cloudfoundry.util.FluentMap;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class DefaultResponseCacheTest {
+
+    @Test
+    public void eviction() {
+        DefaultResponseCache responseCache = new DefaultResponseCache(1, DefaultResponseCache.READ_MOSTLY_ENDPOINTS);
+
+        responseCache.put("https://api.run.pivotal.io/v2/info", "test-token", response("test-payload-1"));
+        responseCache.put("https://api.run.pivotal.io/v2/stacks", "test-token", response("test-payload-2"));
+
+        assertFalse(responseCache.get("https://api.run.pivotal.io/v2/info", "test-token").isPresent());
+        assertEquals("test-payload-2", responseCache.get("https://api.run.pivotal.io/v2/stacks", "test-token").get().getPayload());
+    }
+
+    @Test
+    public void getTimeToLive() {
+        DefaultResponseCache responseCache = new DefaultResponseCache();
+
+        assertEquals(Optional.of(Duration.ofMinutes(5)), responseCache.getTimeToLive("https://api.run.pivotal.io/v2/info"));
+        assertEquals(Optional.of(Duration.ofMinutes(1)), responseCache.getTimeToLive("https://api.run.pivotal.io/v2/buildpacks?page=2"));
+        assertEquals(Optional.of(Duration.ofMinutes(5)), responseCache.getTimeToLive("https://api.run.pivotal.io/v2/stacks/test-stack-id"));
+        assertEquals(Optional.of(Duration.ofMinutes(1)), responseCache.getTimeToLive("https://api.run.pivotal.io/v2/config/feature_flags/diego_docker"));
+        assertEquals(Optional.empty(), responseCache.getTimeToLive("https://api.run.pivotal.io/v2/service_plans/test-service-plan-id/service_instances"));
+        assertEquals(Optional.empty(), responseCache.getTimeToLive("https://api.run.pivotal.io/v2/stacksx"));
+        assertEquals(Optional.empty(), responseCache.getTimeToLive("https://api.run.pivotal.io/v2/apps"));
+    }
+
+    @Test
+    public void getTimeToLiveLongestPrefix() {
+        DefaultResponseCache responseCache = new DefaultResponseCache(10, FluentMap.<String, Duration>builder()
+            .entry("/v2", Duration.ofSeconds(1))
+            .entry("/v2/info", Duration.ofSeconds(2))
+            .build());
+
+        assertEquals(Optional.of(Duration.ofSeconds(1)), responseCache.getTimeToLive("https://api.run.pivotal.io/v2/apps"));
+        assertEquals(Optional.of(Duration.ofSeconds(2)), responseCache.getTimeToLive("https://api.run.pivotal.io/v2/info"));
+    }
+
+    @Test
+    public void identity() {
+        DefaultResponseCache responseCache = new DefaultResponseCache();
+
+        responseCache.put("https://api.run.pivotal.io/v2/info", "test-token-1", response("test-payload"));
+
+        assertTrue(responseCache.get("https://api.run.pivotal.io/v2/info", "test-token-1").isPresent());
+        assertFalse(responseCache.get("https://api.run.pivotal.io/v2/info", "test-token-2").isPresent());
+    }
+
+    @Test
+    public void invalidate() {
+        DefaultResponseCache responseCache = new DefaultResponseCache();
+
+        responseCache.put("https://api.run.pivotal.io/v2/buildpacks?page=1", "test-token-1", response("test-payload-1"));
+        responseCache.put("https://api.run.pivotal.io/v2/buildpacks/test-buildpack-id", "test-token-2", response("test-payload-2"));
+        responseCache.put("https://api.run.pivotal.io/v2/buildpacks/test-other-buildpack-id", "test-token-1", response("test-payload-3"));
+        responseCache.put("https://api.run.pivotal.io/v2/stacks", "test-token-1", response("test-payload-4"));
+
+        responseCache.invalidate("https://api.run.pivotal.io/v2/buildpacks/test-buildpack-id");
+
+        assertFalse(responseCache.get("https://api.run.pivotal.io/v2/buildpacks?page=1", "test-token-1").isPresent());
+        assertFalse(responseCache.get("https://api.run.pivotal.io/v2/buildpacks/test-buildpack-id", "test-token-2").isPresent());
+        assertTrue(responseCache.get("https://api.run.pivotal.io/v2/buildpacks/test-other-buildpack-id", "test-token-1").isPresent());
+        assertTrue(responseCache.get("https://api.run.pivotal.io/v2/stacks", "test-token-1").isPresent());
+    }
+
+    @Test
+    public void invalidateAll() {
+        DefaultResponseCache responseCache = new DefaultResponseCache();
+
+        responseCache.put("https://api.run.pivotal.io/v2/info", "test-token", response("test-payload"));
+        responseCache.invalidateAll();
+
+        assertFalse(responseCache.get("https://api.run.pivotal.io/v2/info", "test-token").isPresent());
+    }
+
+    @Test
+    public void isFresh() {
+        assertTrue(response("test-payload").isFresh());
+        assertFalse(CachedResponse.builder()
+            .expiration(Instant.now().minusSeconds(1))
+            .payload("test-payload")
+            .build()
+            .isFresh());
+    }
+
+    private static CachedResponse response(Object payload) {
+        return CachedResponse.builder()
+            .entityTag("test-entity-tag")
+            .expiration(Instant.now().plusSeconds(60))
+            .payload(payload)
+            .build();
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class DefaultRetryPolicyTest {
+
+    private final DefaultRetryPolicy retryPolicy = new DefaultRetryPolicy(2, Duration.ofMillis(100), Duration.ofMillis(150), 0.9);
+
+    @Test
+    public void endpoint() {
+        assertEquals("/v2/apps/{id}/routes/{id}", DefaultRetryPolicy.getEndpoint("https://api.run.pivotal.io/v2/apps/1a2b3c4d-0000-1111-2222-333344445555/routes/5A6B7C8D-0000-1111-2222-333344445555?page=2"));
+        assertEquals("/v2/config/feature_flags/diego_docker", DefaultRetryPolicy.getEndpoint("https://api.run.pivotal.io/v2/config/feature_flags/diego_docker"));
+    }
+
+    @Test
+    public void hedgeDelay() {
+        for (int i = 1; i <= 20; i++) {
+            this.retryPolicy.recordLatency("test-uri", Duration.ofMillis(i));
+        }
+
+        assertEquals(Optional.of(Duration.ofMillis(18)), this.retryPolicy.getHedgeDelay("test-uri"));
+    }
+
+    @Test
+    public void hedgeDelayDisabled() {
+        DefaultRetryPolicy retryPolicy = new DefaultRetryPolicy();
+
+        for (int i = 1; i <= 20; i++) {
+            retryPolicy.recordLatency("test-uri", Duration.ofMillis(i));
+        }
+
+        assertFalse(retryPolicy.getHedgeDelay("test-uri").isPresent());
+    }
+
+    @Test
+    public void hedgeDelayEndpoint() {
+        for (int i = 1; i <= 20; i++) {
+            this.retryPolicy.recordLatency("https://api.run.pivotal.io/v2/apps/1a2b3c4d-0000-1111-2222-333344445555", Duration.ofMillis(i));
+            this.retryPolicy.recordLatency("https://api.run.pivotal.io/v2/info", Duration.ofMillis(100));
+        }
+
+        assertEquals(Optional.of(Duration.ofMillis(18)), this.retryPolicy.getHedgeDelay("https://api.run.pivotal.io/v2/apps/5a6b7c8d-0000-1111-2222-333344445555"));
+        assertEquals(Optional.of(Duration.ofMillis(100)), this.retryPolicy.getHedgeDelay("https://api.run.pivotal.io/v2/info"));
+        assertFalse(this.retryPolicy.getHedgeDelay("https://api.run.pivotal.io/v2/stacks").isPresent());
+    }
+
+    @Test
+    public void hedgeDelayInsufficientSamples() {
+        this.retryPolicy.recordLatency("test-uri", Duration.ofMillis(1));
+
+        assertFalse(this.retryPolicy.getHedgeDelay("test-uri").isPresent());
+    }
+
+    @Test
+    public void retryAfterDate() {
+        String retryAfter = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusMinutes(1));
+        Duration delay = DefaultRetryPolicy.getRetryAfter(retryAfter).get();
+
+        assertTrue(delay.compareTo(Duration.ofSeconds(58)) > 0 && delay.compareTo(Duration.ofMinutes(1)) <= 0);
+    }
+
+    @Test
+    public void retryAfterInvalid() {
+        assertFalse(DefaultRetryPolicy.getRetryAfter("test-retry-after").isPresent());
+        assertFalse(DefaultRetryPolicy.getRetryAfter(null).isPresent());
+    }
+
+    @Test
+    public void retryAfterSeconds() {
+        assertEquals(Optional.of(Duration.ofSeconds(120)), DefaultRetryPolicy.getRetryAfter("120"));
+    }
+
+    @Test
+    public void retryDelay() {
+        Duration first = this.retryPolicy.getRetryDelay(1, new IOException("test-connection-reset")).get();
+        Duration second = this.retryPolicy.getRetryDelay(2, new IOException("test-connection-reset")).get();
+
+        assertTrue(first.compareTo(Duration.ofMillis(100)) <= 0);
+        assertTrue(second.compareTo(Duration.ofMillis(150)) <= 0);
+    }
+
+    @Test
+    public void retryDelayExhausted() {
+        assertFalse(this.retryPolicy.getRetryDelay(3, new IOException("test-connection-reset")).isPresent());
+    }
+
+    @Test
+    public void retryDelayNotRetryable() {
+        assertFalse(this.retryPolicy.getRetryDelay(1, new IllegalArgumentException("test-error")).isPresent());
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import org.cloudfoundry.util.test.TestSubscriber;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public final class RequestCoalescerTest {
+
+    private final AtomicInteger exchanges = new AtomicInteger();
+
+    private final RequestCoalescer requestCoalescer = new RequestCoalescer();
+
+    @Test
+    public void coalesce() throws InterruptedException {
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        Flux.merge(coalesce("test-key"), coalesce("test-key"))
+            .subscribe(testSubscriber
+                .expectEquals("test-response")
+                .expectEquals("test-response"));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+        assertEquals(1, this.exchanges.get());
+        assertEquals(1, this.requestCoalescer.getHits());
+        assertEquals(1, this.requestCoalescer.getMisses());
+    }
+
+    @Test
+    public void coalesceCompleted() throws InterruptedException {
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        coalesce("test-key")
+            .concatWith(coalesce("test-key"))
+            .subscribe(testSubscriber
+                .expectEquals("test-response")
+                .expectEquals("test-response"));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+        assertEquals(2, this.exchanges.get());
+        assertEquals(0, this.requestCoalescer.getHits());
+    }
+
+    @Test
+    public void coalesceDifferentKeys() throws InterruptedException {
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        Flux.merge(coalesce("test-key-1"), coalesce("test-key-2"))
+            .subscribe(testSubscriber
+                .expectCount(2));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+        assertEquals(2, this.exchanges.get());
+    }
+
+    private Mono<String> coalesce(String key) {
+        return this.requestCoalescer.coalesce(key, () -> Mono.delay(Duration.ofMillis(100))
+            .doOnSubscribe(s -> this.exchanges.incrementAndGet())
+            .map(n -> "test-response"));
+    }
+
+}
@@ -41,6 +41,17 @@ public final class QueryBuilderTest {
         assertEquals("test-value-4 test-value-5", queryParams.getFirst("test-parameter-4"));
     }
 
+    @Test
+    public void testRepeated() {
+        UriComponentsBuilder first = UriComponentsBuilder.newInstance();
+        UriComponentsBuilder second = UriComponentsBuilder.newInstance();
+
+        QueryBuilder.augment(first, new StubQueryParamsSubClass());
+        QueryBuilder.augment(second, new StubQueryParamsSubClass());
+
+        assertEquals(first.build().getQueryParams(), second.build().getQueryParams());
+    }
+
     private static abstract class StubQueryParams {
 
         @QueryParameter("test-parameter-2")
@@ -80,6 +80,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.util.Collections;
 
 import static io.netty.handler.codec.http.HttpMethod.DELETE;
@@ -410,6 +411,98 @@ public final class ReactorApplicationsV2Test {
 
     }
 
+    public static final class DownloadDropletFile extends AbstractClientApiTest<DownloadApplicationDropletRequest, byte[]> {
+
+        private final ReactorApplicationsV2 applications = new ReactorApplicationsV2(CONNECTION_CONTEXT, this.root, TOKEN_PROVIDER);
+
+        @Override
+        protected void assertions(TestSubscriber<byte[]> testSubscriber, Publisher<byte[]> expected) {
+            Flux.from(expected)
+                .subscribe(e -> testSubscriber.expectThat(a -> assertArrayEquals(e, a)));
+        }
+
+        @Override
+        protected InteractionContext getInteractionContext() {
+            return InteractionContext.builder()
+                .request(TestRequest.builder()
+                    .method(GET).path("/v2/apps/test-application-id/droplet/download")
+                    .build())
+                .response(TestResponse.builder()
+                    .status(OK)
+                    .payload("fixtures/client/v2/apps/GET_{id}_download_response.bin")
+                    .build())
+                .build();
+        }
+
+        @Override
+        protected byte[] getResponse() {
+            return getBytes("fixtures/client/v2/apps/GET_{id}_download_response.bin");
+        }
+
+        @Override
+        protected DownloadApplicationDropletRequest getValidRequest() throws Exception {
+            return DownloadApplicationDropletRequest.builder()
+                .applicationId("test-application-id")
+                .build();
+        }
+
+        @Override
+        protected Mono<byte[]> invoke(DownloadApplicationDropletRequest request) {
+            return Mono.using(
+                () -> Files.createTempFile("test-download", null),
+                destination -> this.applications.downloadDroplet(request, destination)
+                    .then(Mono.fromCallable(() -> Files.readAllBytes(destination))),
+                destination -> destination.toFile().delete());
+        }
+
+    }
+
+    public static final class DownloadFile extends AbstractClientApiTest<DownloadApplicationRequest, byte[]> {
+
+        private final ReactorApplicationsV2 applications = new ReactorApplicationsV2(CONNECTION_CONTEXT, this.root, TOKEN_PROVIDER);
+
+        @Override
+        protected void assertions(TestSubscriber<byte[]> testSubscriber, Publisher<byte[]> expected) {
+            Flux.from(expected)
+                .subscribe(e -> testSubscriber.expectThat(a -> assertArrayEquals(e, a)));
+        }
+
+        @Override
+        protected InteractionContext getInteractionContext() {
+            return InteractionContext.builder()
+                .request(TestRequest.builder()
+                    .method(GET).path("/v2/apps/test-application-id/download")
+                    .build())
+                .response(TestResponse.builder()
+                    .status(OK)
+                    .payload("fixtures/client/v2/apps/GET_{id}_download_response.bin")
+                    .build())
+                .build();
+        }
+
+        @Override
+        protected byte[] getResponse() {
+            return getBytes("fixtures/client/v2/apps/GET_{id}_download_response.bin");
+        }
+
+        @Override
+        protected DownloadApplicationRequest getValidRequest() throws Exception {
+            return DownloadApplicationRequest.builder()
+                .applicationId("test-application-id")
+                .build();
+        }
+
+        @Override
+        protected Mono<byte[]> invoke(DownloadApplicationRequest request) {
+            return Mono.using(
+                () -> Files.createTempFile("test-download", null),
+                destination -> this.applications.download(request, destination)
+                    .then(Mono.fromCallable(() -> Files.readAllBytes(destination))),
+                destination -> destination.toFile().delete());
+        }
+
+    }
+
     public static final class Environment extends AbstractClientApiTest<ApplicationEnvironmentRequest, ApplicationEnvironmentResponse> {
 
         private final ReactorApplicationsV2 applications = new ReactorApplicationsV2(CONNECTION_CONTEXT, this.root, TOKEN_PROVIDER);
@@ -1305,4 +1398,78 @@ public final class ReactorApplicationsV2Test {
 
     }
 
+    public static final class UploadPath extends AbstractClientApiTest<UploadApplicationRequest, UploadApplicationResponse> {
+
+        private final ReactorApplicationsV2 applications = new ReactorApplicationsV2(CONNECTION_CONTEXT, this.root, TOKEN_PROVIDER);
+
+        @Override
+        protected InteractionContext getInteractionContext() {
+            return InteractionContext.builder()
+                .request(TestRequest.builder()
+                    .method(PUT).path("/v2/apps/test-application-id/bits")
+                    .contents(consumer((headers, body) -> {
+                        String boundary = extractBoundary(headers);
+
+                        assertEquals("--" + boundary + "\r\n" +
+                            "Content-Disposition: form-data; name=\"resources\"\r\n" +
+                            "Content-Type: application/json\r\n" +
+                            "\r\n" +
+                            "[{\"sha1\":\"b907173290db6a155949ab4dc9b2d019dea0c901\",\"fn\":\"path/to/content.txt\",\"size\":123}," +
+                            "{\"sha1\":\"ff84f89760317996b9dd180ab996b079f418396f\",\"fn\":\"path/to/code.jar\",\"size\":123}]" +
+                            "\r\n" + "--" + boundary + "\r\n" +
+                            "Content-Disposition: form-data; name=\"application\"; filename=\"application.zip\"\r\n" +
+                            "Content-Type: application/zip\r\n" +
+                            "\r\n" +
+                            "test-content\n" +
+                            "\r\n" +
+                            "--" + boundary + "--", body.readString(Charset.defaultCharset()));
+                    }))
+                    .build())
+                .response(TestResponse.builder()
+                    .status(CREATED)
+                    .payload("fixtures/client/v2/apps/PUT_{id}_bits_response.json")
+                    .build())
+                .build();
+        }
+
+        @Override
+        protected UploadApplicationResponse getResponse() {
+            return UploadApplicationResponse.builder()
+                .entity(JobEntity.builder()
+                    .id("eff6a47e-67a1-4e3b-99a5-4f9bcab7620a")
+                    .status("queued")
+                    .build())
+                .metadata(Metadata.builder()
+                    .createdAt("2015-07-27T22:43:33Z")
+                    .id("eff6a47e-67a1-4e3b-99a5-4f9bcab7620a")
+                    .url("/v2/jobs/eff6a47e-67a1-4e3b-99a5-4f9bcab7620a")
+                    .build())
+                .build();
+        }
+
+        @Override
+        protected UploadApplicationRequest getValidRequest() throws Exception {
+            return UploadApplicationRequest.builder()
+                .applicationId("test-application-id")
+                .applicationPath(new ClassPathResource("fixtures/client/v2/apps/test-application.zip").getFile().toPath())
+                .resource(Resource.builder()
+                    .hash("b907173290db6a155949ab4dc9b2d019dea0c901")
+                    .path("path/to/content.txt")
+                    .size(123)
+                    .build())
+                .resource(Resource.builder()
+                    .hash("ff84f89760317996b9dd180ab996b079f418396f")
+                    .path("path/to/code.jar")
+                    .size(123)
+                    .build())
+                .build();
+        }
+
+        @Override
+        protected Mono<UploadApplicationResponse> invoke(UploadApplicationRequest request) {
+            return this.applications.upload(request);
+        }
+
+    }
+
 }
@@ -39,6 +39,7 @@ import org.cloudfoundry.reactor.client.AbstractClientApiTest;
 import org.springframework.core.io.ClassPathResource;
 import reactor.core.publisher.Mono;
 
+import java.io.FileInputStream;
 import java.nio.charset.Charset;
 
 import static io.netty.handler.codec.http.HttpMethod.DELETE;
@@ -49,6 +50,8 @@ import static io.netty.handler.codec.http.HttpResponseStatus.CREATED;
 import static io.netty.handler.codec.http.HttpResponseStatus.OK;
 import static org.cloudfoundry.util.tuple.TupleUtils.consumer;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public final class ReactorBuildpacksTest {
 
@@ -393,4 +396,60 @@ public final class ReactorBuildpacksTest {
         }
     }
 
+    public static final class UploadFileInputStream extends AbstractClientApiTest<UploadBuildpackRequest, UploadBuildpackResponse> {
+
+        private ReactorBuildpacks buildpacks = new ReactorBuildpacks(CONNECTION_CONTEXT, this.root, TOKEN_PROVIDER);
+
+        @Override
+        protected InteractionContext getInteractionContext() {
+            return InteractionContext.builder()
+                .request(TestRequest.builder()
+                    .method(PUT).path("/v2/buildpacks/test-buildpack-id/bits")
+                    .contents(consumer((headers, body) -> {
+                        assertEquals(String.valueOf(body.size()), headers.get("Content-Length"));
+                        assertNull(headers.get("Transfer-Encoding"));
+                        assertTrue(body.readString(Charset.defaultCharset()).contains("\r\n\r\ntest-content\n\r\n"));
+                    }))
+                    .build())
+                .response(TestResponse.builder()
+                    .status(CREATED)
+                    .payload("fixtures/client/v2/buildpacks/PUT_{id}_bits_response.json")
+                    .build())
+                .build();
+        }
+
+        @Override
+        protected UploadBuildpackResponse getResponse() {
+            return UploadBuildpackResponse.builder()
+                .metadata(Metadata.builder()
+                    .createdAt("2016-04-21T08:51:39Z")
+                    .id("353360ea-59bb-414b-a90e-100c37317a02")
+                    .updatedAt("2016-04-21T09:38:16Z")
+                    .url("/v2/buildpacks/353360ea-59bb-414b-a90e-100c37317a02")
+                    .build())
+                .entity(BuildpackEntity.builder()
+                    .enabled(true)
+                    .filename("binary_buildpack-cached-v1.0.1.zip")
+                    .locked(false)
+                    .name("binary_buildpack")
+                    .position(8)
+                    .build())
+                .build();
+        }
+
+        @Override
+        protected UploadBuildpackRequest getValidRequest() throws Exception {
+            return UploadBuildpackRequest.builder()
+                .buildpack(new FileInputStream(new ClassPathResource("fixtures/client/v2/buildpacks/test-buildpack.zip").getFile()))
+                .buildpackId("test-buildpack-id")
+                .filename("test-filename")
+                .build();
+        }
+
+        @Override
+        protected Mono<UploadBuildpackResponse> invoke(UploadBuildpackRequest request) {
+            return this.buildpacks.upload(request);
+        }
+    }
+
 }
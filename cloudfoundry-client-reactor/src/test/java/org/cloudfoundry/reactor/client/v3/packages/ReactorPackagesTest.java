@@ -54,6 +54,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.util.Collections;
 
 import static io.netty.handler.codec.http.HttpMethod.DELETE;
@@ -259,6 +260,52 @@ public final class ReactorPackagesTest {
 
     }
 
+    public static final class DownloadFile extends AbstractClientApiTest<DownloadPackageRequest, byte[]> {
+
+        private final ReactorPackages packages = new ReactorPackages(CONNECTION_CONTEXT, this.root, TOKEN_PROVIDER);
+
+        @Override
+        protected void assertions(TestSubscriber<byte[]> testSubscriber, Publisher<byte[]> expected) {
+            Flux.from(expected)
+                .subscribe(e -> testSubscriber.expectThat(a -> assertArrayEquals(e, a)));
+        }
+
+        @Override
+        protected InteractionContext getInteractionContext() {
+            return InteractionContext.builder()
+                .request(TestRequest.builder()
+                    .method(GET).path("/v3/packages/test-package-id/download")
+                    .build())
+                .response(TestResponse.builder()
+                    .status(OK)
+                    .payload("fixtures/client/v3/packages/GET_{id}_download_response.bin")
+                    .build())
+                .build();
+        }
+
+        @Override
+        protected byte[] getResponse() {
+            return getBytes("fixtures/client/v3/packages/GET_{id}_download_response.bin");
+        }
+
+        @Override
+        protected DownloadPackageRequest getValidRequest() {
+            return DownloadPackageRequest.builder()
+                .packageId("test-package-id")
+                .build();
+        }
+
+        @Override
+        protected Mono<byte[]> invoke(DownloadPackageRequest request) {
+            return Mono.using(
+                () -> Files.createTempFile("test-download", null),
+                destination -> this.packages.download(request, destination)
+                    .then(Mono.fromCallable(() -> Files.readAllBytes(destination))),
+                destination -> destination.toFile().delete());
+        }
+
+    }
+
     public static final class Get extends AbstractClientApiTest<GetPackageRequest, GetPackageResponse> {
 
         private final ReactorPackages packages = new ReactorPackages(CONNECTION_CONTEXT, this.root, TOKEN_PROVIDER);
@@ -587,4 +634,81 @@ public final class ReactorPackagesTest {
 
     }
 
+    public static final class UploadPath extends AbstractClientApiTest<UploadPackageRequest, UploadPackageResponse> {
+
+        private final ReactorPackages packages = new ReactorPackages(CONNECTION_CONTEXT, this.root, TOKEN_PROVIDER);
+
+        @Override
+        protected InteractionContext getInteractionContext() {
+            return InteractionContext.builder()
+                .request(TestRequest.builder()
+                    .method(POST).path("/v3/packages/test-package-id/upload")
+                    .contents(consumer((headers, body) -> {
+                        String boundary = extractBoundary(headers);
+
+                        assertEquals("--" + boundary + "\r\n" +
+                            "Content-Disposition: form-data; name=\"bits\"; filename=\"application.zip\"\r\n" +
+                            "Content-Type: application/zip\r\n" +
+                            "\r\n" +
+                            "test-content\n" +
+                            "\r\n" +
+                            "--" + boundary + "--", body.readString(Charset.defaultCharset()));
+                    }))
+                    .build())
+                .response(TestResponse.builder()
+                    .status(CREATED)
+                    .payload("fixtures/client/v3/packages/POST_{id}_upload_response.json")
+                    .build())
+                .build();
+        }
+
+        @Override
+        protected UploadPackageResponse getResponse() {
+            return UploadPackageResponse.builder()
+                .id("guid-f582d3d1-320c-4524-9c4f-480252ab5bff")
+                .type(PackageType.BITS)
+                .data(BitsData.builder()
+                    .hash(Hash.builder()
+                        .type("sha1")
+                        .build())
+                    .build())
+                .state(State.PROCESSING_UPLOAD)
+                .createdAt("2016-01-26T22:20:12Z")
+                .updatedAt("2016-01-26T22:20:12Z")
+                .link("self", Link.builder()
+                    .href("/v3/packages/guid-f582d3d1-320c-4524-9c4f-480252ab5bff")
+                    .build())
+                .link("upload", Link.builder()
+                    .href("/v3/packages/guid-f582d3d1-320c-4524-9c4f-480252ab5bff/upload")
+                    .method("POST")
+                    .build())
+                .link("download", Link.builder()
+                    .href("/v3/packages/guid-f582d3d1-320c-4524-9c4f-480252ab5bff/download")
+                    .method("GET")
+                    .build())
+                .link("stage", Link.builder()
+                    .href("/v3/packages/guid-f582d3d1-320c-4524-9c4f-480252ab5bff/droplets")
+                    .method("POST")
+                    .build())
+                .link("app", Link.builder()
+                    .href("/v3/apps/guid-a1546101-9467-4525-a3eb-d47fc9485bb1")
+                    .build())
+                .build();
+        }
+
+        @Override
+        protected UploadPackageRequest getValidRequest() throws Exception {
+            return UploadPackageRequest.builder()
+                .bitsPath(new ClassPathResource("fixtures/client/v3/packages/test-package.zip").getFile().toPath())
+                .packageId("test-package-id")
+                .build();
+        }
+
+        @Override
+        protected Mono<UploadPackageResponse> invoke(UploadPackageRequest request) {
+            return this.packages.upload(request);
+        }
+
+    }
+
 }
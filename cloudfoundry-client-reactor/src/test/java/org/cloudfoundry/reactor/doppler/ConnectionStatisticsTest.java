@@ -0,0 +1,68 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.doppler;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public final class ConnectionStatisticsTest {
+
+    private final ConnectionStatistics statistics = new ConnectionStatistics("test-name");
+
+    @Test
+    public void buffered() {
+        this.statistics.onBuffer();
+        this.statistics.onBuffer();
+        this.statistics.onDeliver();
+
+        assertEquals(1, this.statistics.getBuffered());
+    }
+
+    @Test
+    public void counters() {
+        this.statistics.onDrop();
+        this.statistics.onReconnect();
+        this.statistics.onSample();
+        this.statistics.onSample();
+
+        assertEquals(1, this.statistics.getDropped());
+        assertEquals(1, this.statistics.getReconnects());
+        assertEquals(2, this.statistics.getSampled());
+    }
+
+    @Test
+    public void string() {
+        this.statistics.onReceive();
+
+        assertTrue(this.statistics.toString().startsWith("ConnectionStatistics{name=test-name, received=1, reconnects=0,"));
+    }
+
+    @Test
+    public void throughput() {
+        this.statistics.onReceive();
+        this.statistics.onReceive();
+        assertTrue(this.statistics.getThroughput() > 0);
+
+        this.statistics.onConnect();
+        assertEquals(0, this.statistics.getThroughput(), 0);
+        assertEquals(2, this.statistics.getReceived());
+    }
+
+}
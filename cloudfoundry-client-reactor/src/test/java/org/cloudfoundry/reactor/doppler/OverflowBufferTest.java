@@ -0,0 +1,214 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.doppler;
+
+import org.cloudfoundry.doppler.Envelope;
+import org.cloudfoundry.doppler.EventType;
+import org.cloudfoundry.doppler.OverflowStrategy;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public final class OverflowBufferTest {
+
+    private final TestSource source = new TestSource();
+
+    private final ConnectionStatistics statistics = new ConnectionStatistics("test-name");
+
+    private final RecordingSubscriber subscriber = new RecordingSubscriber();
+
+    @Test
+    public void backpressure() {
+        subscribe(3, OverflowStrategy.DROP_OLDEST);
+        this.source.emit("test-origin-1", "test-origin-2", "test-origin-3");
+
+        this.subscriber.request(1);
+        assertEquals(Arrays.asList("test-origin-1"), this.subscriber.getOrigins());
+        assertEquals(2, this.statistics.getBuffered());
+
+        this.source.complete();
+        assertFalse(this.subscriber.complete);
+
+        this.subscriber.request(2);
+        assertEquals(Arrays.asList("test-origin-1", "test-origin-2", "test-origin-3"), this.subscriber.getOrigins());
+        assertEquals(0, this.statistics.getBuffered());
+        assertTrue(this.subscriber.complete);
+    }
+
+    @Test
+    public void cancel() {
+        subscribe(3, OverflowStrategy.DROP_OLDEST);
+        this.source.emit("test-origin-1", "test-origin-2");
+
+        this.subscriber.subscription.cancel();
+        assertTrue(this.source.cancelled);
+        assertEquals(0, this.statistics.getBuffered());
+        assertEquals(2, this.statistics.getDropped());
+    }
+
+    @Test
+    public void dropNewest() {
+        subscribe(2, OverflowStrategy.DROP_NEWEST);
+        this.source.emit("test-origin-1", "test-origin-2", "test-origin-3");
+
+        this.subscriber.request(3);
+        assertEquals(Arrays.asList("test-origin-1", "test-origin-2"), this.subscriber.getOrigins());
+        assertEquals(1, this.statistics.getDropped());
+    }
+
+    @Test
+    public void dropOldest() {
+        subscribe(2, OverflowStrategy.DROP_OLDEST);
+        this.source.emit("test-origin-1", "test-origin-2", "test-origin-3");
+
+        this.subscriber.request(3);
+        assertEquals(Arrays.asList("test-origin-2", "test-origin-3"), this.subscriber.getOrigins());
+        assertEquals(1, this.statistics.getDropped());
+    }
+
+    @Test
+    public void error() {
+        subscribe(3, OverflowStrategy.DROP_OLDEST);
+        this.source.emit("test-origin-1");
+        this.source.error(new IllegalStateException("test-error"));
+        assertNull(this.subscriber.error);
+
+        this.subscriber.request(1);
+        assertEquals(Arrays.asList("test-origin-1"), this.subscriber.getOrigins());
+        assertEquals("test-error", this.subscriber.error.getMessage());
+    }
+
+    @Test
+    public void invalidRequest() {
+        subscribe(3, OverflowStrategy.DROP_OLDEST);
+        this.source.emit("test-origin-1");
+
+        this.subscriber.request(0);
+        assertTrue(this.source.cancelled);
+        assertEquals(IllegalArgumentException.class, this.subscriber.error.getClass());
+        assertEquals("Request must be positive, but was 0", this.subscriber.error.getMessage());
+        assertEquals(0, this.statistics.getBuffered());
+        assertEquals(1, this.statistics.getDropped());
+
+        this.source.emit("test-origin-2");
+        this.subscriber.request(1);
+        assertTrue(this.subscriber.getOrigins().isEmpty());
+        assertEquals(1, this.subscriber.errors);
+    }
+
+    private void subscribe(int capacity, OverflowStrategy strategy) {
+        new OverflowBuffer(this.source, capacity, strategy, this.statistics).subscribe(this.subscriber);
+    }
+
+    private static final class RecordingSubscriber implements Subscriber<Envelope> {
+
+        private final List<Envelope> envelopes = new ArrayList<>();
+
+        private boolean complete;
+
+        private Throwable error;
+
+        private int errors;
+
+        private Subscription subscription;
+
+        @Override
+        public void onComplete() {
+            this.complete = true;
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            this.error = t;
+            this.errors++;
+        }
+
+        @Override
+        public void onNext(Envelope envelope) {
+            this.envelopes.add(envelope);
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            this.subscription = s;
+        }
+
+        private List<String> getOrigins() {
+            return this.envelopes.stream()
+                .map(Envelope::getOrigin)
+                .collect(Collectors.toList());
+        }
+
+        private void request(long n) {
+            this.subscription.request(n);
+        }
+
+    }
+
+    private static final class TestSource implements Publisher<Envelope>, Subscription {
+
+        private volatile boolean cancelled;
+
+        private Subscriber<? super Envelope> subscriber;
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+        }
+
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void subscribe(Subscriber<? super Envelope> subscriber) {
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(this);
+        }
+
+        private void complete() {
+            this.subscriber.onComplete();
+        }
+
+        private void emit(String... origins) {
+            Arrays.stream(origins)
+                .map(origin -> Envelope.builder()
+                    .eventType(EventType.LOG_MESSAGE)
+                    .origin(origin)
+                    .build())
+                .forEach(this.subscriber::onNext);
+        }
+
+        private void error(Throwable t) {
+            this.subscriber.onError(t);
+        }
+
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.doppler;
+
+import org.cloudfoundry.util.test.TestSubscriber;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class ReactorDopplerEndpointsTest {
+
+    private final ConnectionStatistics statistics = new ConnectionStatistics("test-name");
+
+    @Test
+    public void isTransient() {
+        assertTrue(ReactorDopplerEndpoints.isTransient(new IOException("test-error")));
+        assertTrue(ReactorDopplerEndpoints.isTransient(new RuntimeException(new IOException("test-error"))));
+        assertFalse(ReactorDopplerEndpoints.isTransient(new IllegalArgumentException("test-error")));
+    }
+
+    @Test
+    public void reconnectBackoff() throws InterruptedException {
+        AtomicInteger connections = new AtomicInteger();
+        List<Long> attempts = new CopyOnWriteArrayList<>();
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        Flux<String> connection = Flux.defer(() -> {
+            switch (connections.getAndIncrement()) {
+                case 0:
+                case 1:
+                    return Flux.error(new IOException("test-error"));
+                case 2:
+                    return Flux.just("test-first");
+                default:
+                    return Flux.just("test-second");
+            }
+        });
+
+        ReactorDopplerEndpoints.reconnect(connection, "test-name", this.statistics, attempt -> {
+            attempts.add(attempt);
+            return Duration.ofMillis(1);
+        })
+            .take(2)
+            .subscribe(testSubscriber
+                .expectEquals("test-first")
+                .expectEquals("test-second"));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+        assertEquals(Arrays.asList(0L, 1L, 0L), attempts);
+        assertEquals(3, this.statistics.getReconnects());
+    }
+
+    @Test
+    public void reconnectClosed() throws InterruptedException {
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        ReactorDopplerEndpoints.reconnect(Flux.just("test-value"), "test-name", this.statistics, attempt -> Duration.ofMillis(1))
+            .take(3)
+            .subscribe(testSubscriber
+                .expectEquals("test-value")
+                .expectEquals("test-value")
+                .expectEquals("test-value"));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+        assertEquals(2, this.statistics.getReconnects());
+    }
+
+    @Test
+    public void reconnectNonTransient() throws InterruptedException {
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        ReactorDopplerEndpoints.reconnect(Flux.<String>error(new IllegalArgumentException("test-error")), "test-name", this.statistics, attempt -> Duration.ofMillis(1))
+            .subscribe(testSubscriber
+                .expectError(IllegalArgumentException.class, "test-error"));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+        assertEquals(0, this.statistics.getReconnects());
+    }
+
+    @Test
+    public void shard() throws InterruptedException {
+        TestSubscriber<Integer> testSubscriber = new TestSubscriber<>();
+
+        ReactorDopplerEndpoints.shard(3, index -> Flux.just(index).concatWith(Flux.never()))
+            .take(3)
+            .subscribe(testSubscriber
+                .expectCount(3));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+    }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.tokenprovider;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.cloudfoundry.reactor.ConnectionContext;
+import org.cloudfoundry.util.test.TestSubscriber;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.HttpClient;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public final class AbstractUaaTokenProviderTest {
+
+    private final ConnectionContext connectionContext = mock(ConnectionContext.class);
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+
+    private final PasswordGrantTokenProvider tokenProvider = PasswordGrantTokenProvider.builder()
+        .password("test-password")
+        .username("test-username")
+        .build();
+
+    @Test
+    public void concurrentRequests() throws InterruptedException {
+        enqueueToken("test-access-token-1", 3600);
+
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        Flux.range(0, 10)
+            .flatMap(i -> this.tokenProvider.getToken(this.connectionContext))
+            .distinct()
+            .subscribe(testSubscriber
+                .expectEquals("test-access-token-1"));
+
+        testSubscriber.verify(Duration.ofSeconds(5));
+        assertEquals(1, this.mockWebServer.getRequestCount());
+        assertEquals(1, this.tokenProvider.getRefreshStatistics().getFetches());
+        assertEquals(0, this.tokenProvider.getRefreshStatistics().getRefreshes());
+    }
+
+    @Test
+    public void errorCleared() {
+        this.mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+        enqueueToken("test-access-token-2", 3600);
+
+        assertEquals("test-error", this.tokenProvider.getToken(this.connectionContext).otherwiseReturn("test-error").block());
+        assertEquals("test-access-token-2", getToken());
+        assertEquals(2, this.mockWebServer.getRequestCount());
+        assertEquals(1, this.tokenProvider.getRefreshStatistics().getFailures());
+        assertEquals(1, this.tokenProvider.getRefreshStatistics().getFetches());
+    }
+
+    @Test
+    public void invalidate() {
+        enqueueToken("test-access-token-1", 3600);
+        enqueueToken("test-access-token-2", 3600);
+
+        assertEquals("test-access-token-1", getToken());
+
+        this.tokenProvider.invalidate(this.connectionContext, "test-access-token-0");
+        assertEquals("test-access-token-1", getToken());
+
+        this.tokenProvider.invalidate(this.connectionContext, "test-access-token-1");
+        assertEquals("test-access-token-2", getToken());
+        assertEquals(2, this.mockWebServer.getRequestCount());
+        assertEquals(2, this.tokenProvider.getRefreshStatistics().getFetches());
+        assertEquals(1, this.tokenProvider.getRefreshStatistics().getInvalidations());
+    }
+
+    @Test
+    public void refreshAhead() throws InterruptedException {
+        enqueueToken("test-access-token-1", 11);
+        enqueueToken("test-access-token-2", 11);
+        enqueueToken("test-access-token-3", 11);
+
+        assertEquals("test-access-token-1", getToken());
+        assertEquals("test-access-token-1", getToken());
+
+        Thread.sleep(1_500);
+        assertEquals(2, this.mockWebServer.getRequestCount());
+        assertEquals(1, this.tokenProvider.getRefreshStatistics().getRefreshes());
+
+        Thread.sleep(1_000);
+        assertEquals(2, this.mockWebServer.getRequestCount());
+
+        assertEquals("test-access-token-3", getToken());
+        assertEquals(2, this.tokenProvider.getRefreshStatistics().getFetches());
+        assertEquals(1, this.tokenProvider.getRefreshStatistics().getRefreshes());
+    }
+
+    @Test
+    public void refreshAheadUnused() throws InterruptedException {
+        enqueueToken("test-access-token-1", 10);
+        enqueueToken("test-access-token-2", 10);
+
+        assertEquals("test-access-token-1", getToken());
+
+        Thread.sleep(200);
+        assertEquals(1, this.mockWebServer.getRequestCount());
+
+        assertEquals("test-access-token-2", getToken());
+        assertEquals(2, this.tokenProvider.getRefreshStatistics().getFetches());
+        assertEquals(0, this.tokenProvider.getRefreshStatistics().getRefreshes());
+    }
+
+    @Test
+    public void refreshTokenCleared() throws InterruptedException {
+        enqueueToken("test-access-token-1", 3600);
+        this.mockWebServer.enqueue(new MockResponse().setResponseCode(401));
+        enqueueToken("test-access-token-2", 3600);
+
+        assertEquals("test-access-token-1", getToken());
+        this.tokenProvider.invalidate(this.connectionContext, "test-access-token-1");
+
+        assertEquals("test-error", this.tokenProvider.getToken(this.connectionContext).otherwiseReturn("test-error").block());
+        assertNull(this.tokenProvider.getRefreshToken());
+        assertEquals("test-access-token-2", getToken());
+
+        assertTrue(this.mockWebServer.takeRequest().getPath().contains("grant_type=password"));
+        assertTrue(this.mockWebServer.takeRequest().getPath().contains("grant_type=refresh_token"));
+        assertTrue(this.mockWebServer.takeRequest().getPath().contains("grant_type=password"));
+    }
+
+    @Before
+    public void setUp() {
+        when(this.connectionContext.getHttpClient()).thenReturn(HttpClient.create());
+        when(this.connectionContext.getObjectMapper()).thenReturn(new ObjectMapper());
+        when(this.connectionContext.getRoot("authorization_endpoint")).thenReturn(Mono.just(this.mockWebServer.url("/").toString()));
+    }
+
+    @After
+    public void shutdown() throws IOException {
+        this.mockWebServer.shutdown();
+    }
+
+    private void enqueueToken(String accessToken, long expiresIn) {
+        this.mockWebServer.enqueue(new MockResponse()
+            .setHeader("Content-Type", "application/json")
+            .setBody(String.format("{\"access_token\":\"%s\",\"expires_in\":%d,\"refresh_token\":\"test-refresh-token\",\"token_type\":\"bearer\"}", accessToken, expiresIn)));
+    }
+
+    private String getToken() {
+        return this.tokenProvider.getToken(this.connectionContext).block();
+    }
+
+}
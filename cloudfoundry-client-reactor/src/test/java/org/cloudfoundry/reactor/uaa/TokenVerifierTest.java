@@ -0,0 +1,240 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.uaa;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.Base64Codec;
+import org.cloudfoundry.uaa.tokens.CheckTokenRequest;
+import org.cloudfoundry.uaa.tokens.CheckTokenResponse;
+import org.cloudfoundry.uaa.tokens.KeyType;
+import org.cloudfoundry.uaa.tokens.ListTokenKeysRequest;
+import org.cloudfoundry.uaa.tokens.ListTokenKeysResponse;
+import org.cloudfoundry.uaa.tokens.TokenKey;
+import org.cloudfoundry.uaa.tokens.Tokens;
+import org.cloudfoundry.util.test.TestSubscriber;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.Charset;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.Date;
+
+import static org.cloudfoundry.util.test.TestObjects.fill;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class TokenVerifierTest {
+
+    private static final Base64Codec BASE64 = new Base64Codec();
+
+    private final KeyPair keyPair;
+
+    private final Tokens tokens = mock(Tokens.class);
+
+    private final TokenVerifier tokenVerifier = TokenVerifier.builder()
+        .clientId("test-client-id")
+        .clientSecret("test-client-secret")
+        .tokens(this.tokens)
+        .build();
+
+    public TokenVerifierTest() throws NoSuchAlgorithmException {
+        this.keyPair = getKeyPair();
+    }
+
+    @Test
+    public void expired() throws InterruptedException {
+        requestListKeys(this.tokens, "test-key-id", this.keyPair.getPublic());
+
+        TestSubscriber<Claims> testSubscriber = new TestSubscriber<>();
+
+        this.tokenVerifier
+            .verify(getToken(this.keyPair.getPrivate(), "test-key-id", new Date(0)))
+            .subscribe(testSubscriber
+                .expectErrorMatch(ExpiredJwtException.class, "JWT expired at .*"));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void keyRefreshInterval() throws InterruptedException {
+        String token = getToken(this.keyPair.getPrivate(), "test-unknown-key-id", new Date(System.currentTimeMillis() + 60_000));
+
+        requestListKeys(this.tokens, "test-key-id", this.keyPair.getPublic());
+        requestCheck(this.tokens, token);
+
+        TestSubscriber<Claims> testSubscriber = new TestSubscriber<>();
+
+        this.tokenVerifier
+            .verify(getToken(this.keyPair.getPrivate(), "test-key-id", new Date(System.currentTimeMillis() + 60_000)))
+            .then(this.tokenVerifier.verify(token))
+            .subscribe(testSubscriber
+                .expectThat(claims -> assertEquals("test-userName", claims.get("user_name", String.class))));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+        verify(this.tokens, times(1)).listKeys(ListTokenKeysRequest.builder().build());
+    }
+
+    @Test
+    public void keyRotation() throws InterruptedException, NoSuchAlgorithmException {
+        KeyPair rotatedKeyPair = getKeyPair();
+
+        when(this.tokens
+            .listKeys(ListTokenKeysRequest.builder()
+                .build()))
+            .thenReturn(
+                Mono.just(getListKeysResponse("test-key-id", this.keyPair.getPublic())),
+                Mono.just(getListKeysResponse("test-rotated-key-id", rotatedKeyPair.getPublic())));
+
+        TokenVerifier tokenVerifier = TokenVerifier.builder()
+            .clientId("test-client-id")
+            .clientSecret("test-client-secret")
+            .keyRefreshInterval(Duration.ZERO)
+            .tokens(this.tokens)
+            .build();
+
+        TestSubscriber<Claims> testSubscriber = new TestSubscriber<>();
+
+        tokenVerifier
+            .verify(getToken(this.keyPair.getPrivate(), "test-key-id", new Date(System.currentTimeMillis() + 60_000)))
+            .then(tokenVerifier.verify(getToken(rotatedKeyPair.getPrivate(), "test-rotated-key-id", new Date(System.currentTimeMillis() + 60_000))))
+            .subscribe(testSubscriber
+                .expectThat(claims -> assertEquals("test-username", claims.get("user_name", String.class))));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+        verify(this.tokens, times(2)).listKeys(ListTokenKeysRequest.builder().build());
+        verify(this.tokens, never()).check(any(CheckTokenRequest.class));
+    }
+
+    @Test
+    public void symmetricKey() throws InterruptedException {
+        String token = Jwts
+            .builder()
+            .signWith(SignatureAlgorithm.HS256, "test-symmetric-key-test-symmetric".getBytes(Charset.forName("UTF-8")))
+            .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+            .claim("user_name", "test-username")
+            .compact();
+
+        requestListKeys(this.tokens, "test-key-id", this.keyPair.getPublic());
+        requestCheck(this.tokens, token);
+
+        TestSubscriber<Claims> testSubscriber = new TestSubscriber<>();
+
+        this.tokenVerifier
+            .verify(token)
+            .subscribe(testSubscriber
+                .expectThat(claims -> assertEquals("test-userName", claims.get("user_name", String.class))));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+        verify(this.tokens).check(any(CheckTokenRequest.class));
+    }
+
+    @Test
+    public void unknownKey() throws InterruptedException {
+        String token = getToken(this.keyPair.getPrivate(), "test-unknown-key-id", new Date(System.currentTimeMillis() + 60_000));
+
+        requestListKeys(this.tokens, "test-key-id", this.keyPair.getPublic());
+        requestCheck(this.tokens, token);
+
+        TestSubscriber<Claims> testSubscriber = new TestSubscriber<>();
+
+        this.tokenVerifier
+            .verify(token)
+            .subscribe(testSubscriber
+                .expectThat(claims -> assertEquals("test-userName", claims.get("user_name", String.class))));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void valid() throws InterruptedException {
+        requestListKeys(this.tokens, "test-key-id", this.keyPair.getPublic());
+
+        TestSubscriber<Claims> testSubscriber = new TestSubscriber<>();
+
+        this.tokenVerifier
+            .verify(getToken(this.keyPair.getPrivate(), "test-key-id", new Date(System.currentTimeMillis() + 60_000)))
+            .subscribe(testSubscriber
+                .expectThat(claims -> assertEquals("test-username", claims.get("user_name", String.class))));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+    }
+
+    private static KeyPair getKeyPair() throws NoSuchAlgorithmException {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(1024);
+
+        return keyPairGenerator.generateKeyPair();
+    }
+
+    private static ListTokenKeysResponse getListKeysResponse(String keyId, PublicKey publicKey) {
+        return ListTokenKeysResponse.builder()
+            .key(fill(TokenKey.builder())
+                .id(keyId)
+                .keyType(KeyType.RSA)
+                .value(getPublicKey(publicKey))
+                .build())
+            .build();
+    }
+
+    private static String getPublicKey(PublicKey publicKey) {
+        return String.format("-----BEGIN PUBLIC KEY-----\n%s\n-----END PUBLIC KEY-----", BASE64.encode(publicKey.getEncoded()));
+    }
+
+    private static String getToken(PrivateKey privateKey, String keyId, Date expiration) {
+        return Jwts
+            .builder()
+            .setHeaderParam("kid", keyId)
+            .signWith(SignatureAlgorithm.RS256, privateKey)
+            .setExpiration(expiration)
+            .claim("user_name", "test-username")
+            .compact();
+    }
+
+    private static void requestCheck(Tokens tokens, String token) {
+        when(tokens
+            .check(CheckTokenRequest.builder()
+                .clientId("test-client-id")
+                .clientSecret("test-client-secret")
+                .token(token)
+                .build()))
+            .thenReturn(Mono
+                .just(fill(CheckTokenResponse.builder())
+                    .build()));
+    }
+
+    private static void requestListKeys(Tokens tokens, String keyId, PublicKey publicKey) {
+        when(tokens
+            .listKeys(ListTokenKeysRequest.builder()
+                .build()))
+            .thenReturn(Mono
+                .just(getListKeysResponse(keyId, publicKey)));
+    }
+
+}
@@ -0,0 +1,470 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.cloudfoundry.reactor.ConnectionContext;
+import org.cloudfoundry.reactor.DefaultConnectionContext;
+import org.cloudfoundry.reactor.DefaultResponseCache;
+import org.cloudfoundry.reactor.DefaultRetryPolicy;
+import org.cloudfoundry.reactor.ResponseCache;
+import org.cloudfoundry.reactor.RetryPolicy;
+import org.cloudfoundry.reactor.TokenProvider;
+import org.cloudfoundry.util.test.TestSubscriber;
+import org.junit.After;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.HttpClient;
+import reactor.ipc.netty.http.HttpException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public final class AbstractReactorOperationsTest {
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+
+    private final TestTokenProvider tokenProvider = new TestTokenProvider();
+
+    @Test
+    public void cacheFresh() throws InterruptedException {
+        this.mockWebServer.enqueue(response("test-value"));
+
+        TestOperations operations = operations(DefaultConnectionContext.builder()
+            .responseCache(responseCache(Duration.ofMinutes(1))));
+
+        get(operations, "test-value");
+        get(operations, "test-value");
+
+        assertEquals(1, this.mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void cacheIdentity() throws InterruptedException {
+        this.mockWebServer.enqueue(response("test-value-1"));
+        this.mockWebServer.enqueue(response("test-value-2"));
+
+        TestOperations operations = operations(DefaultConnectionContext.builder()
+            .responseCache(responseCache(Duration.ofMinutes(1))));
+
+        get(operations, "test-value-1");
+        this.tokenProvider.invalidate(null, "test-token-1");
+        get(operations, "test-value-2");
+
+        assertEquals(2, this.mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void cacheInvalidatedByPut() throws InterruptedException {
+        this.mockWebServer.enqueue(response("test-value-1"));
+        this.mockWebServer.enqueue(response("test-value-2"));
+        this.mockWebServer.enqueue(response("test-value-3"));
+
+        TestOperations operations = operations(DefaultConnectionContext.builder()
+            .responseCache(responseCache(Duration.ofMinutes(1))));
+
+        get(operations, "test-value-1");
+
+        TestSubscriber<JsonNode> testSubscriber = new TestSubscriber<>();
+        operations.put()
+            .subscribe(testSubscriber
+                .expectCount(1));
+        testSubscriber.verify(Duration.ofSeconds(5));
+
+        get(operations, "test-value-3");
+
+        assertEquals(3, this.mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void cacheMaxAge() throws InterruptedException {
+        this.mockWebServer.enqueue(response("test-value")
+            .setHeader("Cache-Control", "max-age=60"));
+
+        TestOperations operations = operations(DefaultConnectionContext.builder()
+            .responseCache(responseCache(Duration.ZERO)));
+
+        get(operations, "test-value");
+        get(operations, "test-value");
+
+        assertEquals(1, this.mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void cacheNoCache() throws InterruptedException {
+        this.mockWebServer.enqueue(response("test-value")
+            .setHeader("Cache-Control", "no-cache")
+            .setHeader("ETag", "\"test-entity-tag\""));
+        this.mockWebServer.enqueue(new MockResponse().setResponseCode(304));
+
+        TestOperations operations = operations(DefaultConnectionContext.builder()
+            .responseCache(responseCache(Duration.ofMinutes(1))));
+
+        get(operations, "test-value");
+        get(operations, "test-value");
+
+        assertEquals(2, this.mockWebServer.getRequestCount());
+        assertNull(this.mockWebServer.takeRequest().getHeader("If-None-Match"));
+        assertEquals("\"test-entity-tag\"", this.mockWebServer.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void cacheNoStore() throws InterruptedException {
+        this.mockWebServer.enqueue(response("test-value-1")
+            .setHeader("Cache-Control", "no-store")
+            .setHeader("ETag", "\"test-entity-tag\""));
+        this.mockWebServer.enqueue(response("test-value-2"));
+
+        TestOperations operations = operations(DefaultConnectionContext.builder()
+            .responseCache(responseCache(Duration.ofMinutes(1))));
+
+        get(operations, "test-value-1");
+        get(operations, "test-value-2");
+
+        assertEquals(2, this.mockWebServer.getRequestCount());
+        this.mockWebServer.takeRequest();
+        assertNull(this.mockWebServer.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void cacheNotModified() throws InterruptedException {
+        this.mockWebServer.enqueue(response("test-value")
+            .setHeader("ETag", "\"test-entity-tag\""));
+        this.mockWebServer.enqueue(new MockResponse().setResponseCode(304));
+
+        TestOperations operations = operations(DefaultConnectionContext.builder()
+            .responseCache(responseCache(Duration.ZERO)));
+
+        get(operations, "test-value");
+        get(operations, "test-value");
+
+        assertEquals(2, this.mockWebServer.getRequestCount());
+        this.mockWebServer.takeRequest();
+        assertEquals("\"test-entity-tag\"", this.mockWebServer.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void getUnauthorized() throws InterruptedException {
+        this.mockWebServer.enqueue(new MockResponse().setResponseCode(401));
+        this.mockWebServer.enqueue(new MockResponse()
+            .setHeader("Content-Type", "application/json")
+            .setBody("{\"value\":\"test-value\"}"));
+
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        operations(DefaultConnectionContext.builder())
+            .get()
+            .map(node -> node.get("value").asText())
+            .subscribe(testSubscriber
+                .expectEquals("test-value"));
+
+        testSubscriber.verify(Duration.ofSeconds(5));
+        assertEquals("bearer test-token-1", this.mockWebServer.takeRequest().getHeader("Authorization"));
+        assertEquals("bearer test-token-2", this.mockWebServer.takeRequest().getHeader("Authorization"));
+        assertEquals(Collections.singletonList("test-token-1"), this.tokenProvider.invalidated);
+    }
+
+    @Test
+    public void getUnauthorizedTwice() throws InterruptedException {
+        this.mockWebServer.enqueue(new MockResponse().setResponseCode(401));
+        this.mockWebServer.enqueue(new MockResponse().setResponseCode(401));
+
+        TestSubscriber<JsonNode> testSubscriber = new TestSubscriber<>();
+
+        operations(DefaultConnectionContext.builder())
+            .get()
+            .subscribe(testSubscriber
+                .expectError(HttpException.class, null));
+
+        testSubscriber.verify(Duration.ofSeconds(5));
+        assertEquals(2, this.mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void hedge() throws InterruptedException {
+        this.mockWebServer.enqueue(response("test-value-slow")
+            .setBodyDelay(2, TimeUnit.SECONDS));
+        this.mockWebServer.enqueue(response("test-value-fast"));
+
+        TestOperations operations = operations(DefaultConnectionContext.builder()
+            .retryPolicy(hedgingRetryPolicy()));
+
+        get(operations, "test-value-fast");
+
+        assertEquals(2, this.mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void hedgeCacheHitNotRecorded() throws InterruptedException {
+        this.mockWebServer.enqueue(response("test-value"));
+
+        RecordingRetryPolicy retryPolicy = new RecordingRetryPolicy();
+
+        TestOperations operations = operations(DefaultConnectionContext.builder()
+            .responseCache(responseCache(Duration.ofMinutes(1)))
+            .retryPolicy(retryPolicy));
+
+        get(operations, "test-value");
+        get(operations, "test-value");
+
+        assertEquals(1, this.mockWebServer.getRequestCount());
+        assertEquals(1, retryPolicy.recorded.get());
+    }
+
+    @Test
+    public void hedgeNotSent() throws InterruptedException {
+        this.mockWebServer.enqueue(response("test-value"));
+
+        TestOperations operations = operations(DefaultConnectionContext.builder()
+            .retryPolicy(new DefaultRetryPolicy(2, Duration.ofMillis(10), Duration.ofMillis(10), 0.5)));
+
+        get(operations, "test-value");
+
+        assertEquals(1, this.mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void hedgeSecondaryError() throws InterruptedException {
+        this.mockWebServer.enqueue(response("test-value")
+            .setBodyDelay(500, TimeUnit.MILLISECONDS));
+        this.mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+
+        TestOperations operations = operations(DefaultConnectionContext.builder()
+            .retryPolicy(hedgingRetryPolicy()));
+
+        get(operations, "test-value");
+
+        assertEquals(2, this.mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void putNotRetried() throws InterruptedException {
+        this.mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+
+        TestSubscriber<JsonNode> testSubscriber = new TestSubscriber<>();
+
+        operations(DefaultConnectionContext.builder()
+            .retryPolicy(new DefaultRetryPolicy(2, Duration.ofMillis(10), Duration.ofMillis(10))))
+            .put()
+            .subscribe(testSubscriber
+                .expectError(HttpException.class, null));
+
+        testSubscriber.verify(Duration.ofSeconds(5));
+        assertEquals(1, this.mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void putUnauthorized() throws InterruptedException {
+        this.mockWebServer.enqueue(new MockResponse().setResponseCode(401));
+
+        TestSubscriber<JsonNode> testSubscriber = new TestSubscriber<>();
+
+        operations(DefaultConnectionContext.builder())
+            .put()
+            .subscribe(testSubscriber
+                .expectError(HttpException.class, null));
+
+        testSubscriber.verify(Duration.ofSeconds(5));
+        assertEquals(1, this.mockWebServer.getRequestCount());
+        assertEquals(Collections.emptyList(), this.tokenProvider.invalidated);
+    }
+
+    @Test
+    public void retry() throws InterruptedException {
+        this.mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        this.mockWebServer.enqueue(response("test-value"));
+
+        TestOperations operations = operations(DefaultConnectionContext.builder()
+            .retryPolicy(new DefaultRetryPolicy(2, Duration.ofMillis(10), Duration.ofMillis(10))));
+
+        get(operations, "test-value");
+
+        assertEquals(2, this.mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void retryAfter() throws InterruptedException {
+        this.mockWebServer.enqueue(new MockResponse()
+            .setResponseCode(429)
+            .setHeader("Retry-After", "1"));
+        this.mockWebServer.enqueue(response("test-value"));
+
+        TestOperations operations = operations(DefaultConnectionContext.builder()
+            .retryPolicy(new DefaultRetryPolicy(2, Duration.ofMillis(10), Duration.ofSeconds(2))));
+
+        long start = System.nanoTime();
+        get(operations, "test-value");
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofMillis(900)) > 0);
+        assertEquals(2, this.mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void retryAfterExceedsMaximumBackoff() throws InterruptedException {
+        this.mockWebServer.enqueue(new MockResponse()
+            .setResponseCode(429)
+            .setHeader("Retry-After", "1"));
+
+        TestSubscriber<JsonNode> testSubscriber = new TestSubscriber<>();
+
+        operations(DefaultConnectionContext.builder()
+            .retryPolicy(new DefaultRetryPolicy(2, Duration.ofMillis(10), Duration.ofMillis(10))))
+            .get()
+            .subscribe(testSubscriber
+                .expectError(HttpException.class, null));
+
+        testSubscriber.verify(Duration.ofSeconds(5));
+        assertEquals(1, this.mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void retryExhausted() throws InterruptedException {
+        this.mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        this.mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        this.mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+
+        TestSubscriber<JsonNode> testSubscriber = new TestSubscriber<>();
+
+        operations(DefaultConnectionContext.builder()
+            .retryPolicy(new DefaultRetryPolicy(2, Duration.ofMillis(10), Duration.ofMillis(10))))
+            .get()
+            .subscribe(testSubscriber
+                .expectError(HttpException.class, null));
+
+        testSubscriber.verify(Duration.ofSeconds(5));
+        assertEquals(3, this.mockWebServer.getRequestCount());
+    }
+
+    @After
+    public void shutdown() throws IOException {
+        this.mockWebServer.shutdown();
+    }
+
+    private static void get(TestOperations operations, String expected) throws InterruptedException {
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        operations
+            .get()
+            .map(node -> node.get("value").asText())
+            .subscribe(testSubscriber
+                .expectEquals(expected));
+
+        testSubscriber.verify(Duration.ofSeconds(5));
+    }
+
+    private static MockResponse response(String value) {
+        return new MockResponse()
+            .setHeader("Content-Type", "application/json")
+            .setBody(String.format("{\"value\":\"%s\"}", value));
+    }
+
+    private static ResponseCache responseCache(Duration timeToLive) {
+        return new DefaultResponseCache(10, Collections.singletonMap("/test-path", timeToLive));
+    }
+
+    private RetryPolicy hedgingRetryPolicy() {
+        RetryPolicy retryPolicy = new DefaultRetryPolicy(2, Duration.ofMillis(10), Duration.ofMillis(10), 0.5);
+
+        for (int i = 0; i < 20; i++) {
+            retryPolicy.recordLatency(this.mockWebServer.url("/test-path").toString(), Duration.ofMillis(50));
+        }
+
+        return retryPolicy;
+    }
+
+    private TestOperations operations(DefaultConnectionContext.Builder builder) {
+        ConnectionContext connectionContext = builder
+            .apiHost("localhost")
+            .httpClient(HttpClient.create())
+            .build();
+
+        return new TestOperations(connectionContext, Mono.just(this.mockWebServer.url("/").toString()), this.tokenProvider);
+    }
+
+    private static final class RecordingRetryPolicy implements RetryPolicy {
+
+        private final AtomicInteger recorded = new AtomicInteger();
+
+        @Override
+        public Optional<Duration> getHedgeDelay(String uri) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Duration> getRetryDelay(int attempt, Throwable cause) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void recordLatency(String uri, Duration latency) {
+            this.recorded.incrementAndGet();
+        }
+
+    }
+
+    private static final class TestOperations extends AbstractReactorOperations {
+
+        private TestOperations(ConnectionContext connectionContext, Mono<String> root, TokenProvider tokenProvider) {
+            super(connectionContext, root, tokenProvider);
+        }
+
+        private Mono<JsonNode> get() {
+            return doGet(JsonNode.class, builder -> builder.pathSegment("test-path"), outbound -> outbound);
+        }
+
+        private Mono<JsonNode> put() {
+            return doPut(JsonNode.class, builder -> builder.pathSegment("test-path"), outbound -> outbound
+                .addHeader("Content-Length", "0")
+                .removeTransferEncodingChunked()
+                .sendHeaders());
+        }
+
+    }
+
+    private static final class TestTokenProvider implements TokenProvider {
+
+        private final AtomicInteger generation = new AtomicInteger(1);
+
+        private final List<String> invalidated = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Mono<String> getToken(ConnectionContext connectionContext) {
+            return Mono.fromCallable(() -> String.format("test-token-%d", this.generation.get()));
+        }
+
+        @Override
+        public void invalidate(ConnectionContext connectionContext, String token) {
+            this.invalidated.add(token);
+            this.generation.incrementAndGet();
+        }
+
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.cloudfoundry.util.test.TestSubscriber;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+
+public final class FileCodecTest {
+
+    @Test
+    public void write() throws InterruptedException, IOException {
+        Path destination = Files.createTempFile("test-write", null);
+        ByteBuf first = toByteBuf("test-al");
+        ByteBuf second = toByteBuf("pha");
+        TestSubscriber<Void> testSubscriber = new TestSubscriber<>();
+
+        try {
+            Flux.just(first, second)
+                .as(FileCodec.write(destination))
+                .subscribe(testSubscriber);
+
+            testSubscriber.verify(Duration.ofSeconds(1));
+
+            assertEquals("test-alpha", new String(Files.readAllBytes(destination), StandardCharsets.UTF_8));
+            assertEquals(1, first.refCnt());
+            assertEquals(1, second.refCnt());
+        } finally {
+            destination.toFile().delete();
+        }
+    }
+
+    @Test
+    public void writeError() throws InterruptedException, IOException {
+        Path destination = Files.createTempFile("test-write-error", null);
+        ByteBuf first = toByteBuf("test-al");
+        ByteBuf second = toByteBuf("pha");
+        TestSubscriber<Void> testSubscriber = new TestSubscriber<>();
+
+        try {
+            Flux.just(first, second)
+                .concatWith(Flux.error(new IOException("test-error")))
+                .as(FileCodec.write(destination))
+                .subscribe(testSubscriber
+                    .expectError(IOException.class, "test-error"));
+
+            testSubscriber.verify(Duration.ofSeconds(1));
+
+            assertEquals(1, first.refCnt());
+            assertEquals(1, second.refCnt());
+        } finally {
+            destination.toFile().delete();
+        }
+    }
+
+    private static ByteBuf toByteBuf(String s) {
+        return Unpooled.wrappedBuffer(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
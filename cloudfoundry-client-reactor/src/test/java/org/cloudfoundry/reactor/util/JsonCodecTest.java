@@ -0,0 +1,55 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.cloudfoundry.util.FluentMap;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public final class JsonCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void encode() throws JsonProcessingException {
+        Map<String, Object> source = FluentMap.<String, Object>builder()
+            .entry("alpha", "test-alpha")
+            .entry("bravo", Arrays.asList(1, 2, 3))
+            .build();
+
+        ByteBuf first = JsonCodec.encode(UnpooledByteBufAllocator.DEFAULT, this.objectMapper, source);
+        ByteBuf second = JsonCodec.encode(UnpooledByteBufAllocator.DEFAULT, this.objectMapper, source);
+
+        try {
+            assertEquals(new String(this.objectMapper.writeValueAsBytes(source), StandardCharsets.UTF_8), first.toString(StandardCharsets.UTF_8));
+            assertEquals(first.readableBytes(), second.capacity());
+        } finally {
+            first.release();
+            second.release();
+        }
+    }
+
+}
@@ -22,6 +22,7 @@ import org.cloudfoundry.QueryParameter;
 import org.immutables.value.Value;
 
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -30,9 +31,17 @@ import java.util.List;
 @Value.Immutable
 abstract class _UploadApplicationRequest {
 
+    @Value.Check
+    void checkApplication() {
+        if ((getApplication() == null) == (getApplicationPath() == null)) {
+            throw new IllegalStateException("Cannot build UploadApplicationRequest, exactly one of application or applicationPath must be set");
+        }
+    }
+
     /**
      * A binary zip file containing the application bits
      */
+    @Nullable
     @JsonIgnore
     abstract InputStream getApplication();
 
@@ -42,6 +51,13 @@ abstract class _UploadApplicationRequest {
     @JsonIgnore
     abstract String getApplicationId();
 
+    /**
+     * The location of a zip file containing the application bits.  When set, the file is uploaded without being copied through user space where the transport allows it.
+     */
+    @Nullable
+    @JsonIgnore
+    abstract Path getApplicationPath();
+
     /**
      * If true, a new asynchronous job is submitted to persist the bits and the job id is included in the response
      */
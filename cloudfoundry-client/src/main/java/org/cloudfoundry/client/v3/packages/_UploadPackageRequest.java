@@ -17,9 +17,11 @@
 package org.cloudfoundry.client.v3.packages;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.cloudfoundry.Nullable;
 import org.immutables.value.Value;
 
 import java.io.InputStream;
+import java.nio.file.Path;
 
 /**
  * The request payload for the Upload Package operation
@@ -27,12 +29,27 @@ import java.io.InputStream;
 @Value.Immutable
 abstract class _UploadPackageRequest {
 
+    @Value.Check
+    void checkBits() {
+        if ((getBits() == null) == (getBitsPath() == null)) {
+            throw new IllegalStateException("Cannot build UploadPackageRequest, exactly one of bits or bitsPath must be set");
+        }
+    }
+
     /**
      * The bits
      */
+    @Nullable
     @JsonIgnore
     abstract InputStream getBits();
 
+    /**
+     * The location of a zip file containing the bits.  When set, the file is uploaded without being copied through user space where the transport allows it.
+     */
+    @Nullable
+    @JsonIgnore
+    abstract Path getBitsPath();
+
     /**
      * The package id
      */
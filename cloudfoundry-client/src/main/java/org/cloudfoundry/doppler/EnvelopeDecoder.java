@@ -0,0 +1,312 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.doppler;
+
+import com.squareup.wire.ProtoAdapter;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+/**
+ * Decodes a dropsonde {@code Envelope} from its protobuf encoding into an {@link Envelope}.  The envelope-level fields and tags are read straight from the buffer rather than through a Wire
+ * {@code Envelope}.  The enclosed event is still decoded with its generated Wire adapter and then converted with its {@code from()} method, so the savings are limited to the envelope itself.
+ */
+final class EnvelopeDecoder {
+
+    private static final int CONTAINER_METRIC = 12;
+
+    private static final int COUNTER_EVENT = 10;
+
+    private static final int DEPLOYMENT = 13;
+
+    private static final int ERROR = 11;
+
+    private static final int EVENT_TYPE = 2;
+
+    private static final int HTTP_START = 4;
+
+    private static final int HTTP_START_STOP = 7;
+
+    private static final int HTTP_STOP = 5;
+
+    private static final int INDEX = 15;
+
+    private static final int IP = 16;
+
+    private static final int JOB = 14;
+
+    private static final int LOG_MESSAGE = 8;
+
+    private static final int MAP_KEY = 1;
+
+    private static final int MAP_VALUE = 2;
+
+    private static final int ORIGIN = 1;
+
+    private static final int TAGS = 17;
+
+    private static final int TIMESTAMP = 6;
+
+    private static final int VALUE_METRIC = 9;
+
+    private static final int WIRE_TYPE_FIXED32 = 5;
+
+    private static final int WIRE_TYPE_FIXED64 = 1;
+
+    private static final int WIRE_TYPE_LENGTH_DELIMITED = 2;
+
+    private static final int WIRE_TYPE_VARINT = 0;
+
+    private EnvelopeDecoder() {
+    }
+
+    static Envelope decode(ByteBuffer buffer) {
+        ByteBuffer in = buffer.slice();
+        Envelope.Builder envelope = Envelope.builder();
+
+        try {
+            while (in.hasRemaining()) {
+                long key = readVarint(in);
+                int wireType = (int) (key & 0x07);
+
+                switch ((int) (key >>> 3)) {
+                    case CONTAINER_METRIC:
+                        envelope.containerMetric(readMessage(in, org.cloudfoundry.dropsonde.events.ContainerMetric.ADAPTER, ContainerMetric::from));
+                        break;
+                    case COUNTER_EVENT:
+                        envelope.counterEvent(readMessage(in, org.cloudfoundry.dropsonde.events.CounterEvent.ADAPTER, CounterEvent::from));
+                        break;
+                    case DEPLOYMENT:
+                        envelope.deployment(readString(in));
+                        break;
+                    case ERROR:
+                        envelope.error(readMessage(in, org.cloudfoundry.dropsonde.events.Error.ADAPTER, Error::from));
+                        break;
+                    case EVENT_TYPE:
+                        envelope.eventType(toEventType(readVarint(in)));
+                        break;
+                    case HTTP_START:
+                        envelope.httpStart(readMessage(in, org.cloudfoundry.dropsonde.events.HttpStart.ADAPTER, HttpStart::from));
+                        break;
+                    case HTTP_START_STOP:
+                        envelope.httpStartStop(readMessage(in, org.cloudfoundry.dropsonde.events.HttpStartStop.ADAPTER, HttpStartStop::from));
+                        break;
+                    case HTTP_STOP:
+                        envelope.httpStop(readMessage(in, org.cloudfoundry.dropsonde.events.HttpStop.ADAPTER, HttpStop::from));
+                        break;
+                    case INDEX:
+                        envelope.index(readString(in));
+                        break;
+                    case IP:
+                        envelope.ip(readString(in));
+                        break;
+                    case JOB:
+                        envelope.job(readString(in));
+                        break;
+                    case LOG_MESSAGE:
+                        envelope.logMessage(readMessage(in, org.cloudfoundry.dropsonde.events.LogMessage.ADAPTER, LogMessage::from));
+                        break;
+                    case ORIGIN:
+                        envelope.origin(readString(in));
+                        break;
+                    case TAGS:
+                        readTag(in, envelope);
+                        break;
+                    case TIMESTAMP:
+                        envelope.timestamp(readVarint(in));
+                        break;
+                    case VALUE_METRIC:
+                        envelope.valueMetric(readMessage(in, org.cloudfoundry.dropsonde.events.ValueMetric.ADAPTER, ValueMetric::from));
+                        break;
+                    default:
+                        skip(in, wireType);
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated envelope", e);
+        }
+
+        return envelope.build();
+    }
+
+    static EventType peekEventType(ByteBuffer buffer) {
+        int position = buffer.position();
+
+        try {
+            while (position < buffer.limit()) {
+                long key = getVarint(buffer, position);
+                position += getVarintSize(buffer, position);
+
+                int wireType = (int) (key & 0x07);
+                if ((int) (key >>> 3) == EVENT_TYPE && wireType == WIRE_TYPE_VARINT) {
+                    return toEventType(getVarint(buffer, position));
+                }
+
+                switch (wireType) {
+                    case WIRE_TYPE_VARINT:
+                        position += getVarintSize(buffer, position);
+                        break;
+                    case WIRE_TYPE_FIXED64:
+                        position += 8;
+                        break;
+                    case WIRE_TYPE_LENGTH_DELIMITED:
+                        long length = getVarint(buffer, position);
+                        position += getVarintSize(buffer, position) + (int) length;
+                        break;
+                    case WIRE_TYPE_FIXED32:
+                        position += 4;
+                        break;
+                    default:
+                        throw new IllegalArgumentException(String.format("Unsupported wire type: %d", wireType));
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated envelope", e);
+        }
+
+        throw new IllegalArgumentException("Envelope does not contain an event type");
+    }
+
+    private static long getVarint(ByteBuffer buffer, int position) {
+        long result = 0;
+
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get(position++);
+            result |= (long) (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static int getVarintSize(ByteBuffer buffer, int position) {
+        int size = 1;
+
+        while ((buffer.get(position++) & 0x80) != 0) {
+            size++;
+        }
+
+        return size;
+    }
+
+    private static ByteBuffer readLengthDelimited(ByteBuffer in) {
+        int length = (int) readVarint(in);
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+
+        ByteBuffer value = in.slice();
+        value.limit(length);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static <W, T> T readMessage(ByteBuffer in, ProtoAdapter<W> adapter, Function<W, T> converter) {
+        ByteBuffer value = readLengthDelimited(in);
+        byte[] bytes = new byte[value.remaining()];
+        value.get(bytes);
+
+        try {
+            return converter.apply(adapter.decode(bytes));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to decode enclosed event", e);
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        ByteBuffer value = readLengthDelimited(in);
+
+        if (value.hasArray()) {
+            return new String(value.array(), value.arrayOffset() + value.position(), value.remaining(), StandardCharsets.UTF_8);
+        }
+
+        return StandardCharsets.UTF_8.decode(value).toString();
+    }
+
+    private static void readTag(ByteBuffer in, Envelope.Builder envelope) {
+        ByteBuffer entry = readLengthDelimited(in);
+        String key = "";
+        String value = "";
+
+        while (entry.hasRemaining()) {
+            long entryKey = readVarint(entry);
+
+            switch ((int) (entryKey >>> 3)) {
+                case MAP_KEY:
+                    key = readString(entry);
+                    break;
+                case MAP_VALUE:
+                    value = readString(entry);
+                    break;
+                default:
+                    skip(entry, (int) (entryKey & 0x07));
+            }
+        }
+
+        envelope.tag(key, value);
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long result = 0;
+
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            result |= (long) (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static void skip(ByteBuffer in, int wireType) {
+        switch (wireType) {
+            case WIRE_TYPE_VARINT:
+                readVarint(in);
+                break;
+            case WIRE_TYPE_FIXED64:
+                in.position(in.position() + 8);
+                break;
+            case WIRE_TYPE_LENGTH_DELIMITED:
+                readLengthDelimited(in);
+                break;
+            case WIRE_TYPE_FIXED32:
+                in.position(in.position() + 4);
+                break;
+            default:
+                throw new IllegalArgumentException(String.format("Unsupported wire type: %d", wireType));
+        }
+    }
+
+    private static EventType toEventType(long value) {
+        org.cloudfoundry.dropsonde.events.Envelope.EventType eventType = org.cloudfoundry.dropsonde.events.Envelope.EventType.fromValue((int) value);
+        if (eventType == null) {
+            throw new IllegalArgumentException(String.format("Unknown event type: %d", value));
+        }
+
+        return EventType.from(eventType);
+    }
+
+}
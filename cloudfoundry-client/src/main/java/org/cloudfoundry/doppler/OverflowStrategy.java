@@ -0,0 +1,34 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.doppler;
+
+/**
+ * The strategy used when the buffer of a streaming request is full
+ */
+public enum OverflowStrategy {
+
+    /**
+     * Drop the newest envelope, the one that has just been received
+     */
+    DROP_NEWEST,
+
+    /**
+     * Drop the oldest envelope in the buffer to make room for the one that has just been received
+     */
+    DROP_OLDEST
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.doppler;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.cloudfoundry.Nullable;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Base class for requests that stream envelopes
+ */
+public abstract class StreamingRequest {
+
+    /**
+     * The maximum number of envelopes to buffer for a slow consumer.  When the buffer is full, envelopes are dropped according to the {@link #getOverflowStrategy() overflow strategy}.  If not set,
+     * envelopes are not buffered and a slow consumer slows the connection down.
+     */
+    @Nullable
+    @JsonIgnore
+    public abstract Integer getBufferSize();
+
+    /**
+     * The event types to receive.  Envelopes of other event types are discarded before they are decoded.  If empty, envelopes of all event types are received.
+     */
+    @JsonIgnore
+    public abstract Set<EventType> getEventTypes();
+
+    /**
+     * The strategy used when the buffer is full.  Defaults to {@link OverflowStrategy#DROP_OLDEST}.
+     */
+    @Nullable
+    @JsonIgnore
+    public abstract OverflowStrategy getOverflowStrategy();
+
+    /**
+     * Sample rates by event type.  For a rate of {@code n}, only one in every {@code n} envelopes of that event type is retained.
+     */
+    @JsonIgnore
+    public abstract Map<EventType, Integer> getSampleRates();
+
+}
@@ -19,6 +19,7 @@ package org.cloudfoundry.doppler;
 import org.cloudfoundry.Nullable;
 import org.immutables.value.Value;
 
+import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -54,6 +55,30 @@ abstract class _Envelope {
         return envelope.build();
     }
 
+    /**
+     * Decodes an {@link Envelope} directly from its protobuf encoding, without first materializing the dropsonde representation
+     *
+     * @param buffer the encoded envelope.  The position of the buffer is not changed.
+     * @return the decoded envelope
+     */
+    public static Envelope from(ByteBuffer buffer) {
+        Objects.requireNonNull(buffer, "buffer");
+
+        return EnvelopeDecoder.decode(buffer);
+    }
+
+    /**
+     * Reads the event type of an encoded {@link Envelope} without decoding the rest of the envelope
+     *
+     * @param buffer the encoded envelope.  The position of the buffer is not changed.
+     * @return the event type of the envelope
+     */
+    public static EventType peekEventType(ByteBuffer buffer) {
+        Objects.requireNonNull(buffer, "buffer");
+
+        return EnvelopeDecoder.peekEventType(buffer);
+    }
+
     /**
      * The enclosed {@link ContainerMetric}
      */
@@ -17,13 +17,47 @@
 package org.cloudfoundry.doppler;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.cloudfoundry.Nullable;
 import org.immutables.value.Value;
 
 /**
  * The request payload for the Firehose endpoint
  */
 @Value.Immutable
-abstract class _FirehoseRequest {
+abstract class _FirehoseRequest extends StreamingRequest {
+
+    @Value.Check
+    void checkConnections() {
+        if (getConnections() != null && getConnections() < 1) {
+            throw new IllegalStateException("Cannot build FirehoseRequest, connections must be at least 1");
+        }
+    }
+
+    @Value.Check
+    void checkStreaming() {
+        if (getBufferSize() != null && getBufferSize() < 1) {
+            throw new IllegalStateException("Cannot build FirehoseRequest, bufferSize must be at least 1");
+        }
+
+        if (getSampleRates().values().stream().anyMatch(rate -> rate < 1)) {
+            throw new IllegalStateException("Cannot build FirehoseRequest, sample rates must be at least 1");
+        }
+    }
+
+    /**
+     * The number of connections to open with the subscription id.  Doppler balances the firehose across all of the connections sharing a subscription id.  Defaults to {@code 1}.
+     */
+    @Nullable
+    @JsonIgnore
+    abstract Integer getConnections();
+
+    /**
+     * Whether each connection should be re-established, with an exponential backoff, when it is closed or fails with a transient error such as an I/O error or a server error.  Other errors,
+     * such as a rejected token or an envelope that cannot be decoded, are propagated.  Defaults to {@code false}.
+     */
+    @Nullable
+    @JsonIgnore
+    abstract Boolean getReconnect();
 
     /**
      * The subscription id
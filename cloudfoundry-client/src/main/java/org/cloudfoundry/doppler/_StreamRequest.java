@@ -23,7 +23,18 @@ import org.immutables.value.Value;
  * The request payload for the Stream endpoint
  */
 @Value.Immutable
-abstract class _StreamRequest {
+abstract class _StreamRequest extends StreamingRequest {
+
+    @Value.Check
+    void checkStreaming() {
+        if (getBufferSize() != null && getBufferSize() < 1) {
+            throw new IllegalStateException("Cannot build StreamRequest, bufferSize must be at least 1");
+        }
+
+        if (getSampleRates().values().stream().anyMatch(rate -> rate < 1)) {
+            throw new IllegalStateException("Cannot build StreamRequest, sample rates must be at least 1");
+        }
+    }
 
     /**
      * The application id
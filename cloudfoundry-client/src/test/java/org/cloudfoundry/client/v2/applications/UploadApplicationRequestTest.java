@@ -19,11 +19,21 @@ package org.cloudfoundry.client.v2.applications;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
+import java.nio.file.Paths;
 
 public final class UploadApplicationRequestTest {
 
     private static final ByteArrayInputStream EMPTY_STREAM = new ByteArrayInputStream(new byte[0]);
 
+    @Test(expected = IllegalStateException.class)
+    public void applicationAndApplicationPath() {
+        UploadApplicationRequest.builder()
+            .application(EMPTY_STREAM)
+            .applicationId("test-application-id")
+            .applicationPath(Paths.get("test-application.zip"))
+            .build();
+    }
+
     @Test(expected = IllegalStateException.class)
     public void noApplication() {
         UploadApplicationRequest.builder()
@@ -46,4 +56,12 @@ public final class UploadApplicationRequestTest {
             .build();
     }
 
+    @Test
+    public void validPath() {
+        UploadApplicationRequest.builder()
+            .applicationId("test-application-id")
+            .applicationPath(Paths.get("test-application.zip"))
+            .build();
+    }
+
 }
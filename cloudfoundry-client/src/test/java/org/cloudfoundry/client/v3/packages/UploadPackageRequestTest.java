@@ -19,9 +19,19 @@ package org.cloudfoundry.client.v3.packages;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
+import java.nio.file.Paths;
 
 public final class UploadPackageRequestTest {
 
+    @Test(expected = IllegalStateException.class)
+    public void bitsAndBitsPath() {
+        UploadPackageRequest.builder()
+            .bits(new ByteArrayInputStream(new byte[0]))
+            .bitsPath(Paths.get("test-bits.zip"))
+            .packageId("test-package-id")
+            .build();
+    }
+
     @Test(expected = IllegalStateException.class)
     public void noBits() {
         UploadPackageRequest.builder()
@@ -44,4 +54,12 @@ public final class UploadPackageRequestTest {
             .build();
     }
 
+    @Test
+    public void validPath() {
+        UploadPackageRequest.builder()
+            .bitsPath(Paths.get("test-bits.zip"))
+            .packageId("test-package-id")
+            .build();
+    }
+
 }
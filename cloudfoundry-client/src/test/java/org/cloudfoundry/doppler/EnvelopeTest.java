@@ -0,0 +1,97 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.doppler;
+
+import okio.ByteString;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public final class EnvelopeTest {
+
+    @Test
+    public void byteBuffer() {
+        org.cloudfoundry.dropsonde.events.Envelope dropsonde = new org.cloudfoundry.dropsonde.events.Envelope.Builder()
+            .deployment("test-deployment")
+            .eventType(org.cloudfoundry.dropsonde.events.Envelope.EventType.LogMessage)
+            .index("test-index")
+            .ip("test-ip")
+            .job("test-job")
+            .logMessage(new org.cloudfoundry.dropsonde.events.LogMessage.Builder()
+                .app_id("test-application-id")
+                .message(ByteString.encodeUtf8("test-message"))
+                .message_type(org.cloudfoundry.dropsonde.events.LogMessage.MessageType.OUT)
+                .source_instance("test-source-instance")
+                .source_type("test-source-type")
+                .timestamp(1L)
+                .build())
+            .origin("test-origin")
+            .tags(Collections.singletonMap("test-key", "test-value"))
+            .timestamp(2L)
+            .build();
+
+        ByteBuffer buffer = ByteBuffer.wrap(org.cloudfoundry.dropsonde.events.Envelope.ADAPTER.encode(dropsonde));
+
+        assertEquals(Envelope.from(dropsonde), Envelope.from(buffer));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void dropsonde() {
+        Envelope.from(new org.cloudfoundry.dropsonde.events.Envelope.Builder()
+            .eventType(org.cloudfoundry.dropsonde.events.Envelope.EventType.ValueMetric)
+            .origin("test-origin")
+            .build());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void noEventType() {
+        Envelope.builder()
+            .origin("test-origin")
+            .build();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void noOrigin() {
+        Envelope.builder()
+            .eventType(EventType.LOG_MESSAGE)
+            .build();
+    }
+
+    @Test
+    public void peekEventType() {
+        ByteBuffer buffer = ByteBuffer.wrap(org.cloudfoundry.dropsonde.events.Envelope.ADAPTER.encode(new org.cloudfoundry.dropsonde.events.Envelope.Builder()
+            .eventType(org.cloudfoundry.dropsonde.events.Envelope.EventType.ContainerMetric)
+            .origin("test-origin")
+            .build()));
+
+        assertEquals(EventType.CONTAINER_METRIC, Envelope.peekEventType(buffer));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void valid() {
+        Envelope.builder()
+            .eventType(EventType.LOG_MESSAGE)
+            .origin("test-origin")
+            .build();
+    }
+
+}
@@ -20,6 +20,22 @@ import org.junit.Test;
 
 public final class FirehoseRequestTest {
 
+    @Test(expected = IllegalStateException.class)
+    public void invalidBufferSize() {
+        FirehoseRequest.builder()
+            .bufferSize(0)
+            .subscriptionId("test-subscription-id")
+            .build();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void invalidConnections() {
+        FirehoseRequest.builder()
+            .connections(0)
+            .subscriptionId("test-subscription-id")
+            .build();
+    }
+
     @Test(expected = IllegalStateException.class)
     public void noSubscriptionId() {
         FirehoseRequest.builder()
@@ -33,4 +49,23 @@ public final class FirehoseRequestTest {
             .build();
     }
 
+    @Test
+    public void validBuffered() {
+        FirehoseRequest.builder()
+            .bufferSize(1000)
+            .overflowStrategy(OverflowStrategy.DROP_OLDEST)
+            .sampleRate(EventType.VALUE_METRIC, 10)
+            .subscriptionId("test-subscription-id")
+            .build();
+    }
+
+    @Test
+    public void validConnections() {
+        FirehoseRequest.builder()
+            .connections(4)
+            .reconnect(true)
+            .subscriptionId("test-subscription-id")
+            .build();
+    }
+
 }
@@ -20,6 +20,22 @@ import org.junit.Test;
 
 public final class StreamRequestTest {
 
+    @Test(expected = IllegalStateException.class)
+    public void invalidBufferSize() {
+        StreamRequest.builder()
+            .applicationId("test-application-id")
+            .bufferSize(0)
+            .build();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void invalidSampleRate() {
+        StreamRequest.builder()
+            .applicationId("test-application-id")
+            .sampleRate(EventType.CONTAINER_METRIC, 0)
+            .build();
+    }
+
     @Test(expected = IllegalStateException.class)
     public void noApplicationId() {
         StreamRequest.builder()
@@ -33,4 +49,14 @@ public final class StreamRequestTest {
             .build();
     }
 
+    @Test
+    public void validBuffered() {
+        StreamRequest.builder()
+            .applicationId("test-application-id")
+            .bufferSize(1000)
+            .overflowStrategy(OverflowStrategy.DROP_NEWEST)
+            .sampleRate(EventType.CONTAINER_METRIC, 10)
+            .build();
+    }
+
 }
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A cache of the ids of named resources that can be shared by the operations of a {@link DefaultCloudFoundryOperations}.  Entries expire after a time-to-live, and the least recently used entry is
+ * evicted once the cache reaches its maximum size.  Entries are invalidated when the operations delete or rename the resource they refer to, or change which organizations a domain is
+ * visible in.  Organization and stack ids are not cached: organizations can be renamed and deleted by several operations that would all need to invalidate them, and stacks are only looked up
+ * once per push.
+ */
+public final class ResourceIdCache {
+
+    private static final ResourceIdCache DISABLED = new ResourceIdCache(Duration.ZERO, 0);
+
+    private final Map<String, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final int maximumSize;
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final long timeToLive;
+
+    /**
+     * Creates a new cache
+     *
+     * @param timeToLive  the time after which an entry expires
+     * @param maximumSize the maximum number of entries in the cache
+     */
+    public ResourceIdCache(Duration timeToLive, int maximumSize) {
+        this.maximumSize = maximumSize;
+        this.timeToLive = timeToLive.toNanos();
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = -2286417735452117185L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ResourceIdCache.this.maximumSize;
+            }
+
+        };
+    }
+
+    /**
+     * Returns a cache that never caches an id
+     *
+     * @return a disabled cache
+     */
+    public static ResourceIdCache disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Returns the id of a resource, loading it if it is not cached or has expired
+     *
+     * @param type   the type of the resource
+     * @param scope  the id of the resource that the name is unique within, for example the id of a space
+     * @param name   the name of the resource
+     * @param loader a {@link Supplier} of a {@link Mono} that loads the id of the resource
+     * @return the id of the resource
+     */
+    public Mono<String> get(Type type, String scope, String name, Supplier<Mono<String>> loader) {
+        if (this.maximumSize <= 0 || this.timeToLive <= 0) {
+            return loader.get();
+        }
+
+        String key = getKey(type, scope, name);
+
+        return Mono.defer(() -> {
+            long now = System.nanoTime();
+
+            synchronized (this.entries) {
+                Entry entry = this.entries.get(key);
+                if (entry != null && now - entry.createdAt < this.timeToLive) {
+                    this.hits.incrementAndGet();
+                    return entry.id;
+                }
+
+                this.misses.incrementAndGet();
+
+                Entry candidate = new Entry(type, name, now, loader.get().cache());
+                this.entries.put(key, candidate);
+
+                return candidate.id
+                    .doOnError(t -> remove(key, candidate));
+            }
+        });
+    }
+
+    /**
+     * Returns the number of lookups that were answered from the cache
+     *
+     * @return the number of cache hits
+     */
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Returns the proportion of lookups that were answered from the cache
+     *
+     * @return the hit rate, between {@code 0} and {@code 1}
+     */
+    public double getHitRate() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Returns the number of lookups that required a request to the Cloud Controller
+     *
+     * @return the number of cache misses
+     */
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    /**
+     * Invalidates the cached ids of all resources of a type with a given name, in every scope
+     *
+     * @param type the type of the resource
+     * @param name the name of the resource
+     */
+    public void invalidate(Type type, String name) {
+        synchronized (this.entries) {
+            this.entries.values().removeIf(entry -> entry.type == type && entry.name.equals(name));
+        }
+    }
+
+    /**
+     * Invalidates every cached id
+     */
+    public void invalidateAll() {
+        synchronized (this.entries) {
+            this.entries.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ResourceIdCache{hits=%d, misses=%d, hitRate=%.2f}", getHits(), getMisses(), getHitRate());
+    }
+
+    private static String getKey(Type type, String scope, String name) {
+        return String.format("%s:%s:%s", type, scope, name);
+    }
+
+    private void remove(String key, Entry entry) {
+        synchronized (this.entries) {
+            this.entries.remove(key, entry);
+        }
+    }
+
+    /**
+     * The types of resource whose ids are cached
+     */
+    public enum Type {
+
+        /**
+         * An application, scoped by space id
+         */
+        APPLICATION,
+
+        /**
+         * A domain, scoped by organization id, or unscoped for private domains looked up by name alone
+         */
+        DOMAIN,
+
+        /**
+         * A space, scoped by organization id
+         */
+        SPACE
+
+    }
+
+    private static final class Entry {
+
+        private final long createdAt;
+
+        private final Mono<String> id;
+
+        private final String name;
+
+        private final Type type;
+
+        private Entry(Type type, String name, long createdAt, Mono<String> id) {
+            this.createdAt = createdAt;
+            this.id = id;
+            this.name = name;
+            this.type = type;
+        }
+
+    }
+
+}
@@ -55,6 +55,7 @@ import org.immutables.value.Value;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.file.Path;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
@@ -73,7 +74,9 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
     @Override
     @Value.Derived
     public Applications applications() {
-        return new DefaultApplications(getCloudFoundryClientPublisher(), getDopplerClientPublisher(), getSpaceId());
+        return Optional.ofNullable(getFingerprintCacheLocation())
+            .map(fingerprintCacheLocation -> new DefaultApplications(getCloudFoundryClientPublisher(), getDopplerClientPublisher(), getSpaceId(), getResourceIds(), fingerprintCacheLocation))
+            .orElseGet(() -> new DefaultApplications(getCloudFoundryClientPublisher(), getDopplerClientPublisher(), getSpaceId(), getResourceIds()));
     }
 
     @Override
@@ -85,7 +88,7 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
     @Override
     @Value.Derived
     public Domains domains() {
-        return new DefaultDomains(getCloudFoundryClientPublisher());
+        return new DefaultDomains(getCloudFoundryClientPublisher(), getResourceIds());
     }
 
     @Override
@@ -103,7 +106,7 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
     @Override
     @Value.Derived
     public Routes routes() {
-        return new DefaultRoutes(getCloudFoundryClientPublisher(), getOrganizationId(), getSpaceId());
+        return new DefaultRoutes(getCloudFoundryClientPublisher(), getOrganizationId(), getSpaceId(), getResourceIds());
     }
 
     @Override
@@ -115,7 +118,7 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
     @Override
     @Value.Derived
     public Services services() {
-        return new DefaultServices(getCloudFoundryClientPublisher(), getOrganizationId(), getSpaceId());
+        return new DefaultServices(getCloudFoundryClientPublisher(), getOrganizationId(), getSpaceId(), getResourceIds());
     }
 
     @Override
@@ -127,7 +130,7 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
     @Override
     @Value.Derived
     public Spaces spaces() {
-        return new DefaultSpaces(getCloudFoundryClientPublisher(), getOrganizationId(), getUsername());
+        return new DefaultSpaces(getCloudFoundryClientPublisher(), getOrganizationId(), getUsername(), getResourceIds());
     }
 
     @Override
@@ -162,6 +165,12 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
             .orElse(Mono.error(new IllegalStateException("DopplerClient must be set")));
     }
 
+    /**
+     * The file in which the fingerprints of pushed files are cached between runs.  If not set, fingerprints are only cached in memory.
+     */
+    @Nullable
+    abstract Path getFingerprintCacheLocation();
+
     /**
      * The organization to target
      */
@@ -177,6 +186,18 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
             .orElse(Mono.error(new IllegalStateException("No organization targeted")));
     }
 
+    /**
+     * The cache of resource ids shared by the operations.  If not set, resource ids are not cached.
+     */
+    @Nullable
+    abstract ResourceIdCache getResourceIdCache();
+
+    @Value.Derived
+    ResourceIdCache getResourceIds() {
+        return Optional.ofNullable(getResourceIdCache())
+            .orElse(ResourceIdCache.disabled());
+    }
+
     /**
      * The space to target
      */
@@ -202,6 +202,14 @@ public interface Applications {
      */
     Mono<Void> stop(StopApplicationRequest request);
 
+    /**
+     * Tail the logs of several applications, merged into a single time-ordered stream
+     *
+     * @param request the tail logs request
+     * @return the applications logs
+     */
+    Flux<ApplicationLog> tailLogs(TailLogsRequest request);
+
     /**
      * Unset an environment variable of an application
      *
@@ -37,6 +37,7 @@ import org.cloudfoundry.client.v2.applications.GetApplicationResponse;
 import org.cloudfoundry.client.v2.applications.InstanceStatistics;
 import org.cloudfoundry.client.v2.applications.ListApplicationServiceBindingsRequest;
 import org.cloudfoundry.client.v2.applications.RemoveApplicationServiceBindingRequest;
+import org.cloudfoundry.client.v2.applications.Resource;
 import org.cloudfoundry.client.v2.applications.RestageApplicationResponse;
 import org.cloudfoundry.client.v2.applications.Statistics;
 import org.cloudfoundry.client.v2.applications.SummaryApplicationRequest;
@@ -56,6 +57,8 @@ import org.cloudfoundry.client.v2.organizations.ListOrganizationSpacesRequest;
 import org.cloudfoundry.client.v2.organizations.ListOrganizationsRequest;
 import org.cloudfoundry.client.v2.organizations.OrganizationResource;
 import org.cloudfoundry.client.v2.privatedomains.PrivateDomainResource;
+import org.cloudfoundry.client.v2.resourcematch.ListMatchingResourcesRequest;
+import org.cloudfoundry.client.v2.resourcematch.ListMatchingResourcesResponse;
 import org.cloudfoundry.client.v2.routes.CreateRouteResponse;
 import org.cloudfoundry.client.v2.routes.DeleteRouteRequest;
 import org.cloudfoundry.client.v2.routes.DeleteRouteResponse;
@@ -80,9 +83,11 @@ import org.cloudfoundry.client.v2.stacks.StackResource;
 import org.cloudfoundry.doppler.DopplerClient;
 import org.cloudfoundry.doppler.Envelope;
 import org.cloudfoundry.doppler.EventType;
+import org.cloudfoundry.doppler.FirehoseRequest;
 import org.cloudfoundry.doppler.LogMessage;
 import org.cloudfoundry.doppler.RecentLogsRequest;
 import org.cloudfoundry.doppler.StreamRequest;
+import org.cloudfoundry.operations.ResourceIdCache;
 import org.cloudfoundry.util.DateUtils;
 import org.cloudfoundry.util.DelayTimeoutException;
 import org.cloudfoundry.util.ExceptionUtils;
@@ -95,6 +100,7 @@ import org.cloudfoundry.util.ResourceUtils;
 import org.cloudfoundry.util.SortingUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.util.function.Tuple2;
 import reactor.util.function.Tuple6;
 import reactor.util.function.Tuples;
@@ -110,17 +116,24 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
+import static org.cloudfoundry.operations.ResourceIdCache.Type.APPLICATION;
 import static org.cloudfoundry.util.DelayUtils.exponentialBackOff;
 import static org.cloudfoundry.util.tuple.TupleUtils.function;
 import static org.cloudfoundry.util.tuple.TupleUtils.predicate;
 
 public final class DefaultApplications implements Applications {
 
+    private static final Comparator<ApplicationLog> APPLICATION_LOG_COMPARATOR = (a, b) -> a.getLogMessage().getTimestamp().compareTo(b.getLogMessage().getTimestamp());
+
     private static final int CF_APP_STOPPED_STATS_ERROR = 200003;
 
     private static final int CF_INSTANCES_ERROR = 220001;
@@ -141,20 +154,41 @@ public final class DefaultApplications implements Applications {
 
     private final Mono<DopplerClient> dopplerClient;
 
-    private final Function<Path, InputStream> pathTransformer;
+    private final Function<Path, List<Resource>> fingerprinter;
+
+    private final BiFunction<Path, Set<String>, InputStream> pathTransformer;
 
     private final RandomWords randomWords;
 
+    private final ResourceIdCache resourceIdCache;
+
     private final Mono<String> spaceId;
 
     public DefaultApplications(Mono<CloudFoundryClient> cloudFoundryClient, Mono<DopplerClient> dopplerClient, Mono<String> spaceId) {
-        this(cloudFoundryClient, dopplerClient, FileUtils::toInputStream, spaceId, new WordListRandomWords());
+        this(cloudFoundryClient, dopplerClient, spaceId, ResourceIdCache.disabled());
+    }
+
+    public DefaultApplications(Mono<CloudFoundryClient> cloudFoundryClient, Mono<DopplerClient> dopplerClient, Mono<String> spaceId, ResourceIdCache resourceIdCache) {
+        this(cloudFoundryClient, dopplerClient, new ResourceFingerprinter(), DefaultApplications::toInputStream, resourceIdCache, spaceId, new WordListRandomWords());
+    }
+
+    public DefaultApplications(Mono<CloudFoundryClient> cloudFoundryClient, Mono<DopplerClient> dopplerClient, Mono<String> spaceId, ResourceIdCache resourceIdCache,
+                               Path fingerprintCacheLocation) {
+        this(cloudFoundryClient, dopplerClient, new ResourceFingerprinter(fingerprintCacheLocation), DefaultApplications::toInputStream, resourceIdCache, spaceId, new WordListRandomWords());
     }
 
-    DefaultApplications(Mono<CloudFoundryClient> cloudFoundryClient, Mono<DopplerClient> dopplerClient, Function<Path, InputStream> pathTransformer, Mono<String> spaceId, RandomWords randomWords) {
+    DefaultApplications(Mono<CloudFoundryClient> cloudFoundryClient, Mono<DopplerClient> dopplerClient, Function<Path, List<Resource>> fingerprinter,
+                        BiFunction<Path, Set<String>, InputStream> pathTransformer, Mono<String> spaceId, RandomWords randomWords) {
+        this(cloudFoundryClient, dopplerClient, fingerprinter, pathTransformer, ResourceIdCache.disabled(), spaceId, randomWords);
+    }
+
+    DefaultApplications(Mono<CloudFoundryClient> cloudFoundryClient, Mono<DopplerClient> dopplerClient, Function<Path, List<Resource>> fingerprinter,
+                        BiFunction<Path, Set<String>, InputStream> pathTransformer, ResourceIdCache resourceIdCache, Mono<String> spaceId, RandomWords randomWords) {
         this.cloudFoundryClient = cloudFoundryClient;
         this.dopplerClient = dopplerClient;
+        this.fingerprinter = fingerprinter;
         this.pathTransformer = pathTransformer;
+        this.resourceIdCache = resourceIdCache;
         this.spaceId = spaceId;
         this.randomWords = randomWords;
     }
@@ -165,7 +199,7 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId),
+                getCachedApplicationId(cloudFoundryClient, request.getName(), spaceId),
                 getApplicationIdFromOrgSpace(cloudFoundryClient, request.getTargetName(), spaceId, request.getTargetOrganization(), request.getTargetSpace())
             )))
             .then(function((cloudFoundryClient, sourceApplicationId, targetApplicationId) -> copyBits(cloudFoundryClient, sourceApplicationId, targetApplicationId)
@@ -185,7 +219,8 @@ public final class DefaultApplications implements Applications {
                 .then(Mono.just(Tuples.of(cloudFoundryClient, applicationId)))))
             .then(function((cloudFoundryClient, applicationId) -> removeServiceBindings(cloudFoundryClient, applicationId)
                 .then(Mono.just(Tuples.of(cloudFoundryClient, applicationId)))))
-            .then(function(DefaultApplications::requestDeleteApplication));
+            .then(function(DefaultApplications::requestDeleteApplication))
+            .doOnSuccess(v -> this.resourceIdCache.invalidate(APPLICATION, request.getName()));
     }
 
     @Override
@@ -230,7 +265,7 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getCachedApplicationId(cloudFoundryClient, request.getName(), spaceId)
             )))
             .then(function((cloudFoundryClient, applicationId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
@@ -249,7 +284,7 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getCachedApplicationId(cloudFoundryClient, request.getName(), spaceId)
             )))
             .then(function(DefaultApplications::requestApplicationEnvironment))
             .map(DefaultApplications::toApplicationEnvironments);
@@ -261,7 +296,7 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getCachedApplicationId(cloudFoundryClient, request.getName(), spaceId)
             )))
             .flatMap(function((cloudFoundryClient, applicationId) -> requestEvents(applicationId, cloudFoundryClient)
                 .take(Optional.ofNullable(request.getMaxNumberOfEvents()).orElse(MAX_NUMBER_OF_RECENT_EVENTS))))
@@ -289,7 +324,7 @@ public final class DefaultApplications implements Applications {
     public Flux<LogMessage> logs(LogsRequest request) {
         return Mono
             .when(this.cloudFoundryClient, this.spaceId)
-            .then(function((cloudFoundryClient, spaceId) -> getApplicationId(cloudFoundryClient, request.getName(), spaceId)))
+            .then(function((cloudFoundryClient, spaceId) -> getCachedApplicationId(cloudFoundryClient, request.getName(), spaceId)))
             .flatMap(applicationId -> getLogs(this.dopplerClient, applicationId, request.getRecent()));
     }
 
@@ -305,12 +340,13 @@ public final class DefaultApplications implements Applications {
                 .then(function((cloudFoundryClient, spaceId, stackId) -> Mono.when(
                     Mono.just(cloudFoundryClient),
                     getApplicationId(cloudFoundryClient, request, spaceId, stackId.orElse(null)),
-                    Mono.just(this.pathTransformer.apply(request.getApplication())),
+                    Mono.fromCallable(() -> this.fingerprinter.apply(request.getApplication()))
+                        .subscribeOn(Schedulers.elastic()),
                     Mono.just(spaceId)
                 )))
-                .then(function((cloudFoundryClient, applicationId, inputStream, spaceId) -> prepareDomainsAndRoutes(cloudFoundryClient, request, applicationId, spaceId, this.randomWords)
-                    .then(Mono.just(Tuples.of(cloudFoundryClient, applicationId, inputStream)))))
-                .then(function((cloudFoundryClient, applicationId, inputStream) -> uploadApplicationAndWait(cloudFoundryClient, applicationId, inputStream)
+                .then(function((cloudFoundryClient, applicationId, resources, spaceId) -> prepareDomainsAndRoutes(cloudFoundryClient, request, applicationId, spaceId, this.randomWords)
+                    .then(Mono.just(Tuples.of(cloudFoundryClient, applicationId, resources)))))
+                .then(function((cloudFoundryClient, applicationId, resources) -> uploadApplicationAndWait(cloudFoundryClient, applicationId, request.getApplication(), resources, this.pathTransformer)
                     .then(Mono.just(Tuples.of(cloudFoundryClient, applicationId)))))
                 .then(function((cloudFoundryClient, applicationId) -> stopAndStartApplication(cloudFoundryClient, applicationId, request)));
         } else if (request.getDockerImage() != null) {
@@ -339,10 +375,11 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getCachedApplicationId(cloudFoundryClient, request.getName(), spaceId)
             )))
             .then(function((cloudFoundryClient, applicationId) -> requestUpdateApplicationName(cloudFoundryClient, applicationId, request.getNewName())))
-            .then();
+            .then()
+            .doOnSuccess(v -> this.resourceIdCache.invalidate(APPLICATION, request.getName()));
     }
 
     @Override
@@ -351,7 +388,7 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getCachedApplicationId(cloudFoundryClient, request.getName(), spaceId)
             )))
             .then(function((cloudFoundryClient, applicationId) -> restageApplication(cloudFoundryClient, request.getName(), applicationId, request.getStagingTimeout(), request.getStartupTimeout())));
     }
@@ -378,7 +415,7 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getCachedApplicationId(cloudFoundryClient, request.getName(), spaceId)
             )))
             .then(function((cloudFoundryClient, applicationId) -> requestTerminateApplicationInstance(cloudFoundryClient, applicationId, String.valueOf(request.getInstanceIndex()))));
     }
@@ -390,7 +427,7 @@ public final class DefaultApplications implements Applications {
             .filter(predicate((cloudFoundryClient, spaceId) -> areModifiersPresent(request)))
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getCachedApplicationId(cloudFoundryClient, request.getName(), spaceId)
             )))
             .then(function((cloudFoundryClient, applicationId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
@@ -420,7 +457,7 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getCachedApplicationId(cloudFoundryClient, request.getName(), spaceId)
             )))
             .then(function((cloudFoundryClient, applicationId) -> requestUpdateApplicationHealthCheckType(cloudFoundryClient, applicationId, request.getType())))
             .then();
@@ -458,6 +495,14 @@ public final class DefaultApplications implements Applications {
             .then();
     }
 
+    @Override
+    public Flux<ApplicationLog> tailLogs(TailLogsRequest request) {
+        return Mono
+            .when(this.cloudFoundryClient, this.spaceId)
+            .then(function((cloudFoundryClient, spaceId) -> getApplicationNames(cloudFoundryClient, request.getNames(), spaceId)))
+            .flatMap(applicationNames -> getTailLogs(this.dopplerClient, applicationNames, request.getFirehose()));
+    }
+
     @Override
     public Mono<Void> unsetEnvironmentVariable(UnsetEnvironmentVariableApplicationRequest request) {
         return Mono
@@ -626,6 +671,21 @@ public final class DefaultApplications implements Applications {
             .otherwise(ExceptionUtils.statusCode(CF_STAGING_NOT_FINISHED), t -> Mono.just(ApplicationInstancesResponse.builder().build()));
     }
 
+    private static Mono<Map<String, String>> getApplicationNames(CloudFoundryClient cloudFoundryClient, Set<String> applications, String spaceId) {
+        return requestSpaceApplications(cloudFoundryClient, applications, spaceId)
+            .collectMap(ResourceUtils::getId, resource -> ResourceUtils.getEntity(resource).getName())
+            .then(applicationNames -> {
+                Set<String> missing = new TreeSet<>(applications);
+                missing.removeAll(applicationNames.values());
+
+                if (!missing.isEmpty()) {
+                    return ExceptionUtils.illegalArgument("Applications %s do not exist", String.join(", ", missing));
+                }
+
+                return Mono.just(applicationNames);
+            });
+    }
+
     private static Mono<ApplicationStatisticsResponse> getApplicationStatistics(CloudFoundryClient cloudFoundryClient, String applicationId) {
         return requestApplicationStatistics(cloudFoundryClient, applicationId)
             .otherwise(ExceptionUtils.statusCode(CF_APP_STOPPED_STATS_ERROR), t -> Mono.just(ApplicationStatisticsResponse.builder().build()));
@@ -691,6 +751,20 @@ public final class DefaultApplications implements Applications {
         }
     }
 
+    private static Mono<List<Resource>> getMatchedResources(CloudFoundryClient cloudFoundryClient, List<Resource> resources) {
+        if (resources.isEmpty()) {
+            return Mono.just(Collections.emptyList());
+        }
+
+        return requestListMatchingResources(cloudFoundryClient, resources)
+            .map(response -> response.getResources().stream()
+                .map(org.cloudfoundry.client.v2.resourcematch.Resource::getHash)
+                .collect(Collectors.toSet()))
+            .map(hashes -> resources.stream()
+                .filter(resource -> hashes.contains(resource.getHash()))
+                .collect(Collectors.toList()));
+    }
+
     @SuppressWarnings("unchecked")
     private static Map<String, Object> getMetadataRequest(EventEntity entity) {
         Map<String, Optional<Object>> metadata = Optional
@@ -803,6 +877,30 @@ public final class DefaultApplications implements Applications {
             .map(getStackResponse -> getStackResponse.getEntity().getName());
     }
 
+    private static Flux<ApplicationLog> getTailLogs(Mono<DopplerClient> dopplerClient, Map<String, String> applicationNames, Boolean firehose) {
+        if (applicationNames.isEmpty()) {
+            return Flux.empty();
+        }
+
+        Flux<Envelope> envelopes;
+        if (Optional.ofNullable(firehose).orElse(false)) {
+            envelopes = requestLogsFirehose(dopplerClient);
+        } else {
+            envelopes = Flux.fromIterable(applicationNames.keySet())
+                .flatMap(applicationId -> requestLogsStream(dopplerClient, applicationId), applicationNames.size());
+        }
+
+        return envelopes
+            .filter(e -> EventType.LOG_MESSAGE == e.getEventType())
+            .map(Envelope::getLogMessage)
+            .filter(logMessage -> applicationNames.containsKey(logMessage.getApplicationId()))
+            .map(logMessage -> ApplicationLog.builder()
+                .applicationName(applicationNames.get(logMessage.getApplicationId()))
+                .logMessage(logMessage)
+                .build())
+            .compose(SortingUtils.timespan(APPLICATION_LOG_COMPARATOR, LOG_MESSAGE_TIMESPAN));
+    }
+
     private static boolean isIdentical(String s, String t) {
         return s == null ? t == null : s.equals(t);
     }
@@ -991,6 +1089,27 @@ public final class DefaultApplications implements Applications {
                     .build()));
     }
 
+    private static Mono<ListMatchingResourcesResponse> requestListMatchingResources(CloudFoundryClient cloudFoundryClient, List<Resource> resources) {
+        return cloudFoundryClient.resourceMatch()
+            .list(ListMatchingResourcesRequest.builder()
+                .resources(resources.stream()
+                    .map(resource -> org.cloudfoundry.client.v2.resourcematch.Resource.builder()
+                        .hash(resource.getHash())
+                        .size(resource.getSize())
+                        .build())
+                    .collect(Collectors.toList()))
+                .build());
+    }
+
+    private static Flux<Envelope> requestLogsFirehose(Mono<DopplerClient> dopplerClient) {
+        return dopplerClient
+            .flatMap(client -> client
+                .firehose(FirehoseRequest.builder()
+                    .eventType(EventType.LOG_MESSAGE)
+                    .subscriptionId(UUID.randomUUID().toString())
+                    .build()));
+    }
+
     private static Flux<Envelope> requestLogsRecent(Mono<DopplerClient> dopplerClient, String applicationId) {
         return dopplerClient
             .flatMap(client -> client
@@ -1004,6 +1123,7 @@ public final class DefaultApplications implements Applications {
             .flatMap(client -> client
                 .stream(StreamRequest.builder()
                     .applicationId(applicationId)
+                    .eventType(EventType.LOG_MESSAGE)
                     .build()));
     }
 
@@ -1097,6 +1217,16 @@ public final class DefaultApplications implements Applications {
                 .build());
     }
 
+    private static Flux<ApplicationResource> requestSpaceApplications(CloudFoundryClient cloudFoundryClient, Set<String> applications, String spaceId) {
+        return PaginationUtils
+            .requestClientV2Resources(page -> cloudFoundryClient.spaces()
+                .listApplications(ListSpaceApplicationsRequest.builder()
+                    .names(applications)
+                    .spaceId(spaceId)
+                    .page(page)
+                    .build()));
+    }
+
     private static Mono<GetSpaceSummaryResponse> requestSpaceSummary(CloudFoundryClient cloudFoundryClient, String spaceId) {
         return cloudFoundryClient.spaces()
             .getSummary(GetSpaceSummaryRequest.builder()
@@ -1185,12 +1315,13 @@ public final class DefaultApplications implements Applications {
         return requestUpdateApplication(cloudFoundryClient, applicationId, builder -> builder.state(state));
     }
 
-    private static Mono<UploadApplicationResponse> requestUploadApplication(CloudFoundryClient cloudFoundryClient, String applicationId, InputStream application) {
+    private static Mono<UploadApplicationResponse> requestUploadApplication(CloudFoundryClient cloudFoundryClient, String applicationId, InputStream application, List<Resource> resources) {
         return cloudFoundryClient.applicationsV2()
             .upload(UploadApplicationRequest.builder()
                 .applicationId(applicationId)
                 .async(true)
                 .application(application)
+                .resources(resources)
                 .build());
     }
 
@@ -1316,6 +1447,11 @@ public final class DefaultApplications implements Applications {
         }
     }
 
+    private static InputStream toInputStream(Path application, Set<String> excludedPaths) {
+        Path root = FileUtils.normalize(application);
+        return FileUtils.toInputStream(root, path -> !excludedPaths.contains(FileUtils.getRelativePathName(root, path)));
+    }
+
     private static InstanceDetail toInstanceDetail(Map.Entry<String, ApplicationInstanceInfo> entry, ApplicationStatisticsResponse statisticsResponse) {
         InstanceStatistics instanceStatistics = Optional.ofNullable(statisticsResponse.getInstances().get(entry.getKey())).orElse(emptyInstanceStats());
         Statistics stats = Optional.ofNullable(instanceStatistics.getStatistics()).orElse(emptyApplicationStatistics());
@@ -1353,8 +1489,13 @@ public final class DefaultApplications implements Applications {
             .collectList();
     }
 
-    private static Mono<Void> uploadApplicationAndWait(CloudFoundryClient cloudFoundryClient, String applicationId, InputStream application) {
-        return requestUploadApplication(cloudFoundryClient, applicationId, application)
+    private static Mono<Void> uploadApplicationAndWait(CloudFoundryClient cloudFoundryClient, String applicationId, Path application, List<Resource> resources,
+                                                       BiFunction<Path, Set<String>, InputStream> pathTransformer) {
+
+        return getMatchedResources(cloudFoundryClient, resources)
+            .then(matchedResources -> requestUploadApplication(cloudFoundryClient, applicationId, pathTransformer.apply(application, matchedResources.stream()
+                .map(Resource::getPath)
+                .collect(Collectors.toSet())), matchedResources))
             .then(job -> JobUtils.waitForCompletion(cloudFoundryClient, job));
     }
 
@@ -1386,4 +1527,8 @@ public final class DefaultApplications implements Applications {
             .then();
     }
 
+    private Mono<String> getCachedApplicationId(CloudFoundryClient cloudFoundryClient, String application, String spaceId) {
+        return this.resourceIdCache.get(APPLICATION, spaceId, application, () -> getApplicationId(cloudFoundryClient, application, spaceId));
+    }
+
 }
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations.applications;
+
+import org.cloudfoundry.client.v2.applications.Resource;
+import org.cloudfoundry.util.FileUtils;
+import reactor.core.Exceptions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Computes the SHA1 fingerprints of the files in an application.  Fingerprints are cached keyed by the URI, size, and last modified time of each file so that unchanged files are not rehashed on
+ * subsequent pushes.  The cache holds at most {@code maximumEntries} fingerprints, evicting the least recently used.  By default the cache is held in memory only.  If a cache location is
+ * configured, the cache is also persisted there, private to the user, and is replaced atomically when it changes.  Files larger than {@link Integer#MAX_VALUE} bytes cannot be described to resource matching, so they are not fingerprinted and are always uploaded.
+ */
+final class ResourceFingerprinter implements Function<Path, List<Resource>> {
+
+    static final int DEFAULT_MAXIMUM_ENTRIES = 50_000;
+
+    private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
+
+    private static final long LAST_USED_GRANULARITY = Duration.ofDays(1).toMillis();
+
+    private final Optional<Path> cacheLocation;
+
+    private final int maximumEntries;
+
+    private final Object monitor = new Object();
+
+    private Properties cache;
+
+    ResourceFingerprinter() {
+        this(Optional.empty(), DEFAULT_MAXIMUM_ENTRIES);
+    }
+
+    ResourceFingerprinter(Path cacheLocation) {
+        this(Optional.of(cacheLocation), DEFAULT_MAXIMUM_ENTRIES);
+    }
+
+    ResourceFingerprinter(Optional<Path> cacheLocation, int maximumEntries) {
+        this.cacheLocation = cacheLocation;
+        this.maximumEntries = maximumEntries;
+    }
+
+    @Override
+    public List<Resource> apply(Path application) {
+        Path root = FileUtils.normalize(application);
+
+        synchronized (this.monitor) {
+            Properties cache = getCache();
+            long now = System.currentTimeMillis();
+            boolean[] modified = new boolean[1];
+
+            try (Stream<Path> contents = Files.walk(root)) {
+                List<Resource> resources = contents
+                    .filter(Files::isRegularFile)
+                    .map(path -> toResource(cache, root, path, now, modified))
+                    .filter(Optional::isPresent)
+                    .map(Optional::get)
+                    .collect(Collectors.toList());
+
+                if (modified[0]) {
+                    evict(cache, this.maximumEntries);
+                    this.cacheLocation.ifPresent(cacheLocation -> store(cacheLocation, cache));
+                }
+
+                return resources;
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+        }
+    }
+
+    /**
+     * Removes the least recently used fingerprints from a cache until it holds at most {@code maximumEntries} fingerprints
+     */
+    static void evict(Properties cache, int maximumEntries) {
+        int excess = cache.size() - maximumEntries;
+        if (excess <= 0) {
+            return;
+        }
+
+        cache.entrySet().stream()
+            .map(entry -> new CacheEntry((String) entry.getKey(), CacheValue.parse((String) entry.getValue())))
+            .sorted(Comparator.comparingLong(entry -> entry.value.map(value -> value.lastUsed).orElse(Long.MIN_VALUE)))
+            .limit(excess)
+            .collect(Collectors.toList())
+            .forEach(entry -> cache.remove(entry.key));
+    }
+
+    private static String hash(Path path) {
+        try (InputStream in = Files.newInputStream(path)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, length);
+            }
+
+            return toHex(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    /**
+     * Writes the cache to a private temporary file beside the cache location and moves it into place, so that a concurrent reader never sees a partially written cache
+     */
+    private static void store(Path cacheLocation, Properties cache) {
+        Path temporary = null;
+
+        try {
+            Path directory = cacheLocation.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+
+            try {
+                temporary = Files.createTempFile(directory, "fingerprints", ".tmp", PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+            } catch (UnsupportedOperationException e) {
+                temporary = Files.createTempFile(directory, "fingerprints", ".tmp");
+            }
+
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                cache.store(out, null);
+            }
+
+            try {
+                Files.move(temporary, cacheLocation, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, cacheLocation, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // An unwritable cache only means that every file is rehashed on the next push
+        } finally {
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException e) {
+                    // The temporary file is abandoned
+                }
+            }
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX_CHARS[(bytes[i] >> 4) & 0x0f];
+            chars[i * 2 + 1] = HEX_CHARS[bytes[i] & 0x0f];
+        }
+
+        return new String(chars);
+    }
+
+    private static Optional<Resource> toResource(Properties cache, Path root, Path path, long now, boolean[] modified) {
+        try {
+            long size = Files.size(path);
+            if (size > Integer.MAX_VALUE) {
+                return Optional.empty();
+            }
+
+            long lastModified = Files.getLastModifiedTime(path).toMillis();
+            String key = path.toUri().toString();
+
+            Optional<CacheValue> cached = CacheValue.parse(cache.getProperty(key))
+                .filter(value -> value.size == size && value.lastModified == lastModified);
+
+            String hash = cached
+                .map(value -> value.hash)
+                .orElseGet(() -> hash(path));
+
+            if (!cached.filter(value -> now - value.lastUsed < LAST_USED_GRANULARITY).isPresent()) {  // Recency is only refreshed daily so that unchanged files do not rewrite the cache
+                cache.setProperty(key, new CacheValue(size, lastModified, now, hash).toString());
+                modified[0] = true;
+            }
+
+            return Optional.of(Resource.builder()
+                .hash(hash)
+                .mode(Integer.toOctalString(FileUtils.getUnixMode(path)))
+                .path(FileUtils.getRelativePathName(root, path))
+                .size((int) size)
+                .build());
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private Properties getCache() {
+        if (this.cache == null) {
+            this.cache = new Properties();
+
+            this.cacheLocation
+                .filter(Files::exists)
+                .ifPresent(cacheLocation -> {
+                    try (InputStream in = Files.newInputStream(cacheLocation)) {
+                        this.cache.load(in);
+                    } catch (IOException e) {
+                        this.cache.clear();  // An unreadable cache only means that every file is rehashed
+                    }
+                });
+        }
+
+        return this.cache;
+    }
+
+    private static final class CacheEntry {
+
+        private final String key;
+
+        private final Optional<CacheValue> value;
+
+        private CacheEntry(String key, Optional<CacheValue> value) {
+            this.key = key;
+            this.value = value;
+        }
+
+    }
+
+    private static final class CacheValue {
+
+        private final String hash;
+
+        private final long lastModified;
+
+        private final long lastUsed;
+
+        private final long size;
+
+        private CacheValue(long size, long lastModified, long lastUsed, String hash) {
+            this.hash = hash;
+            this.lastModified = lastModified;
+            this.lastUsed = lastUsed;
+            this.size = size;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d:%d:%d:%s", this.size, this.lastModified, this.lastUsed, this.hash);
+        }
+
+        private static Optional<CacheValue> parse(String value) {
+            if (value == null) {
+                return Optional.empty();
+            }
+
+            String[] parts = value.split(":");
+            if (parts.length != 4) {
+                return Optional.empty();
+            }
+
+            try {
+                return Optional.of(new CacheValue(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]), parts[3]));
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        }
+
+    }
+
+}
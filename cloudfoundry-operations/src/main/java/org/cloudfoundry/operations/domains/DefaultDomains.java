@@ -31,6 +31,7 @@ import org.cloudfoundry.client.v2.shareddomains.CreateSharedDomainResponse;
 import org.cloudfoundry.client.v2.shareddomains.ListSharedDomainsRequest;
 import org.cloudfoundry.client.v2.shareddomains.SharedDomainEntity;
 import org.cloudfoundry.client.v2.shareddomains.SharedDomainResource;
+import org.cloudfoundry.operations.ResourceIdCache;
 import org.cloudfoundry.util.ExceptionUtils;
 import org.cloudfoundry.util.PaginationUtils;
 import org.cloudfoundry.util.ResourceUtils;
@@ -39,14 +40,24 @@ import reactor.core.publisher.Mono;
 
 import java.util.NoSuchElementException;
 
+import static org.cloudfoundry.operations.ResourceIdCache.Type.DOMAIN;
 import static org.cloudfoundry.util.tuple.TupleUtils.function;
 
 public final class DefaultDomains implements Domains {
 
+    private static final String PRIVATE_DOMAIN_SCOPE = "private";
+
     private final Mono<CloudFoundryClient> cloudFoundryClient;
 
+    private final ResourceIdCache resourceIdCache;
+
     public DefaultDomains(Mono<CloudFoundryClient> cloudFoundryClient) {
+        this(cloudFoundryClient, ResourceIdCache.disabled());
+    }
+
+    public DefaultDomains(Mono<CloudFoundryClient> cloudFoundryClient, ResourceIdCache resourceIdCache) {
         this.cloudFoundryClient = cloudFoundryClient;
+        this.resourceIdCache = resourceIdCache;
     }
 
     public Mono<Void> create(CreateDomainRequest request) {
@@ -56,14 +67,16 @@ public final class DefaultDomains implements Domains {
                 getOrganizationId(cloudFoundryClient, request.getOrganization())
             ))
             .then(function((cloudFoundryClient, organizationId) -> requestCreateDomain(cloudFoundryClient, request.getDomain(), organizationId)))
-            .then();
+            .then()
+            .doOnSuccess(v -> this.resourceIdCache.invalidate(DOMAIN, request.getDomain()));
     }
 
     @Override
     public Mono<Void> createShared(CreateSharedDomainRequest request) {
         return this.cloudFoundryClient
             .then(cloudFoundryClient -> requestCreateSharedDomain(cloudFoundryClient, request.getDomain()))
-            .then();
+            .then()
+            .doOnSuccess(v -> this.resourceIdCache.invalidate(DOMAIN, request.getDomain()));
     }
 
     @Override
@@ -80,11 +93,12 @@ public final class DefaultDomains implements Domains {
         return this.cloudFoundryClient
             .then(cloudFoundryClient -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getPrivateDomainId(cloudFoundryClient, request.getDomain()),
+                getCachedPrivateDomainId(cloudFoundryClient, request.getDomain()),
                 getOrganizationId(cloudFoundryClient, request.getOrganization())
             ))
             .then(function(DefaultDomains::requestAssociateOrganizationPrivateDomainRequest))
-            .then();
+            .then()
+            .doOnSuccess(v -> this.resourceIdCache.invalidate(DOMAIN, request.getDomain()));
     }
 
     @Override
@@ -92,10 +106,11 @@ public final class DefaultDomains implements Domains {
         return this.cloudFoundryClient
             .then(cloudFoundryClient -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getPrivateDomainId(cloudFoundryClient, request.getDomain()),
+                getCachedPrivateDomainId(cloudFoundryClient, request.getDomain()),
                 getOrganizationId(cloudFoundryClient, request.getOrganization())
             ))
-            .then(function(DefaultDomains::requestRemoveOrganizationPrivateDomainRequest));
+            .then(function(DefaultDomains::requestRemoveOrganizationPrivateDomainRequest))
+            .doOnSuccess(v -> this.resourceIdCache.invalidate(DOMAIN, request.getDomain()));
     }
 
     private static Mono<OrganizationResource> getOrganization(CloudFoundryClient cloudFoundryClient, String organization) {
@@ -205,4 +220,8 @@ public final class DefaultDomains implements Domains {
             .build();
     }
 
+    private Mono<String> getCachedPrivateDomainId(CloudFoundryClient cloudFoundryClient, String domain) {
+        return this.resourceIdCache.get(DOMAIN, PRIVATE_DOMAIN_SCOPE, domain, () -> getPrivateDomainId(cloudFoundryClient, domain));
+    }
+
 }
@@ -21,10 +21,14 @@ import org.cloudfoundry.client.v2.Resource;
 import org.cloudfoundry.client.v2.applications.ApplicationResource;
 import org.cloudfoundry.client.v2.applications.AssociateApplicationRouteRequest;
 import org.cloudfoundry.client.v2.applications.AssociateApplicationRouteResponse;
+import org.cloudfoundry.client.v2.applications.ListApplicationsRequest;
 import org.cloudfoundry.client.v2.applications.RemoveApplicationRouteRequest;
 import org.cloudfoundry.client.v2.organizations.ListOrganizationPrivateDomainsRequest;
 import org.cloudfoundry.client.v2.organizations.ListOrganizationSpacesRequest;
 import org.cloudfoundry.client.v2.privatedomains.PrivateDomainResource;
+import org.cloudfoundry.client.v2.routemappings.ListRouteMappingsRequest;
+import org.cloudfoundry.client.v2.routemappings.RouteMappingEntity;
+import org.cloudfoundry.client.v2.routemappings.RouteMappingResource;
 import org.cloudfoundry.client.v2.routes.CreateRouteResponse;
 import org.cloudfoundry.client.v2.routes.DeleteRouteResponse;
 import org.cloudfoundry.client.v2.routes.ListRouteApplicationsRequest;
@@ -36,6 +40,7 @@ import org.cloudfoundry.client.v2.shareddomains.SharedDomainResource;
 import org.cloudfoundry.client.v2.spaces.ListSpaceApplicationsRequest;
 import org.cloudfoundry.client.v2.spaces.ListSpaceRoutesRequest;
 import org.cloudfoundry.client.v2.spaces.SpaceResource;
+import org.cloudfoundry.operations.ResourceIdCache;
 import org.cloudfoundry.util.ExceptionUtils;
 import org.cloudfoundry.util.JobUtils;
 import org.cloudfoundry.util.OperationUtils;
@@ -45,27 +50,43 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuples;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.function.UnaryOperator;
 
+import static org.cloudfoundry.operations.ResourceIdCache.Type.APPLICATION;
+import static org.cloudfoundry.operations.ResourceIdCache.Type.DOMAIN;
+import static org.cloudfoundry.operations.ResourceIdCache.Type.SPACE;
 import static org.cloudfoundry.util.tuple.TupleUtils.function;
 import static org.cloudfoundry.util.tuple.TupleUtils.predicate;
 
 public final class DefaultRoutes implements Routes {
 
+    private static final int FILTER_BATCH_SIZE = 50;
+
+    private static final int MAXIMUM_CONCURRENCY = 4;
+
     private final Mono<CloudFoundryClient> cloudFoundryClient;
 
     private final Mono<String> organizationId;
 
+    private final ResourceIdCache resourceIdCache;
+
     private final Mono<String> spaceId;
 
     public DefaultRoutes(Mono<CloudFoundryClient> cloudFoundryClient, Mono<String> organizationId, Mono<String> spaceId) {
+        this(cloudFoundryClient, organizationId, spaceId, ResourceIdCache.disabled());
+    }
+
+    public DefaultRoutes(Mono<CloudFoundryClient> cloudFoundryClient, Mono<String> organizationId, Mono<String> spaceId, ResourceIdCache resourceIdCache) {
         this.cloudFoundryClient = cloudFoundryClient;
         this.organizationId = organizationId;
+        this.resourceIdCache = resourceIdCache;
         this.spaceId = spaceId;
     }
 
@@ -89,8 +110,8 @@ public final class DefaultRoutes implements Routes {
             .then(function((cloudFoundryClient, organizationId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getSpaceId(cloudFoundryClient, organizationId, request.getSpace()),
-                    getDomainId(cloudFoundryClient, organizationId, request.getDomain())
+                    getCachedSpaceId(cloudFoundryClient, organizationId, request.getSpace()),
+                    getCachedDomainId(cloudFoundryClient, organizationId, request.getDomain())
                 )))
             .then(function((cloudFoundryClient, spaceId, domainId) -> requestCreateRoute(cloudFoundryClient, domainId, request.getHost(), request.getPath(), spaceId)))
             .then();
@@ -103,7 +124,7 @@ public final class DefaultRoutes implements Routes {
             .then(function((cloudFoundryClient, organizationId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getDomainId(cloudFoundryClient, organizationId, request.getDomain())
+                    getCachedDomainId(cloudFoundryClient, organizationId, request.getDomain())
                 )))
             .then(function((cloudFoundryClient, domainId) -> Mono
                 .when(
@@ -135,13 +156,23 @@ public final class DefaultRoutes implements Routes {
                 .when(
                     Mono.just(cloudFoundryClient),
                     getAllDomains(cloudFoundryClient, organizationId),
-                    getAllSpaces(cloudFoundryClient, organizationId)
+                    getAllSpaces(cloudFoundryClient, organizationId),
+                    getRoutes(cloudFoundryClient, request, this.organizationId, this.spaceId)
+                        .collectList()
                 )))
-            .flatMap(function((cloudFoundryClient, domains, spaces) -> getRoutes(cloudFoundryClient, request, this.organizationId, this.spaceId)
-                .map(resource -> Tuples.of(cloudFoundryClient, domains, resource, spaces))))
-            .flatMap(function((cloudFoundryClient, domains, resource, spaces) -> Mono
+            .then(function((cloudFoundryClient, domains, spaces, routes) -> Mono
                 .when(
-                    getApplicationNames(cloudFoundryClient, ResourceUtils.getId(resource)),
+                    Mono.just(domains),
+                    getRouteApplicationNames(cloudFoundryClient, routes),
+                    Mono.just(routes),
+                    Mono.just(spaces)
+                )))
+            .flatMap(function((domains, routeApplicationNames, routes, spaces) -> Flux
+                .fromIterable(routes)
+                .map(resource -> Tuples.of(domains, routeApplicationNames, resource, spaces))))
+            .flatMap(function((domains, routeApplicationNames, resource, spaces) -> Mono
+                .when(
+                    Mono.just(routeApplicationNames.getOrDefault(ResourceUtils.getId(resource), Collections.emptyList())),
                     getDomainName(domains, ResourceUtils.getEntity(resource).getDomainId()),
                     Mono.just(resource),
                     getSpaceName(spaces, ResourceUtils.getEntity(resource).getSpaceId())
@@ -157,7 +188,7 @@ public final class DefaultRoutes implements Routes {
                 .when(
                     Mono.just(cloudFoundryClient),
                     getOrCreateRoute(cloudFoundryClient, organizationId, spaceId, request.getDomain(), request.getHost(), request.getPath()),
-                    getApplicationId(cloudFoundryClient, request.getApplicationName(), spaceId)
+                    getCachedApplicationId(cloudFoundryClient, request.getApplicationName(), spaceId)
                 )))
             .then(function((cloudFoundryClient, routeId, applicationId) -> requestAssociateRoute(cloudFoundryClient, applicationId, routeId)))
             .then();
@@ -170,8 +201,8 @@ public final class DefaultRoutes implements Routes {
             .then(function((cloudFoundryClient, organizationId, spaceId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getApplicationId(cloudFoundryClient, request.getApplicationName(), spaceId),
-                    getDomainId(cloudFoundryClient, organizationId, request.getDomain())
+                    getCachedApplicationId(cloudFoundryClient, request.getApplicationName(), spaceId),
+                    getCachedDomainId(cloudFoundryClient, organizationId, request.getDomain())
                         .then(domainId -> getRouteId(cloudFoundryClient, request.getHost(), request.getDomain(), domainId, request.getPath()))
                 )))
             .then(function(DefaultRoutes::requestRemoveRouteFromApplication));
@@ -207,12 +238,6 @@ public final class DefaultRoutes implements Routes {
             .map(ResourceUtils::getId);
     }
 
-    private static Mono<List<String>> getApplicationNames(CloudFoundryClient cloudFoundryClient, String routeId) {
-        return requestApplications(cloudFoundryClient, routeId)
-            .map(resource -> ResourceUtils.getEntity(resource).getName())
-            .collectList();
-    }
-
     private static Mono<List<ApplicationResource>> getApplications(CloudFoundryClient cloudFoundryClient, String routeId) {
         return requestApplications(cloudFoundryClient, routeId)
             .collectList();
@@ -266,6 +291,33 @@ public final class DefaultRoutes implements Routes {
             .singleOrEmpty();
     }
 
+    /**
+     * Returns the names of the applications mapped to each of a collection of routes.  Rather than listing the applications of each route, the route mappings and applications are listed in
+     * batches and joined in memory.
+     */
+    private static Mono<Map<String, List<String>>> getRouteApplicationNames(CloudFoundryClient cloudFoundryClient, List<RouteResource> routes) {
+        if (routes.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+
+        return Mono
+            .when(
+                Flux.fromIterable(routes)
+                    .map(ResourceUtils::getId)
+                    .buffer(FILTER_BATCH_SIZE)
+                    .flatMap(routeIds -> requestRouteMappings(cloudFoundryClient, routeIds), MAXIMUM_CONCURRENCY)
+                    .map(ResourceUtils::getEntity)
+                    .collectList(),
+                Flux.fromIterable(routes)
+                    .map(resource -> ResourceUtils.getEntity(resource).getSpaceId())
+                    .distinct()
+                    .buffer(FILTER_BATCH_SIZE)
+                    .flatMap(spaceIds -> requestApplications(cloudFoundryClient, spaceIds), MAXIMUM_CONCURRENCY)
+                    .collectMap(ResourceUtils::getId, resource -> ResourceUtils.getEntity(resource).getName())
+            )
+            .map(function(DefaultRoutes::toRouteApplicationNames));
+    }
+
     private static Mono<String> getRouteId(CloudFoundryClient cloudFoundryClient, String host, String domain, String domainId, String path) {
         return getRoute(cloudFoundryClient, domainId, domain, host, path)
             .map(ResourceUtils::getId);
@@ -343,6 +395,15 @@ public final class DefaultRoutes implements Routes {
                     .build()));
     }
 
+    private static Flux<ApplicationResource> requestApplications(CloudFoundryClient cloudFoundryClient, List<String> spaceIds) {
+        return PaginationUtils
+            .requestClientV2Resources(page -> cloudFoundryClient.applicationsV2()
+                .list(ListApplicationsRequest.builder()
+                    .page(page)
+                    .spaceIds(spaceIds)
+                    .build()));
+    }
+
     private static Flux<ApplicationResource> requestApplications(CloudFoundryClient cloudFoundryClient, String application, String spaceId) {
         return PaginationUtils
             .requestClientV2Resources(page -> cloudFoundryClient.spaces()
@@ -406,6 +467,15 @@ public final class DefaultRoutes implements Routes {
                 .build());
     }
 
+    private static Flux<RouteMappingResource> requestRouteMappings(CloudFoundryClient cloudFoundryClient, List<String> routeIds) {
+        return PaginationUtils
+            .requestClientV2Resources(page -> cloudFoundryClient.routeMappings()
+                .list(ListRouteMappingsRequest.builder()
+                    .page(page)
+                    .routeIds(routeIds)
+                    .build()));
+    }
+
     private static Flux<RouteResource> requestRoutes(CloudFoundryClient cloudFoundryClient, UnaryOperator<org.cloudfoundry.client.v2.routes.ListRoutesRequest.Builder> modifier) {
 
         org.cloudfoundry.client.v2.routes.ListRoutesRequest.Builder listBuilder = modifier.apply(org.cloudfoundry.client.v2.routes.ListRoutesRequest.builder());
@@ -466,4 +536,30 @@ public final class DefaultRoutes implements Routes {
             .build();
     }
 
+    private static Map<String, List<String>> toRouteApplicationNames(List<RouteMappingEntity> routeMappings, Map<String, String> applicationNames) {
+        Map<String, List<String>> routeApplicationNames = new HashMap<>();
+
+        routeMappings.forEach(routeMapping -> Optional.ofNullable(applicationNames.get(routeMapping.getApplicationId()))
+            .ifPresent(applicationName -> {
+                List<String> names = routeApplicationNames.computeIfAbsent(routeMapping.getRouteId(), routeId -> new ArrayList<>());
+                if (!names.contains(applicationName)) {
+                    names.add(applicationName);
+                }
+            }));
+
+        return routeApplicationNames;
+    }
+
+    private Mono<String> getCachedApplicationId(CloudFoundryClient cloudFoundryClient, String application, String spaceId) {
+        return this.resourceIdCache.get(APPLICATION, spaceId, application, () -> getApplicationId(cloudFoundryClient, application, spaceId));
+    }
+
+    private Mono<String> getCachedDomainId(CloudFoundryClient cloudFoundryClient, String organizationId, String domain) {
+        return this.resourceIdCache.get(DOMAIN, organizationId, domain, () -> getDomainId(cloudFoundryClient, organizationId, domain));
+    }
+
+    private Mono<String> getCachedSpaceId(CloudFoundryClient cloudFoundryClient, String organizationId, String space) {
+        return this.resourceIdCache.get(SPACE, organizationId, space, () -> getSpaceId(cloudFoundryClient, organizationId, space));
+    }
+
 }
@@ -60,6 +60,8 @@ import org.cloudfoundry.client.v2.spaces.ListSpaceServicesRequest;
 import org.cloudfoundry.client.v2.userprovidedserviceinstances.CreateUserProvidedServiceInstanceResponse;
 import org.cloudfoundry.client.v2.userprovidedserviceinstances.DeleteUserProvidedServiceInstanceRequest;
 import org.cloudfoundry.client.v2.userprovidedserviceinstances.UpdateUserProvidedServiceInstanceResponse;
+import org.cloudfoundry.operations.ResourceIdCache;
+import org.cloudfoundry.util.BatchLoader;
 import org.cloudfoundry.util.DelayUtils;
 import org.cloudfoundry.util.ExceptionUtils;
 import org.cloudfoundry.util.JobUtils;
@@ -68,6 +70,7 @@ import org.cloudfoundry.util.ResourceUtils;
 import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 import reactor.util.function.Tuples;
 
 import java.io.IOException;
@@ -76,8 +79,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+import static org.cloudfoundry.operations.ResourceIdCache.Type.APPLICATION;
 import static org.cloudfoundry.util.tuple.TupleUtils.function;
 
 public final class DefaultServices implements Services {
@@ -86,16 +91,27 @@ public final class DefaultServices implements Services {
 
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
+    private static final int SERVICE_PLAN_BATCH_SIZE = 50;
+
+    private static final Duration SERVICE_PLAN_BATCH_WINDOW = Duration.ofMillis(10);
+
     private final Mono<CloudFoundryClient> cloudFoundryClient;
 
     private final Mono<String> organizationId;
 
+    private final ResourceIdCache resourceIdCache;
+
     private final Mono<String> spaceId;
 
     public DefaultServices(Mono<CloudFoundryClient> cloudFoundryClient, Mono<String> organizationId, Mono<String> spaceId) {
+        this(cloudFoundryClient, organizationId, spaceId, ResourceIdCache.disabled());
+    }
+
+    public DefaultServices(Mono<CloudFoundryClient> cloudFoundryClient, Mono<String> organizationId, Mono<String> spaceId, ResourceIdCache resourceIdCache) {
         this.cloudFoundryClient = cloudFoundryClient;
         this.spaceId = spaceId;
         this.organizationId = organizationId;
+        this.resourceIdCache = resourceIdCache;
     }
 
     @Override
@@ -105,7 +121,7 @@ public final class DefaultServices implements Services {
             .then(function((cloudFoundryClient, spaceId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getApplicationId(cloudFoundryClient, request.getApplicationName(), spaceId),
+                    getCachedApplicationId(cloudFoundryClient, request.getApplicationName(), spaceId),
                     getSpaceServiceInstanceId(cloudFoundryClient, request.getServiceInstanceName(), spaceId)
                 )))
             .then(function((cloudFoundryClient, applicationId, serviceInstanceId) -> createServiceBinding(cloudFoundryClient, applicationId, serviceInstanceId, request.getParameters())))
@@ -231,22 +247,24 @@ public final class DefaultServices implements Services {
     public Flux<ServiceInstance> listInstances() {
         return Mono
             .when(this.cloudFoundryClient, this.spaceId)
-            .flatMap(function((cloudFoundryClient, spaceId) -> requestListServiceInstances(cloudFoundryClient, spaceId)
-                .map(resource -> Tuples.of(cloudFoundryClient, resource))
-            ))
-            .flatMap(function((cloudFoundryClient, resource) -> Mono
-                .when(
-                    Mono.just(cloudFoundryClient),
-                    Mono.just(resource),
-                    getServicePlanEntity(cloudFoundryClient, ResourceUtils.getEntity(resource).getServicePlanId())
-                )))
-            .flatMap(function((cloudFoundryClient, resource, servicePlanEntity) -> Mono
-                .when(
-                    Mono.just(resource),
-                    Mono.just(Optional.ofNullable(servicePlanEntity.getName())),
-                    getBoundApplications(cloudFoundryClient, ResourceUtils.getId(resource)),
-                    getServiceEntity(cloudFoundryClient, Optional.ofNullable(servicePlanEntity.getServiceId()))
-                )))
+            .flatMap(function((cloudFoundryClient, spaceId) -> {
+                BatchLoader<Tuple2<String, String>, ServicePlanEntity> servicePlans = getServicePlanLoader(cloudFoundryClient);
+                Map<String, Mono<ServiceEntity>> services = new ConcurrentHashMap<>();
+
+                return requestListServiceInstances(cloudFoundryClient, spaceId)
+                    .flatMap(resource -> Mono
+                        .when(
+                            Mono.just(resource),
+                            getServicePlanEntity(servicePlans, ResourceUtils.getId(resource), ResourceUtils.getEntity(resource).getServicePlanId())
+                        ))
+                    .flatMap(function((resource, servicePlanEntity) -> Mono
+                        .when(
+                            Mono.just(resource),
+                            Mono.just(Optional.ofNullable(servicePlanEntity.getName())),
+                            getBoundApplications(cloudFoundryClient, ResourceUtils.getId(resource)),
+                            getServiceEntity(cloudFoundryClient, services, Optional.ofNullable(servicePlanEntity.getServiceId()))
+                        )));
+            }))
             .map(function(DefaultServices::toServiceInstance));
     }
 
@@ -301,7 +319,7 @@ public final class DefaultServices implements Services {
             .then(function((cloudFoundryClient, spaceId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getApplicationId(cloudFoundryClient, request.getApplicationName(), spaceId),
+                    getCachedApplicationId(cloudFoundryClient, request.getApplicationName(), spaceId),
                     getSpaceServiceInstanceId(cloudFoundryClient, request.getServiceInstanceName(), spaceId)
                 )))
             .then(function((cloudFoundryClient, applicationId, serviceInstanceId) -> Mono
@@ -458,6 +476,15 @@ public final class DefaultServices implements Services {
             .otherwiseIfEmpty(Mono.just(ServiceEntity.builder().build()));
     }
 
+    private static Mono<ServiceEntity> getServiceEntity(CloudFoundryClient cloudFoundryClient, Map<String, Mono<ServiceEntity>> services, Optional<String> serviceId) {
+        return Mono
+            .justOrEmpty(serviceId)
+            .then(serviceId1 -> services.computeIfAbsent(serviceId1, key -> requestGetService(cloudFoundryClient, key)
+                .map(ResourceUtils::getEntity)
+                .cache()))
+            .otherwiseIfEmpty(Mono.just(ServiceEntity.builder().build()));
+    }
+
     private static Mono<String> getServiceId(CloudFoundryClient cloudFoundryClient, String servicePlanId) {
         return requestGetServicePlan(cloudFoundryClient, servicePlanId)
             .map(response -> response.getEntity().getServiceId());
@@ -482,6 +509,22 @@ public final class DefaultServices implements Services {
             .otherwiseIfEmpty(Mono.just(ServicePlanEntity.builder().build()));
     }
 
+    private static Mono<ServicePlanEntity> getServicePlanEntity(BatchLoader<Tuple2<String, String>, ServicePlanEntity> servicePlans, String serviceInstanceId, String servicePlanId) {
+        return Mono
+            .justOrEmpty(servicePlanId)
+            .then(servicePlanId1 -> servicePlans.load(Tuples.of(serviceInstanceId, servicePlanId1)))
+            .otherwiseIfEmpty(Mono.just(ServicePlanEntity.builder().build()));
+    }
+
+    private static BatchLoader<Tuple2<String, String>, ServicePlanEntity> getServicePlanLoader(CloudFoundryClient cloudFoundryClient) {
+        return new BatchLoader<>(keys -> requestListServicePlans(cloudFoundryClient, keys.stream().map(Tuple2::getT1).collect(Collectors.toList()))
+            .collectMap(ResourceUtils::getId, ResourceUtils::getEntity)
+            .flatMap(servicePlans -> Flux.fromIterable(keys)
+                .filter(key -> servicePlans.containsKey(key.getT2()))
+                .map(key -> Tuples.of(key, servicePlans.get(key.getT2())))),
+            SERVICE_PLAN_BATCH_SIZE, SERVICE_PLAN_BATCH_WINDOW);
+    }
+
     private static Mono<String> getServicePlanIdByName(CloudFoundryClient cloudFoundryClient, String serviceId, String plan) {
         return requestListServicePlans(cloudFoundryClient, serviceId)
             .filter(resource -> plan.equals(ResourceUtils.getEntity(resource).getName()))
@@ -733,6 +776,15 @@ public final class DefaultServices implements Services {
                     .build()));
     }
 
+    private static Flux<ServicePlanResource> requestListServicePlans(CloudFoundryClient cloudFoundryClient, List<String> serviceInstanceIds) {
+        return PaginationUtils
+            .requestClientV2Resources(page -> cloudFoundryClient.servicePlans()
+                .list(ListServicePlansRequest.builder()
+                    .page(page)
+                    .serviceInstanceIds(serviceInstanceIds)
+                    .build()));
+    }
+
     private static Flux<ServiceResource> requestListServices(CloudFoundryClient cloudFoundryClient, String spaceId) {
         return PaginationUtils
             .requestClientV2Resources(page -> cloudFoundryClient.spaces()
@@ -875,4 +927,8 @@ public final class DefaultServices implements Services {
             .collectList();
     }
 
+    private Mono<String> getCachedApplicationId(CloudFoundryClient cloudFoundryClient, String application, String spaceId) {
+        return this.resourceIdCache.get(APPLICATION, spaceId, application, () -> getApplicationId(cloudFoundryClient, application, spaceId));
+    }
+
 }
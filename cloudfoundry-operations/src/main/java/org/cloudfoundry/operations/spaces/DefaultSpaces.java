@@ -50,6 +50,7 @@ import org.cloudfoundry.client.v2.spaces.ListSpacesRequest;
 import org.cloudfoundry.client.v2.spaces.SpaceResource;
 import org.cloudfoundry.client.v2.spaces.UpdateSpaceRequest;
 import org.cloudfoundry.client.v2.spaces.UpdateSpaceResponse;
+import org.cloudfoundry.operations.ResourceIdCache;
 import org.cloudfoundry.operations.spaceadmin.SpaceQuota;
 import org.cloudfoundry.util.ExceptionUtils;
 import org.cloudfoundry.util.JobUtils;
@@ -66,6 +67,7 @@ import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import static org.cloudfoundry.operations.ResourceIdCache.Type.SPACE;
 import static org.cloudfoundry.util.tuple.TupleUtils.function;
 
 public final class DefaultSpaces implements Spaces {
@@ -74,11 +76,18 @@ public final class DefaultSpaces implements Spaces {
 
     private final Mono<String> organizationId;
 
+    private final ResourceIdCache resourceIdCache;
+
     private final Mono<String> username;
 
     public DefaultSpaces(Mono<CloudFoundryClient> cloudFoundryClient, Mono<String> organizationId, Mono<String> username) {
+        this(cloudFoundryClient, organizationId, username, ResourceIdCache.disabled());
+    }
+
+    public DefaultSpaces(Mono<CloudFoundryClient> cloudFoundryClient, Mono<String> organizationId, Mono<String> username, ResourceIdCache resourceIdCache) {
         this.cloudFoundryClient = cloudFoundryClient;
         this.organizationId = organizationId;
+        this.resourceIdCache = resourceIdCache;
         this.username = username;
     }
 
@@ -141,7 +150,8 @@ public final class DefaultSpaces implements Spaces {
                     Mono.just(cloudFoundryClient),
                     getOrganizationSpaceId(cloudFoundryClient, organizationId, request.getName())
                 )))
-            .then(function(DefaultSpaces::deleteSpace));
+            .then(function(DefaultSpaces::deleteSpace))
+            .doOnSuccess(v -> this.resourceIdCache.invalidate(SPACE, request.getName()));
     }
 
     @Override
@@ -187,7 +197,8 @@ public final class DefaultSpaces implements Spaces {
                     getOrganizationSpaceId(cloudFoundryClient, organizationId, request.getName())
                 )))
             .then(function((cloudFoundryClient, spaceId) -> requestUpdateSpace(cloudFoundryClient, spaceId, request.getNewName())))
-            .then();
+            .then()
+            .doOnSuccess(v -> this.resourceIdCache.invalidate(SPACE, request.getName()));
     }
 
     @Override
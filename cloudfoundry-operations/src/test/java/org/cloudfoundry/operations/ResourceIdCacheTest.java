@@ -0,0 +1,127 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations;
+
+import org.cloudfoundry.util.test.TestSubscriber;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.cloudfoundry.operations.ResourceIdCache.Type.APPLICATION;
+import static org.cloudfoundry.operations.ResourceIdCache.Type.SPACE;
+import static org.junit.Assert.assertEquals;
+
+public final class ResourceIdCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void disabled() throws InterruptedException {
+        ResourceIdCache cache = ResourceIdCache.disabled();
+
+        get(cache, APPLICATION, "test-name");
+        get(cache, APPLICATION, "test-name");
+
+        assertEquals(2, this.loads.get());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void errorNotCached() throws InterruptedException {
+        ResourceIdCache cache = new ResourceIdCache(Duration.ofMinutes(1), 10);
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        cache
+            .get(APPLICATION, "test-scope", "test-name", () -> Mono.<String>error(new IllegalStateException("test-message")))
+            .subscribe(testSubscriber
+                .expectError(IllegalStateException.class, "test-message"));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+
+        get(cache, APPLICATION, "test-name");
+        get(cache, APPLICATION, "test-name");
+
+        assertEquals(1, this.loads.get());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void expiry() throws InterruptedException {
+        ResourceIdCache cache = new ResourceIdCache(Duration.ofMillis(50), 10);
+
+        get(cache, APPLICATION, "test-name");
+        Thread.sleep(100);
+        get(cache, APPLICATION, "test-name");
+
+        assertEquals(2, this.loads.get());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void hit() throws InterruptedException {
+        ResourceIdCache cache = new ResourceIdCache(Duration.ofMinutes(1), 10);
+
+        get(cache, APPLICATION, "test-name");
+        get(cache, APPLICATION, "test-name");
+
+        assertEquals(1, this.loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate(), 0.001);
+    }
+
+    @Test
+    public void invalidate() throws InterruptedException {
+        ResourceIdCache cache = new ResourceIdCache(Duration.ofMinutes(1), 10);
+
+        get(cache, APPLICATION, "test-name");
+        get(cache, SPACE, "test-name");
+        cache.invalidate(APPLICATION, "test-name");
+        get(cache, APPLICATION, "test-name");
+        get(cache, SPACE, "test-name");
+
+        assertEquals(3, this.loads.get());
+    }
+
+    @Test
+    public void maximumSize() throws InterruptedException {
+        ResourceIdCache cache = new ResourceIdCache(Duration.ofMinutes(1), 1);
+
+        get(cache, APPLICATION, "test-name-1");
+        get(cache, APPLICATION, "test-name-2");
+        get(cache, APPLICATION, "test-name-1");
+
+        assertEquals(3, this.loads.get());
+    }
+
+    private void get(ResourceIdCache cache, ResourceIdCache.Type type, String name) throws InterruptedException {
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        cache
+            .get(type, "test-scope", name, () -> Mono.fromCallable(() -> {
+                this.loads.incrementAndGet();
+                return "test-id";
+            }))
+            .subscribe(testSubscriber
+                .expectEquals("test-id"));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+    }
+
+}
@@ -39,6 +39,7 @@ import org.cloudfoundry.client.v2.applications.InstanceStatistics;
 import org.cloudfoundry.client.v2.applications.ListApplicationServiceBindingsRequest;
 import org.cloudfoundry.client.v2.applications.ListApplicationServiceBindingsResponse;
 import org.cloudfoundry.client.v2.applications.RemoveApplicationServiceBindingRequest;
+import org.cloudfoundry.client.v2.applications.Resource;
 import org.cloudfoundry.client.v2.applications.RestageApplicationResponse;
 import org.cloudfoundry.client.v2.applications.Statistics;
 import org.cloudfoundry.client.v2.applications.SummaryApplicationRequest;
@@ -66,6 +67,8 @@ import org.cloudfoundry.client.v2.organizations.ListOrganizationsResponse;
 import org.cloudfoundry.client.v2.organizations.OrganizationEntity;
 import org.cloudfoundry.client.v2.organizations.OrganizationResource;
 import org.cloudfoundry.client.v2.privatedomains.PrivateDomainResource;
+import org.cloudfoundry.client.v2.resourcematch.ListMatchingResourcesRequest;
+import org.cloudfoundry.client.v2.resourcematch.ListMatchingResourcesResponse;
 import org.cloudfoundry.client.v2.routes.CreateRouteRequest;
 import org.cloudfoundry.client.v2.routes.CreateRouteResponse;
 import org.cloudfoundry.client.v2.routes.DeleteRouteResponse;
@@ -97,10 +100,12 @@ import org.cloudfoundry.client.v2.stacks.StackEntity;
 import org.cloudfoundry.doppler.DopplerClient;
 import org.cloudfoundry.doppler.Envelope;
 import org.cloudfoundry.doppler.EventType;
+import org.cloudfoundry.doppler.FirehoseRequest;
 import org.cloudfoundry.doppler.LogMessage;
 import org.cloudfoundry.doppler.RecentLogsRequest;
 import org.cloudfoundry.doppler.StreamRequest;
 import org.cloudfoundry.operations.AbstractOperationsApiTest;
+import org.cloudfoundry.operations.ResourceIdCache;
 import org.cloudfoundry.util.DateUtils;
 import org.cloudfoundry.util.FluentMap;
 import org.cloudfoundry.util.test.TestSubscriber;
@@ -117,12 +122,15 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.function.Supplier;
 
+import static org.cloudfoundry.operations.ResourceIdCache.Type.APPLICATION;
 import static org.cloudfoundry.util.test.TestObjects.fill;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.RETURNS_SMART_NULLS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -714,6 +722,18 @@ public final class DefaultApplicationsTest {
                 }));
     }
 
+    private static void requestListMatchingResources(CloudFoundryClient cloudFoundryClient, List<org.cloudfoundry.client.v2.resourcematch.Resource> resources,
+                                                     List<org.cloudfoundry.client.v2.resourcematch.Resource> matchedResources) {
+        when(cloudFoundryClient.resourceMatch()
+            .list(ListMatchingResourcesRequest.builder()
+                .resources(resources)
+                .build()))
+            .thenReturn(Mono
+                .just(ListMatchingResourcesResponse.builder()
+                    .resources(matchedResources)
+                    .build()));
+    }
+
     private static void requestLogsRecent(DopplerClient dopplerClient, String applicationId) {
         when(dopplerClient
             .recentLogs(RecentLogsRequest.builder()
@@ -732,11 +752,47 @@ public final class DefaultApplicationsTest {
         when(dopplerClient
             .stream(StreamRequest.builder()
                 .applicationId(applicationId)
+                .eventType(EventType.LOG_MESSAGE)
+                .build()))
+            .thenReturn(Flux
+                .just(Envelope.builder()
+                    .eventType(EventType.LOG_MESSAGE)
+                    .logMessage(fill(LogMessage.builder(), "log-message-")
+                        .build())
+                    .origin("rsp")
+                    .build()));
+    }
+
+    private static void requestLogsTailFirehose(DopplerClient dopplerClient, String applicationId) {
+        when(dopplerClient
+            .firehose(any(FirehoseRequest.class)))
+            .thenReturn(Flux
+                .just(Envelope.builder()
+                        .eventType(EventType.LOG_MESSAGE)
+                        .logMessage(fill(LogMessage.builder(), "log-message-")
+                            .applicationId(applicationId)
+                            .build())
+                        .origin("rsp")
+                        .build(),
+                    Envelope.builder()
+                        .eventType(EventType.LOG_MESSAGE)
+                        .logMessage(fill(LogMessage.builder(), "log-message-")
+                            .build())
+                        .origin("rsp")
+                        .build()));
+    }
+
+    private static void requestLogsTailStream(DopplerClient dopplerClient, String applicationId) {
+        when(dopplerClient
+            .stream(StreamRequest.builder()
+                .applicationId(applicationId)
+                .eventType(EventType.LOG_MESSAGE)
                 .build()))
             .thenReturn(Flux
                 .just(Envelope.builder()
                     .eventType(EventType.LOG_MESSAGE)
                     .logMessage(fill(LogMessage.builder(), "log-message-")
+                        .applicationId(applicationId)
                         .build())
                     .origin("rsp")
                     .build()));
@@ -1141,11 +1197,16 @@ public final class DefaultApplicationsTest {
     }
 
     private static void requestUpload(CloudFoundryClient cloudFoundryClient, String applicationId, InputStream application, String jobId) {
+        requestUpload(cloudFoundryClient, applicationId, application, Collections.emptyList(), jobId);
+    }
+
+    private static void requestUpload(CloudFoundryClient cloudFoundryClient, String applicationId, InputStream application, List<Resource> resources, String jobId) {
         when(cloudFoundryClient.applicationsV2()
             .upload(UploadApplicationRequest.builder()
                 .applicationId(applicationId)
                 .async(true)
                 .application(application)
+                .resources(resources)
                 .build()))
             .thenReturn(Mono
                 .just(fill(UploadApplicationResponse.builder())
@@ -1401,6 +1462,40 @@ public final class DefaultApplicationsTest {
 
     }
 
+    public static final class DeleteInvalidatesCache extends AbstractOperationsApiTest<String> {
+
+        private final ResourceIdCache resourceIdCache = new ResourceIdCache(Duration.ofMinutes(1), 10);
+
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), Mono.just(TEST_SPACE_ID),
+            this.resourceIdCache);
+
+        @Before
+        public void setUp() throws Exception {
+            this.resourceIdCache.get(APPLICATION, TEST_SPACE_ID, "test-name", () -> Mono.just("test-metadata-id")).block();
+
+            requestApplications(this.cloudFoundryClient, "test-name", TEST_SPACE_ID, "test-metadata-id");
+            requestApplicationSummary(this.cloudFoundryClient, "test-metadata-id");
+            requestApplicationServiceBindingsEmpty(this.cloudFoundryClient, "test-metadata-id");
+            requestDeleteApplication(this.cloudFoundryClient, "test-metadata-id");
+        }
+
+        @Override
+        protected void assertions(TestSubscriber<String> testSubscriber) {
+            testSubscriber
+                .expectEquals("test-reloaded-id");
+        }
+
+        @Override
+        protected Mono<String> invoke() {
+            return this.applications
+                .delete(DeleteApplicationRequest.builder()
+                    .name("test-name")
+                    .build())
+                .then(this.resourceIdCache.get(APPLICATION, TEST_SPACE_ID, "test-name", () -> Mono.just("test-reloaded-id")));
+        }
+
+    }
+
     public static final class DeleteWithBoundRoutes extends AbstractOperationsApiTest<Void> {
 
         private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), Mono.just(TEST_SPACE_ID));
@@ -2525,8 +2620,8 @@ public final class DefaultApplicationsTest {
 
         private final InputStream applicationBits = new ByteArrayInputStream("test-application".getBytes());
 
-        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> this.applicationBits, Mono.just(TEST_SPACE_ID),
-            new WordListRandomWords());
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> Collections.emptyList(), (p, excluded) -> this.applicationBits,
+            Mono.just(TEST_SPACE_ID), new WordListRandomWords());
 
         private final PushApplicationRequest pushApplicationRequest = PushApplicationRequest.builder()
             .dockerImage("cloudfoundry/lattice-app")
@@ -2566,8 +2661,8 @@ public final class DefaultApplicationsTest {
 
         private final InputStream applicationBits = new ByteArrayInputStream("test-application".getBytes());
 
-        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> this.applicationBits, Mono.just(TEST_SPACE_ID),
-            new WordListRandomWords());
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> Collections.emptyList(), (p, excluded) -> this.applicationBits,
+            Mono.just(TEST_SPACE_ID), new WordListRandomWords());
 
         private final PushApplicationRequest pushApplicationRequest = PushApplicationRequest.builder()
             .application(Paths.get("test-application"))
@@ -2602,8 +2697,8 @@ public final class DefaultApplicationsTest {
 
         private final InputStream applicationBits = new ByteArrayInputStream("test-application".getBytes());
 
-        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> this.applicationBits, Mono.just(TEST_SPACE_ID),
-            new WordListRandomWords());
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> Collections.emptyList(), (p, excluded) -> this.applicationBits,
+            Mono.just(TEST_SPACE_ID), new WordListRandomWords());
 
         private final PushApplicationRequest pushApplicationRequest = PushApplicationRequest.builder()
             .application(Paths.get("test-application"))
@@ -2645,8 +2740,8 @@ public final class DefaultApplicationsTest {
 
         private final InputStream applicationBits = new ByteArrayInputStream("test-application".getBytes());
 
-        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> this.applicationBits, Mono.just(TEST_SPACE_ID),
-            new WordListRandomWords());
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> Collections.emptyList(), (p, excluded) -> this.applicationBits,
+            Mono.just(TEST_SPACE_ID), new WordListRandomWords());
 
         private final PushApplicationRequest pushApplicationRequest = PushApplicationRequest.builder()
             .application(Paths.get("test-application"))
@@ -2688,8 +2783,8 @@ public final class DefaultApplicationsTest {
 
         private final InputStream applicationBits = new ByteArrayInputStream("test-application".getBytes());
 
-        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> this.applicationBits, Mono.just(TEST_SPACE_ID),
-            new WordListRandomWords());
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> Collections.emptyList(), (p, excluded) -> this.applicationBits,
+            Mono.just(TEST_SPACE_ID), new WordListRandomWords());
 
         private final PushApplicationRequest pushApplicationRequest = PushApplicationRequest.builder()
             .application(Paths.get("test-application"))
@@ -2731,8 +2826,8 @@ public final class DefaultApplicationsTest {
 
         private final InputStream applicationBits = new ByteArrayInputStream("test-application".getBytes());
 
-        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> this.applicationBits, Mono.just(TEST_SPACE_ID),
-            new WordListRandomWords());
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> Collections.emptyList(), (p, excluded) -> this.applicationBits,
+            Mono.just(TEST_SPACE_ID), new WordListRandomWords());
 
         @Before
         public void setUp() throws Exception {
@@ -2757,12 +2852,86 @@ public final class DefaultApplicationsTest {
 
     }
 
+    public static final class PushMatchedResources extends AbstractOperationsApiTest<Void> {
+
+        private final InputStream applicationBits = new ByteArrayInputStream("test-application".getBytes());
+
+        private final Resource matchedResource = Resource.builder()
+            .hash("test-hash-1")
+            .mode("644")
+            .path("test-path-1")
+            .size(1)
+            .build();
+
+        private final Resource unmatchedResource = Resource.builder()
+            .hash("test-hash-2")
+            .mode("644")
+            .path("test-path-2")
+            .size(2)
+            .build();
+
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient),
+            p -> Arrays.asList(this.matchedResource, this.unmatchedResource),
+            (p, excluded) -> Collections.singleton("test-path-1").equals(excluded) ? this.applicationBits : null,
+            Mono.just(TEST_SPACE_ID), new WordListRandomWords());
+
+        private final PushApplicationRequest pushApplicationRequest = PushApplicationRequest.builder()
+            .application(Paths.get("test-application"))
+            .domain("test-domain")
+            .name("test-name")
+            .build();
+
+        @Before
+        public void setUp() throws Exception {
+            requestApplications(this.cloudFoundryClient, "test-name", TEST_SPACE_ID, "test-application-id");
+            requestUpdateApplication(this.cloudFoundryClient, "test-application-id", this.pushApplicationRequest, null);
+            requestSpace(this.cloudFoundryClient, TEST_SPACE_ID, TEST_ORGANIZATION_ID);
+            requestPrivateDomain(this.cloudFoundryClient, "test-domain", TEST_ORGANIZATION_ID, "test-domain-id");
+            requestRoutesEmpty(this.cloudFoundryClient, "test-domain-id", "test-name", null);
+            requestCreateRoute(this.cloudFoundryClient, "test-domain-id", "test-name", null, TEST_SPACE_ID, "test-route-id");
+            requestAssociateRoute(this.cloudFoundryClient, "test-application-id", "test-route-id");
+            requestListMatchingResources(this.cloudFoundryClient,
+                Arrays.asList(
+                    org.cloudfoundry.client.v2.resourcematch.Resource.builder()
+                        .hash("test-hash-1")
+                        .size(1)
+                        .build(),
+                    org.cloudfoundry.client.v2.resourcematch.Resource.builder()
+                        .hash("test-hash-2")
+                        .size(2)
+                        .build()),
+                Collections.singletonList(
+                    org.cloudfoundry.client.v2.resourcematch.Resource.builder()
+                        .hash("test-hash-1")
+                        .size(1)
+                        .build()));
+            requestUpload(this.cloudFoundryClient, "test-application-id", this.applicationBits, Collections.singletonList(this.matchedResource), "test-job-id");
+            requestJobSuccess(this.cloudFoundryClient, "test-job-id");
+            requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STOPPED");
+            requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STARTED");
+            requestGetApplication(this.cloudFoundryClient, "test-application-id");
+            requestApplicationInstancesRunning(this.cloudFoundryClient, "test-application-id");
+        }
+
+        @Override
+        protected void assertions(TestSubscriber<Void> testSubscriber) {
+            // Expects onComplete() with no onNext()
+        }
+
+        @Override
+        protected Mono<Void> invoke() {
+            return this.applications
+                .push(this.pushApplicationRequest);
+        }
+
+    }
+
     public static final class PushNewApplication extends AbstractOperationsApiTest<Void> {
 
         private final InputStream applicationBits = new ByteArrayInputStream("test-application".getBytes());
 
-        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> this.applicationBits, Mono.just(TEST_SPACE_ID),
-            new WordListRandomWords());
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> Collections.emptyList(), (p, excluded) -> this.applicationBits,
+            Mono.just(TEST_SPACE_ID), new WordListRandomWords());
 
         private final PushApplicationRequest pushApplicationRequest = PushApplicationRequest.builder()
             .application(Paths.get("test-application"))
@@ -2804,8 +2973,8 @@ public final class DefaultApplicationsTest {
 
         private final InputStream applicationBits = new ByteArrayInputStream("test-application".getBytes());
 
-        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> this.applicationBits, Mono.just(TEST_SPACE_ID),
-            new WordListRandomWords());
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> Collections.emptyList(), (p, excluded) -> this.applicationBits,
+            Mono.just(TEST_SPACE_ID), new WordListRandomWords());
 
         private final PushApplicationRequest pushApplicationRequest = PushApplicationRequest.builder()
             .application(Paths.get("test-application"))
@@ -2848,8 +3017,8 @@ public final class DefaultApplicationsTest {
 
         private final InputStream applicationBits = new ByteArrayInputStream("test-application".getBytes());
 
-        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> this.applicationBits, Mono.just(TEST_SPACE_ID),
-            new WordListRandomWords());
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> Collections.emptyList(), (p, excluded) -> this.applicationBits,
+            Mono.just(TEST_SPACE_ID), new WordListRandomWords());
 
         private final PushApplicationRequest pushApplicationRequest = PushApplicationRequest.builder()
             .application(Paths.get("test-application"))
@@ -2892,8 +3061,8 @@ public final class DefaultApplicationsTest {
 
         private final InputStream applicationBits = new ByteArrayInputStream("test-application".getBytes());
 
-        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> this.applicationBits, Mono.just(TEST_SPACE_ID),
-            new WordListRandomWords());
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> Collections.emptyList(), (p, excluded) -> this.applicationBits,
+            Mono.just(TEST_SPACE_ID), new WordListRandomWords());
 
         private final PushApplicationRequest pushApplicationRequest = PushApplicationRequest.builder()
             .application(Paths.get("test-application"))
@@ -2928,8 +3097,8 @@ public final class DefaultApplicationsTest {
 
         private final InputStream applicationBits = new ByteArrayInputStream("test-application".getBytes());
 
-        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> this.applicationBits, Mono.just(TEST_SPACE_ID),
-            new WordListRandomWords());
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> Collections.emptyList(), (p, excluded) -> this.applicationBits,
+            Mono.just(TEST_SPACE_ID), new WordListRandomWords());
 
         private final PushApplicationRequest pushApplicationRequest = PushApplicationRequest.builder()
             .application(Paths.get("test-application"))
@@ -2972,8 +3141,8 @@ public final class DefaultApplicationsTest {
 
         private final InputStream applicationBits = new ByteArrayInputStream("test-application".getBytes());
 
-        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> this.applicationBits, Mono.just(TEST_SPACE_ID),
-            new WordListRandomWords());
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> Collections.emptyList(), (p, excluded) -> this.applicationBits,
+            Mono.just(TEST_SPACE_ID), new WordListRandomWords());
 
         private final PushApplicationRequest pushApplicationRequest = PushApplicationRequest.builder()
             .application(Paths.get("test-application"))
@@ -3015,8 +3184,8 @@ public final class DefaultApplicationsTest {
 
         private final InputStream applicationBits = new ByteArrayInputStream("test-application".getBytes());
 
-        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> this.applicationBits, Mono.just(TEST_SPACE_ID),
-            new WordListRandomWords());
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> Collections.emptyList(), (p, excluded) -> this.applicationBits,
+            Mono.just(TEST_SPACE_ID), new WordListRandomWords());
 
         private final PushApplicationRequest pushApplicationRequest = PushApplicationRequest.builder()
             .application(Paths.get("test-application"))
@@ -3056,8 +3225,8 @@ public final class DefaultApplicationsTest {
 
         private final InputStream applicationBits = new ByteArrayInputStream("test-application".getBytes());
 
-        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> this.applicationBits, Mono.just(TEST_SPACE_ID),
-            new WordListRandomWords());
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> Collections.emptyList(), (p, excluded) -> this.applicationBits,
+            Mono.just(TEST_SPACE_ID), new WordListRandomWords());
 
         private final PushApplicationRequest pushApplicationRequest = PushApplicationRequest.builder()
             .application(Paths.get("test-application"))
@@ -3106,7 +3275,8 @@ public final class DefaultApplicationsTest {
 
         private final RandomWords randomWords = mock(RandomWords.class, RETURNS_SMART_NULLS);
 
-        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> this.applicationBits, Mono.just(TEST_SPACE_ID),
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> Collections.emptyList(), (p, excluded) -> this.applicationBits,
+            Mono.just(TEST_SPACE_ID),
             this.randomWords);
 
         @Before
@@ -3144,8 +3314,8 @@ public final class DefaultApplicationsTest {
 
         private final InputStream applicationBits = new ByteArrayInputStream("test-application".getBytes());
 
-        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> this.applicationBits, Mono.just(TEST_SPACE_ID),
-            new WordListRandomWords());
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> Collections.emptyList(), (p, excluded) -> this.applicationBits,
+            Mono.just(TEST_SPACE_ID), new WordListRandomWords());
 
         private final PushApplicationRequest pushApplicationRequest = PushApplicationRequest.builder()
             .application(Paths.get("test-application"))
@@ -3188,8 +3358,8 @@ public final class DefaultApplicationsTest {
 
         private final InputStream applicationBits = new ByteArrayInputStream("test-application".getBytes());
 
-        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> this.applicationBits, Mono.just(TEST_SPACE_ID),
-            new WordListRandomWords());
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> Collections.emptyList(), (p, excluded) -> this.applicationBits,
+            Mono.just(TEST_SPACE_ID), new WordListRandomWords());
 
         private final PushApplicationRequest pushApplicationRequest = PushApplicationRequest.builder()
             .application(Paths.get("test-application"))
@@ -3232,8 +3402,8 @@ public final class DefaultApplicationsTest {
 
         private final InputStream applicationBits = new ByteArrayInputStream("test-application".getBytes());
 
-        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> this.applicationBits, Mono.just(TEST_SPACE_ID),
-            new WordListRandomWords());
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> Collections.emptyList(), (p, excluded) -> this.applicationBits,
+            Mono.just(TEST_SPACE_ID), new WordListRandomWords());
 
         private final PushApplicationRequest pushApplicationRequest = PushApplicationRequest.builder()
             .application(Paths.get("test-application"))
@@ -3275,8 +3445,8 @@ public final class DefaultApplicationsTest {
 
         private final InputStream applicationBits = new ByteArrayInputStream("test-application".getBytes());
 
-        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> this.applicationBits, Mono.just(TEST_SPACE_ID),
-            new WordListRandomWords());
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), p -> Collections.emptyList(), (p, excluded) -> this.applicationBits,
+            Mono.just(TEST_SPACE_ID), new WordListRandomWords());
 
         private final PushApplicationRequest pushApplicationRequest = PushApplicationRequest.builder()
             .application(Paths.get("test-application"))
@@ -3337,6 +3507,38 @@ public final class DefaultApplicationsTest {
 
     }
 
+    public static final class RenameInvalidatesCache extends AbstractOperationsApiTest<String> {
+
+        private final ResourceIdCache resourceIdCache = new ResourceIdCache(Duration.ofMinutes(1), 10);
+
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), Mono.just(TEST_SPACE_ID),
+            this.resourceIdCache);
+
+        @Before
+        public void setUp() throws Exception {
+            this.resourceIdCache.get(APPLICATION, TEST_SPACE_ID, "test-app-name", () -> Mono.just("test-metadata-id")).block();
+
+            requestUpdateApplicationRename(this.cloudFoundryClient, "test-metadata-id", "test-new-app-name");
+        }
+
+        @Override
+        protected void assertions(TestSubscriber<String> testSubscriber) {
+            testSubscriber
+                .expectEquals("test-reloaded-id");
+        }
+
+        @Override
+        protected Mono<String> invoke() {
+            return this.applications
+                .rename(RenameApplicationRequest.builder()
+                    .name("test-app-name")
+                    .newName("test-new-app-name")
+                    .build())
+                .then(this.resourceIdCache.get(APPLICATION, TEST_SPACE_ID, "test-app-name", () -> Mono.just("test-reloaded-id")));
+        }
+
+    }
+
     public static final class RenameNoApp extends AbstractOperationsApiTest<Void> {
 
         private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), Mono.just(TEST_SPACE_ID));
@@ -4222,6 +4424,94 @@ public final class DefaultApplicationsTest {
 
     }
 
+    public static final class TailLogs extends AbstractOperationsApiTest<ApplicationLog> {
+
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), Mono.just(TEST_SPACE_ID));
+
+        @Before
+        public void setUp() throws Exception {
+            requestApplications(this.cloudFoundryClient, "test-application-name", TEST_SPACE_ID, "test-metadata-id");
+            requestLogsTailStream(this.dopplerClient, "test-metadata-id");
+        }
+
+        @Override
+        protected void assertions(TestSubscriber<ApplicationLog> testSubscriber) {
+            testSubscriber
+                .expectEquals(ApplicationLog.builder()
+                    .applicationName("test-application-name")
+                    .logMessage(fill(LogMessage.builder(), "log-message-")
+                        .applicationId("test-metadata-id")
+                        .build())
+                    .build());
+        }
+
+        @Override
+        protected Publisher<ApplicationLog> invoke() {
+            return this.applications
+                .tailLogs(TailLogsRequest.builder()
+                    .name("test-application-name")
+                    .build());
+        }
+
+    }
+
+    public static final class TailLogsFirehose extends AbstractOperationsApiTest<ApplicationLog> {
+
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), Mono.just(TEST_SPACE_ID));
+
+        @Before
+        public void setUp() throws Exception {
+            requestApplications(this.cloudFoundryClient, "test-application-name", TEST_SPACE_ID, "test-metadata-id");
+            requestLogsTailFirehose(this.dopplerClient, "test-metadata-id");
+        }
+
+        @Override
+        protected void assertions(TestSubscriber<ApplicationLog> testSubscriber) {
+            testSubscriber
+                .expectEquals(ApplicationLog.builder()
+                    .applicationName("test-application-name")
+                    .logMessage(fill(LogMessage.builder(), "log-message-")
+                        .applicationId("test-metadata-id")
+                        .build())
+                    .build());
+        }
+
+        @Override
+        protected Publisher<ApplicationLog> invoke() {
+            return this.applications
+                .tailLogs(TailLogsRequest.builder()
+                    .firehose(true)
+                    .name("test-application-name")
+                    .build());
+        }
+
+    }
+
+    public static final class TailLogsNoApp extends AbstractOperationsApiTest<ApplicationLog> {
+
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), Mono.just(TEST_SPACE_ID));
+
+        @Before
+        public void setUp() throws Exception {
+            requestApplicationsEmpty(this.cloudFoundryClient, "test-application-name", TEST_SPACE_ID);
+        }
+
+        @Override
+        protected void assertions(TestSubscriber<ApplicationLog> testSubscriber) {
+            testSubscriber
+                .expectError(IllegalArgumentException.class, "Applications test-application-name do not exist");
+        }
+
+        @Override
+        protected Publisher<ApplicationLog> invoke() {
+            return this.applications
+                .tailLogs(TailLogsRequest.builder()
+                    .name("test-application-name")
+                    .build());
+        }
+
+    }
+
     public static final class UnsetEnvironmentVariable extends AbstractOperationsApiTest<Void> {
 
         private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), Mono.just(TEST_SPACE_ID));
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations.applications;
+
+import org.cloudfoundry.client.v2.applications.Resource;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class ResourceFingerprinterTest {
+
+    private static final String TEST_HASH = "a94a8fe5ccb19ba61c4c0873d391e987982fbbd3";
+
+    private final Path root;
+
+    private final Path cacheLocation;
+
+    public ResourceFingerprinterTest() throws IOException {
+        this.root = Files.createTempDirectory("resource-fingerprinter");
+        this.cacheLocation = this.root.resolve("cache").resolve("fingerprints.properties");
+    }
+
+    @After
+    public void delete() throws IOException {
+        try (Stream<Path> contents = Files.walk(this.root)) {
+            contents
+                .sorted(Comparator.reverseOrder())
+                .forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void apply() throws IOException {
+        Path application = createApplication();
+
+        List<Resource> resources = new ResourceFingerprinter(this.cacheLocation).apply(application);
+
+        assertEquals(Collections.singletonList(Resource.builder()
+            .hash(TEST_HASH)
+            .mode("640")
+            .path("test-file")
+            .size(4)
+            .build()), resources);
+        assertTrue(Files.exists(this.cacheLocation));
+        assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(this.cacheLocation)));
+    }
+
+    @Test
+    public void applyCached() throws IOException {
+        Path application = createApplication();
+        Path file = application.resolve("test-file");
+        new ResourceFingerprinter(this.cacheLocation).apply(application);
+
+        Properties cache = load();
+        String key = file.toUri().toString();
+        cache.setProperty(key, cache.getProperty(key).replace(TEST_HASH, "test-cached-hash"));
+        save(cache);
+
+        assertEquals("test-cached-hash", new ResourceFingerprinter(this.cacheLocation).apply(application).get(0).getHash());
+    }
+
+    @Test
+    public void applyModified() throws IOException {
+        Path application = createApplication();
+        Path file = application.resolve("test-file");
+        new ResourceFingerprinter(this.cacheLocation).apply(application);
+
+        Properties cache = load();
+        String key = file.toUri().toString();
+        cache.setProperty(key, cache.getProperty(key).replace(TEST_HASH, "test-cached-hash"));
+        save(cache);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() - 10_000));
+
+        assertEquals(TEST_HASH, new ResourceFingerprinter(this.cacheLocation).apply(application).get(0).getHash());
+    }
+
+    @Test
+    public void applyNoCacheLocation() throws IOException {
+        Path application = createApplication();
+
+        assertEquals(TEST_HASH, new ResourceFingerprinter().apply(application).get(0).getHash());
+        assertFalse(Files.exists(this.cacheLocation.getParent()));
+    }
+
+    @Test
+    public void evict() {
+        Properties cache = new Properties();
+        cache.setProperty("test-key-1", String.format("4:0:%d:%s", 1, TEST_HASH));
+        cache.setProperty("test-key-2", String.format("4:0:%d:%s", 3, TEST_HASH));
+        cache.setProperty("test-key-3", String.format("4:0:%d:%s", 2, TEST_HASH));
+
+        ResourceFingerprinter.evict(cache, 2);
+
+        assertEquals(2, cache.size());
+        assertFalse(cache.containsKey("test-key-1"));
+    }
+
+    private Path createApplication() throws IOException {
+        Path application = Files.createDirectory(this.root.resolve("application"));
+        Path file = Files.write(application.resolve("test-file"), "test".getBytes(StandardCharsets.UTF_8));
+        Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-r-----"));
+        return application;
+    }
+
+    private Properties load() throws IOException {
+        Properties cache = new Properties();
+
+        try (InputStream in = Files.newInputStream(this.cacheLocation)) {
+            cache.load(in);
+        }
+
+        return cache;
+    }
+
+    private void save(Properties cache) throws IOException {
+        try (OutputStream out = Files.newOutputStream(this.cacheLocation)) {
+            cache.store(out, null);
+        }
+    }
+
+}
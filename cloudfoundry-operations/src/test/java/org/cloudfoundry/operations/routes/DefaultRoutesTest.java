@@ -22,6 +22,8 @@ import org.cloudfoundry.client.v2.Metadata;
 import org.cloudfoundry.client.v2.applications.ApplicationResource;
 import org.cloudfoundry.client.v2.applications.AssociateApplicationRouteRequest;
 import org.cloudfoundry.client.v2.applications.AssociateApplicationRouteResponse;
+import org.cloudfoundry.client.v2.applications.ListApplicationsRequest;
+import org.cloudfoundry.client.v2.applications.ListApplicationsResponse;
 import org.cloudfoundry.client.v2.applications.RemoveApplicationRouteRequest;
 import org.cloudfoundry.client.v2.domains.GetDomainRequest;
 import org.cloudfoundry.client.v2.domains.GetDomainResponse;
@@ -34,6 +36,10 @@ import org.cloudfoundry.client.v2.organizations.ListOrganizationPrivateDomainsRe
 import org.cloudfoundry.client.v2.organizations.ListOrganizationSpacesRequest;
 import org.cloudfoundry.client.v2.organizations.ListOrganizationSpacesResponse;
 import org.cloudfoundry.client.v2.privatedomains.PrivateDomainResource;
+import org.cloudfoundry.client.v2.routemappings.ListRouteMappingsRequest;
+import org.cloudfoundry.client.v2.routemappings.ListRouteMappingsResponse;
+import org.cloudfoundry.client.v2.routemappings.RouteMappingEntity;
+import org.cloudfoundry.client.v2.routemappings.RouteMappingResource;
 import org.cloudfoundry.client.v2.routes.CreateRouteResponse;
 import org.cloudfoundry.client.v2.routes.DeleteRouteResponse;
 import org.cloudfoundry.client.v2.routes.ListRouteApplicationsRequest;
@@ -307,6 +313,23 @@ public final class DefaultRoutesTest {
             .thenReturn(Mono.empty());
     }
 
+    private static void requestRouteMappings(CloudFoundryClient cloudFoundryClient, String routeId) {
+        when(cloudFoundryClient.routeMappings()
+            .list(ListRouteMappingsRequest.builder()
+                .page(1)
+                .routeId(routeId)
+                .build()))
+            .thenReturn(Mono
+                .just(fill(ListRouteMappingsResponse.builder())
+                    .resource(fill(RouteMappingResource.builder(), "route-mapping-")
+                        .entity(fill(RouteMappingEntity.builder(), "route-mapping-entity-")
+                            .applicationId("test-application-id")
+                            .routeId(routeId)
+                            .build())
+                        .build())
+                    .build()));
+    }
+
     private static void requestRouteExistsFalse(CloudFoundryClient cloudFoundryClient, String domainId, String host, String path) {
         when(cloudFoundryClient.routes()
             .exists(RouteExistsRequest.builder()
@@ -501,6 +524,19 @@ public final class DefaultRoutesTest {
                     .build()));
     }
 
+    private static void requestSpacesApplications(CloudFoundryClient cloudFoundryClient, String spaceId) {
+        when(cloudFoundryClient.applicationsV2()
+            .list(ListApplicationsRequest.builder()
+                .page(1)
+                .spaceId(spaceId)
+                .build()))
+            .thenReturn(Mono
+                .just(fill(ListApplicationsResponse.builder())
+                    .resource(fill(ApplicationResource.builder(), "application-")
+                        .build())
+                    .build()));
+    }
+
     private static void requestSpacesEmpty(CloudFoundryClient cloudFoundryClient, String organizationId, String space) {
         when(cloudFoundryClient.organizations()
             .listSpaces(ListOrganizationSpacesRequest.builder()
@@ -1070,7 +1106,8 @@ public final class DefaultRoutesTest {
             requestPrivateDomainsAll(this.cloudFoundryClient, TEST_ORGANIZATION_ID);
             requestSharedDomainsAll(this.cloudFoundryClient);
             requestSpacesAll(this.cloudFoundryClient, TEST_ORGANIZATION_ID);
-            requestApplications(this.cloudFoundryClient, "test-id");
+            requestRouteMappings(this.cloudFoundryClient, "test-id");
+            requestSpacesApplications(this.cloudFoundryClient, "test-route-entity-spaceId");
         }
 
         @Override
@@ -1105,7 +1142,6 @@ public final class DefaultRoutesTest {
             requestPrivateDomainsAll(this.cloudFoundryClient, TEST_ORGANIZATION_ID);
             requestSharedDomainsAll(this.cloudFoundryClient);
             requestSpacesAll(this.cloudFoundryClient, TEST_ORGANIZATION_ID);
-            requestApplications(this.cloudFoundryClient, "test-id");
         }
 
         @Override
@@ -1132,7 +1168,8 @@ public final class DefaultRoutesTest {
             requestPrivateDomainsAll(this.cloudFoundryClient, TEST_ORGANIZATION_ID);
             requestSharedDomainsAll(this.cloudFoundryClient);
             requestSpacesAll(this.cloudFoundryClient, TEST_ORGANIZATION_ID);
-            requestApplications(this.cloudFoundryClient, "test-route-id");
+            requestRouteMappings(this.cloudFoundryClient, "test-route-id");
+            requestSpacesApplications(this.cloudFoundryClient, "test-route-entity-spaceId");
         }
 
         @Override
@@ -696,6 +696,26 @@ public final class DefaultServicesTest {
             );
     }
 
+    private static void requestListServicePlansByServiceInstance(CloudFoundryClient cloudFoundryClient, String serviceInstanceId, String plan, String planId, String serviceId) {
+        when(cloudFoundryClient.servicePlans()
+            .list(ListServicePlansRequest.builder()
+                .page(1)
+                .serviceInstanceId(serviceInstanceId)
+                .build()))
+            .thenReturn(Mono
+                .just(fill(ListServicePlansResponse.builder())
+                    .resource(ServicePlanResource.builder()
+                        .metadata(fill(Metadata.builder())
+                            .id(planId)
+                            .build())
+                        .entity(ServicePlanEntity.builder()
+                            .name(plan)
+                            .serviceId(serviceId)
+                            .build())
+                        .build())
+                    .build()));
+    }
+
     private static void requestListServicePlansNotPublic(CloudFoundryClient cloudFoundryClient, String serviceId, String plan, String planId) {
         when(cloudFoundryClient.servicePlans()
             .list(ListServicePlansRequest.builder()
@@ -1455,8 +1475,7 @@ public final class DefaultServicesTest {
             requestListServiceInstancesTwo(this.cloudFoundryClient, TEST_SPACE_ID, "test-service-instance1", "test-service-instance2");
             requestListServiceBindingsEmpty(this.cloudFoundryClient, "test-service-instance1-id");
             requestListServiceBindings(this.cloudFoundryClient, "test-service-instance2-id", "test-application-id");
-            requestGetServicePlan(this.cloudFoundryClient, "test-service-instance1-plan-id", "test-service-plan", "test-service-id");
-            requestGetServicePlan(this.cloudFoundryClient, "test-service-instance2-plan-id", "test-service-plan", "test-service-id");
+            requestListServicePlansByServiceInstance(this.cloudFoundryClient, "test-service-instance2-id", "test-service-plan", "test-service-instance2-plan-id", "test-service-id");
             requestGetService(this.cloudFoundryClient, "test-service-id", "test-service");
             requestGetApplication(this.cloudFoundryClient, "test-application-id", "test-application");
         }
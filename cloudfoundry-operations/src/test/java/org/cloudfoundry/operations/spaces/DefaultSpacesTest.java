@@ -65,18 +65,21 @@ import org.cloudfoundry.client.v2.spaces.SpaceResource;
 import org.cloudfoundry.client.v2.spaces.UpdateSpaceRequest;
 import org.cloudfoundry.client.v2.spaces.UpdateSpaceResponse;
 import org.cloudfoundry.operations.AbstractOperationsApiTest;
+import org.cloudfoundry.operations.ResourceIdCache;
 import org.cloudfoundry.operations.spaceadmin.SpaceQuota;
 import org.cloudfoundry.util.test.TestSubscriber;
 import org.junit.Before;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.function.Supplier;
 
+import static org.cloudfoundry.operations.ResourceIdCache.Type.SPACE;
 import static org.cloudfoundry.util.test.TestObjects.fill;
 import static org.mockito.Mockito.when;
 
@@ -698,6 +701,38 @@ public final class DefaultSpacesTest {
 
     }
 
+    public static final class DeleteInvalidatesCache extends AbstractOperationsApiTest<String> {
+
+        private final ResourceIdCache resourceIdCache = new ResourceIdCache(Duration.ofMinutes(1), 10);
+
+        private final DefaultSpaces spaces = new DefaultSpaces(Mono.just(this.cloudFoundryClient), Mono.just(TEST_ORGANIZATION_ID), MISSING_USERNAME, this.resourceIdCache);
+
+        @Before
+        public void setUp() {
+            this.resourceIdCache.get(SPACE, TEST_ORGANIZATION_ID, "test-space-name", () -> Mono.just("test-space-id")).block();
+
+            requestOrganizationSpaces(this.cloudFoundryClient, TEST_ORGANIZATION_ID, "test-space-name", "test-space-spaceQuotaDefinitionId");
+            requestDeleteSpace(this.cloudFoundryClient, "test-space-id");
+            requestJobSuccess(this.cloudFoundryClient, "test-id");
+        }
+
+        @Override
+        protected void assertions(TestSubscriber<String> testSubscriber) {
+            testSubscriber
+                .expectEquals("test-reloaded-id");
+        }
+
+        @Override
+        protected Mono<String> invoke() {
+            return this.spaces
+                .delete(DeleteSpaceRequest.builder()
+                    .name("test-space-name")
+                    .build())
+                .then(this.resourceIdCache.get(SPACE, TEST_ORGANIZATION_ID, "test-space-name", () -> Mono.just("test-reloaded-id")));
+        }
+
+    }
+
     public static final class DeleteNoOrganization extends AbstractOperationsApiTest<Void> {
 
         private final DefaultSpaces spaces = new DefaultSpaces(Mono.just(this.cloudFoundryClient), MISSING_ORGANIZATION_ID, MISSING_USERNAME);
@@ -1011,6 +1046,38 @@ public final class DefaultSpacesTest {
 
     }
 
+    public static final class RenameInvalidatesCache extends AbstractOperationsApiTest<String> {
+
+        private final ResourceIdCache resourceIdCache = new ResourceIdCache(Duration.ofMinutes(1), 10);
+
+        private final DefaultSpaces spaces = new DefaultSpaces(Mono.just(this.cloudFoundryClient), Mono.just(TEST_ORGANIZATION_ID), MISSING_USERNAME, this.resourceIdCache);
+
+        @Before
+        public void setUp() throws Exception {
+            this.resourceIdCache.get(SPACE, TEST_ORGANIZATION_ID, "test-space-name", () -> Mono.just("test-space-id")).block();
+
+            requestOrganizationSpaces(this.cloudFoundryClient, TEST_ORGANIZATION_ID, "test-space-name", "test-space-spaceQuotaDefinitionId");
+            requestUpdateSpace(this.cloudFoundryClient, "test-space-id", "test-new-space-name");
+        }
+
+        @Override
+        protected void assertions(TestSubscriber<String> testSubscriber) {
+            testSubscriber
+                .expectEquals("test-reloaded-id");
+        }
+
+        @Override
+        protected Mono<String> invoke() {
+            return this.spaces
+                .rename(RenameSpaceRequest.builder()
+                    .name("test-space-name")
+                    .newName("test-new-space-name")
+                    .build())
+                .then(this.resourceIdCache.get(SPACE, TEST_ORGANIZATION_ID, "test-space-name", () -> Mono.just("test-reloaded-id")));
+        }
+
+    }
+
     public static final class RenameNoSpace extends AbstractOperationsApiTest<Void> {
 
         private final DefaultSpaces spaces = new DefaultSpaces(Mono.just(this.cloudFoundryClient), Mono.just(TEST_ORGANIZATION_ID), MISSING_USERNAME);
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.util.function.Tuple2;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Gathers the lookups of values by key that are issued within a short window and executes them as batches.  Identical keys within a window are looked up once, and each batch contains at most a
+ * maximum number of keys so that, for example, a batch can be sent as a single {@code IN} filtered list request without exceeding URL length limits.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public final class BatchLoader<K, V> {
+
+    private final Function<List<K>, Flux<Tuple2<K, V>>> batchFunction;
+
+    private final int maximumBatchSize;
+
+    private final Object monitor = new Object();
+
+    private final Duration window;
+
+    private Map<K, MonoProcessor<V>> pending = new LinkedHashMap<>();
+
+    /**
+     * Creates a new loader
+     *
+     * @param batchFunction    a function that looks up a batch of keys, returning a pair for each key that has a value.  Keys without a pair complete empty.  An error fails every key in the batch.
+     * @param maximumBatchSize the maximum number of keys in a batch
+     * @param window           the time to gather keys for before a batch is executed
+     */
+    public BatchLoader(Function<List<K>, Flux<Tuple2<K, V>>> batchFunction, int maximumBatchSize, Duration window) {
+        this.batchFunction = batchFunction;
+        this.maximumBatchSize = maximumBatchSize;
+        this.window = window;
+    }
+
+    /**
+     * Looks up the value for a key
+     *
+     * @param key the key to look up
+     * @return the value for the key, or empty if there is no value
+     */
+    public Mono<V> load(K key) {
+        return Mono.defer(() -> {
+            Map<K, MonoProcessor<V>> batch = null;
+            MonoProcessor<V> processor;
+            boolean schedule;
+
+            synchronized (this.monitor) {
+                processor = this.pending.get(key);
+                if (processor != null) {
+                    return processor;
+                }
+
+                processor = MonoProcessor.create();
+                schedule = this.pending.isEmpty();
+                this.pending.put(key, processor);
+
+                if (this.pending.size() >= this.maximumBatchSize) {
+                    batch = this.pending;
+                    this.pending = new LinkedHashMap<>();
+                }
+            }
+
+            if (batch != null) {
+                execute(batch);
+            } else if (schedule) {
+                Mono.delay(this.window)
+                    .subscribe(n -> flush());
+            }
+
+            return processor;
+        });
+    }
+
+    private void execute(Map<K, MonoProcessor<V>> batch) {
+        this.batchFunction.apply(new ArrayList<>(batch.keySet()))
+            .subscribe(tuple -> {
+                MonoProcessor<V> processor = batch.remove(tuple.getT1());
+                if (processor != null) {
+                    processor.onNext(tuple.getT2());
+                }
+            }, t -> batch.values().forEach(processor -> processor.onError(t)),
+                () -> batch.values().forEach(MonoProcessor::onComplete));
+    }
+
+    private void flush() {
+        Map<K, MonoProcessor<V>> batch;
+
+        synchronized (this.monitor) {
+            if (this.pending.isEmpty()) {
+                return;
+            }
+
+            batch = this.pending;
+            this.pending = new LinkedHashMap<>();
+        }
+
+        execute(batch);
+    }
+
+}
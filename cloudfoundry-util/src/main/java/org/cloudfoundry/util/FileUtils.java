@@ -16,29 +16,44 @@
 
 package org.cloudfoundry.util;
 
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import reactor.core.Exceptions;
 
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.nio.file.attribute.PosixFileAttributes;
 import java.nio.file.attribute.PosixFilePermission;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
 
 /**
  * Utilities for {@link FileSystem}s
  */
 public final class FileUtils {
 
+    private static final Set<String> COMPRESSED_EXTENSIONS = new HashSet<>(Arrays.asList("7z", "bz2", "ear", "gif", "gz", "jar", "jpeg", "jpg", "mp3", "mp4", "png", "tgz", "war", "webp", "woff",
+        "woff2", "xz", "zip"));
+
     private static final Integer DEFAULT_PERMISSIONS = 0744;
 
     private static final Map<PosixFilePermission, Integer> PERMISSION_MODES = FluentMap.<PosixFilePermission, Integer>builder()
@@ -68,6 +83,24 @@ public final class FileUtils {
         return Files.isDirectory(path) && !relative.toString().endsWith("/") ? String.format("%s/", relative.toString()) : relative.toString();
     }
 
+    /**
+     * Returns the POSIX file mode of a {@link Path}, or a default of {@code 0744} if it is not available
+     *
+     * @param path the {@link Path} to get the mode for
+     * @return the POSIX file mode
+     */
+    public static int getUnixMode(Path path) {
+        try {
+            return Optional.ofNullable(Files.readAttributes(path, PosixFileAttributes.class))
+                .map(attributes -> attributes.permissions().stream()
+                    .map(PERMISSION_MODES::get)
+                    .collect(Collectors.summingInt(i -> i)))
+                .orElse(DEFAULT_PERMISSIONS);
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
     /**
      * Returns a normalized {@link Path}.  In the case of directories, it returns the {@link Path} as it was passed in.  In the case of files, it returns a {@link Path} representing the root of a
      * filesystem mounted using {@link FileSystems#newFileSystem}.
@@ -97,53 +130,104 @@ public final class FileUtils {
     /**
      * Converts a the contents of a {@link Path} to a {@link InputStream}.  If the {@link Path} is a directory, compresses the full contents of the directory into the stream.  If the {@link Path}
      * is a file, the contents of the file are examined using {@link FileSystems#newFileSystem} starting at the root.  This allows both exploded and compressed artifacts to be used interchangeably.
+     * Entries are compressed in parallel and files that are already compressed are stored rather than deflated.  Entries are submitted in path order and each
+     * compression worker writes its entries in that order.  The archive is staged in a temporary file that is deleted when the returned stream is closed.  The returned stream is a {@link FileInputStream}, so consumers can determine its length without reading it.
      *
      * @param path   a {@link Path} representing either a compressed <i>or</i> exploded artifact
      * @param filter a {@link Predicate} to filter the {@link Path}s that will be added to the {@link InputStream}
      * @return a {@link InputStream} containing the compressed contents of the {@code path}
      */
     public static InputStream toInputStream(Path path, Predicate<Path> filter) {
+        return toInputStream(path, filter, Paths.get(System.getProperty("java.io.tmpdir")), Runtime.getRuntime().availableProcessors());
+    }
+
+    static InputStream toInputStream(Path path, Predicate<Path> filter, Path stagingDirectory, int parallelism) {
         Path root = normalize(path);
 
         try {
-            Path staging = Files.createTempFile(null, null);
-
-            try (Stream<Path> contents = Files.walk(root); ZipArchiveOutputStream out = new ZipArchiveOutputStream(staging.toFile())) {
-                contents
-                    .filter(filter)
-                    .forEach(p -> write(root, p, out));
+            Path staging = Files.createTempFile(stagingDirectory, null, null);
+            ExecutorService executor = new ForkJoinPool(parallelism);
+            InputStream in = null;
+
+            try {
+                ParallelScatterZipCreator creator = new ParallelScatterZipCreator(executor);
+
+                try (Stream<Path> contents = Files.walk(root)) {
+                    contents
+                        .filter(filter)
+                        .filter(p -> !isSameFile(root, p))
+                        .sorted()
+                        .forEach(p -> creator.addArchiveEntry(getEntry(root, p), () -> getPayload(p)));
+                }
+
+                try (ZipArchiveOutputStream out = new ZipArchiveOutputStream(staging.toFile())) {
+                    creator.writeTo(out);
+                }
+
+                in = new FileInputStream(staging.toFile()) {
+
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            Files.deleteIfExists(staging);
+                        }
+                    }
+
+                };
+
+                return in;
+            } catch (ExecutionException e) {
+                throw Exceptions.propagate(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw Exceptions.propagate(e);
+            } finally {
+                executor.shutdownNow();
+
+                if (in == null) {
+                    Files.deleteIfExists(staging);
+                }
             }
-
-            return Files.newInputStream(staging);
         } catch (IOException e) {
             throw Exceptions.propagate(e);
         }
     }
 
-    private static int getUnixMode(Path path) throws IOException {
-        return Optional.ofNullable(Files.readAttributes(path, PosixFileAttributes.class))
-            .map(attributes -> attributes.permissions().stream()
-                .map(PERMISSION_MODES::get)
-                .collect(Collectors.summingInt(i -> i)))
-            .orElse(DEFAULT_PERMISSIONS);
-    }
-
-    private static void write(Path root, Path path, ZipArchiveOutputStream out) {
+    /**
+     * Creates the archive entry for a path.  Attributes are read on the calling thread so that entries are never mutated by the compression workers.
+     */
+    private static ZipArchiveEntry getEntry(Path root, Path path) {
         try {
-            if (Files.isSameFile(root, path)) {
-                return;
-            }
-
             ZipArchiveEntry entry = new ZipArchiveEntry(getRelativePathName(root, path));
+            entry.setMethod(isCompressed(path) ? ZipEntry.STORED : ZipEntry.DEFLATED);
             entry.setUnixMode(getUnixMode(path));
             entry.setLastModifiedTime(Files.getLastModifiedTime(path));
-            out.putArchiveEntry(entry);
+            return entry;
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
 
-            if (Files.isRegularFile(path)) {
-                Files.copy(path, out);
-            }
+    private static InputStream getPayload(Path path) {
+        try {
+            return Files.isRegularFile(path) ? Files.newInputStream(path) : new ByteArrayInputStream(new byte[0]);
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
 
-            out.closeArchiveEntry();
+    private static boolean isCompressed(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ENGLISH);
+        int index = name.lastIndexOf('.');
+
+        return Files.isDirectory(path) || (index != -1 && COMPRESSED_EXTENSIONS.contains(name.substring(index + 1)));
+    }
+
+    private static boolean isSameFile(Path root, Path path) {
+        try {
+            return Files.isSameFile(root, path);
         } catch (IOException e) {
             throw Exceptions.propagate(e);
         }
@@ -23,10 +23,17 @@ import java.util.Optional;
 import java.util.function.Function;
 
 /**
- * A utility class to provide functions for handling {@link org.cloudfoundry.client.v2.PaginatedResponse}s and those containing lists of {@link org.cloudfoundry.client.v2.Resource}s.
+ * A utility class to provide functions for handling {@link org.cloudfoundry.client.v2.PaginatedResponse}s and those containing lists of {@link org.cloudfoundry.client.v2.Resource}s.  Additional
+ * pages are requested with at most {@code concurrency} requests in flight.  A new page is requested as soon as any earlier request completes and resources are emitted in page order, so at most
+ * {@code concurrency} pages are held in memory at a time.
  */
 public final class PaginationUtils {
 
+    /**
+     * The default maximum number of pages requested concurrently
+     */
+    public static final int DEFAULT_CONCURRENCY = 8;
+
     private PaginationUtils() {
     }
 
@@ -41,9 +48,26 @@ public final class PaginationUtils {
     public static <T extends org.cloudfoundry.client.v2.Resource<?>, U extends org.cloudfoundry.client.v2.PaginatedResponse<T>> Flux<T> requestClientV2Resources(
         Function<Integer, Mono<U>> pageSupplier) {
 
+        return requestClientV2Resources(pageSupplier, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Generate the stream of resources accumulated from a series of responses obtained from the page supplier.
+     *
+     * @param pageSupplier a function from integers to {@link Mono}s of {@link org.cloudfoundry.client.v2.PaginatedResponse}s.
+     * @param concurrency  the maximum number of pages to request concurrently.  Must be greater than zero.
+     * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.client.v2.PaginatedResponse}.
+     * @param <U>          the type of {@link org.cloudfoundry.client.v2.PaginatedResponse}.
+     * @return a stream of <code>T</code> objects.
+     */
+    public static <T extends org.cloudfoundry.client.v2.Resource<?>, U extends org.cloudfoundry.client.v2.PaginatedResponse<T>> Flux<T> requestClientV2Resources(
+        Function<Integer, Mono<U>> pageSupplier, int concurrency) {
+
+        checkConcurrency(concurrency);
+
         return pageSupplier
             .apply(1)
-            .flatMap(requestClientV2AdditionalPages(pageSupplier))
+            .flatMap(requestClientV2AdditionalPages(pageSupplier, concurrency))
             .flatMap(ResourceUtils::getResources);
     }
 
@@ -55,11 +79,26 @@ public final class PaginationUtils {
      * @param <U>          the type of {@link org.cloudfoundry.client.v3.PaginatedResponse}.
      * @return a stream of <code>T</code> objects.
      */
-    @SuppressWarnings("rawtypes")
     public static <T, U extends org.cloudfoundry.client.v3.PaginatedResponse<T>> Flux<T> requestClientV3Resources(Function<Integer, Mono<U>> pageSupplier) {
+        return requestClientV3Resources(pageSupplier, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Generate the stream of resources accumulated from a series of responses obtained from the page supplier.
+     *
+     * @param pageSupplier a function from integers to {@link Mono}s of {@link org.cloudfoundry.client.v3.PaginatedResponse}s.
+     * @param concurrency  the maximum number of pages to request concurrently.  Must be greater than zero.
+     * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.client.v3.PaginatedResponse}.
+     * @param <U>          the type of {@link org.cloudfoundry.client.v3.PaginatedResponse}.
+     * @return a stream of <code>T</code> objects.
+     */
+    @SuppressWarnings("rawtypes")
+    public static <T, U extends org.cloudfoundry.client.v3.PaginatedResponse<T>> Flux<T> requestClientV3Resources(Function<Integer, Mono<U>> pageSupplier, int concurrency) {
+        checkConcurrency(concurrency);
+
         return pageSupplier
             .apply(1)
-            .flatMap(requestClientV3AdditionalPages(pageSupplier))
+            .flatMap(requestClientV3AdditionalPages(pageSupplier, concurrency))
             .flatMapIterable(org.cloudfoundry.client.v3.PaginatedResponse::getResources);
     }
 
@@ -71,46 +110,63 @@ public final class PaginationUtils {
      * @param <U>          the type of {@link org.cloudfoundry.uaa.PaginatedResponse}.
      * @return a stream of <code>T</code> objects.
      */
-    @SuppressWarnings("rawtypes")
     public static <T, U extends org.cloudfoundry.uaa.PaginatedResponse<T>> Flux<T> requestUaaResources(Function<Integer, Mono<U>> pageSupplier) {
+        return requestUaaResources(pageSupplier, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Generate the stream of resources accumulated from a series of responses obtained from the page supplier.
+     *
+     * @param pageSupplier a function from integers to {@link Mono}s of {@link org.cloudfoundry.uaa.PaginatedResponse}s.
+     * @param concurrency  the maximum number of pages to request concurrently.  Must be greater than zero.
+     * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.uaa.PaginatedResponse}.
+     * @param <U>          the type of {@link org.cloudfoundry.uaa.PaginatedResponse}.
+     * @return a stream of <code>T</code> objects.
+     */
+    @SuppressWarnings("rawtypes")
+    public static <T, U extends org.cloudfoundry.uaa.PaginatedResponse<T>> Flux<T> requestUaaResources(Function<Integer, Mono<U>> pageSupplier, int concurrency) {
+        checkConcurrency(concurrency);
+
         return pageSupplier
             .apply(1)
-            .flatMap(requestUaaAdditionalPages(pageSupplier))
+            .flatMap(requestUaaAdditionalPages(pageSupplier, concurrency))
             .flatMapIterable(org.cloudfoundry.uaa.PaginatedResponse::getResources);
     }
 
-    private static <T> Function<T, Flux<T>> requestAdditionalPages(Function<Integer, Mono<T>> pageSupplier, Function<T, Integer> totalPagesSupplier) {
+    private static void checkConcurrency(int concurrency) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException(String.format("Concurrency must be greater than zero, was %d", concurrency));
+        }
+    }
+
+    private static <T> Function<T, Flux<T>> requestAdditionalPages(Function<Integer, Mono<T>> pageSupplier, Function<T, Integer> totalPagesSupplier, int concurrency) {
         return response -> {
             Integer totalPages = Optional.ofNullable(totalPagesSupplier.apply(response)).orElse(1);
 
-            return Flux
-                .range(2, totalPages - 1)
-                .flatMap(pageSupplier)
-                .startWith(response)
-                .buffer()
-                .flatMapIterable(d -> d);
+            return requestPages(Flux.range(2, totalPages - 1), pageSupplier, concurrency)
+                .startWith(response);
         };
     }
 
-    private static <T extends org.cloudfoundry.client.v2.PaginatedResponse<?>> Function<T, Flux<T>> requestClientV2AdditionalPages(Function<Integer, Mono<T>> pageSupplier) {
-        return requestAdditionalPages(pageSupplier, response -> response.getTotalPages());
+    private static <T extends org.cloudfoundry.client.v2.PaginatedResponse<?>> Function<T, Flux<T>> requestClientV2AdditionalPages(Function<Integer, Mono<T>> pageSupplier, int concurrency) {
+        return requestAdditionalPages(pageSupplier, response -> response.getTotalPages(), concurrency);
+    }
+
+    private static <T extends org.cloudfoundry.client.v3.PaginatedResponse<?>> Function<T, Flux<T>> requestClientV3AdditionalPages(Function<Integer, Mono<T>> pageSupplier, int concurrency) {
+        return requestAdditionalPages(pageSupplier, response -> response.getPagination().getTotalPages(), concurrency);
     }
 
-    private static <T extends org.cloudfoundry.client.v3.PaginatedResponse<?>> Function<T, Flux<T>> requestClientV3AdditionalPages(Function<Integer, Mono<T>> pageSupplier) {
-        return requestAdditionalPages(pageSupplier, response -> response.getPagination().getTotalPages());
+    private static <T> Flux<T> requestPages(Flux<Integer> pages, Function<Integer, Mono<T>> pageSupplier, int concurrency) {
+        return pages
+            .flatMapSequential(pageSupplier, concurrency);
     }
 
-    private static <T extends org.cloudfoundry.uaa.PaginatedResponse<?>> Function<T, Flux<T>> requestUaaAdditionalPages(Function<Integer, Mono<T>> pageSupplier) {
+    private static <T extends org.cloudfoundry.uaa.PaginatedResponse<?>> Function<T, Flux<T>> requestUaaAdditionalPages(Function<Integer, Mono<T>> pageSupplier, int concurrency) {
         return response -> {
             Integer totalPages = (response.getTotalResults() - 1) / response.getItemsPerPage() + 1;
 
-            return Flux
-                .range(1, totalPages - 1)
-                .map(page -> 1 + (page * response.getItemsPerPage()))
-                .flatMap(pageSupplier)
-                .startWith(response)
-                .buffer()
-                .flatMapIterable(d -> d);
+            return requestPages(Flux.range(1, totalPages - 1).map(page -> 1 + (page * response.getItemsPerPage())), pageSupplier, concurrency)
+                .startWith(response);
         };
     }
 
@@ -16,14 +16,11 @@
 
 package org.cloudfoundry.util;
 
-import reactor.core.Cancellation;
-import reactor.core.publisher.DirectProcessor;
 import reactor.core.publisher.Flux;
-import reactor.util.function.Tuple2;
 
 import java.time.Duration;
-import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.PriorityQueue;
@@ -35,55 +32,113 @@ import java.util.function.Function;
  */
 public final class SortingUtils {
 
+    private static final Object TICK = new Object();
+
+    private static final int TICKS_PER_TIMESPAN = 8;
+
     private SortingUtils() {
     }
 
     /**
      * Sorts the elements of a {@link Flux} within a sliding time window.  This sorter should be used when element order may be scrambled, but that scrambling has a certain 'temporal locality' to it.
      * This assumption means that sorting can be limited to elements that arrive temporally close to one another without risking a latecomer being sorted incorrectly.
+     * <p>
+     * Arrival times are tracked on a timing wheel that records the greatest element to arrive in each tick, rather than per element.  Once a tick is older than the {@code timespan}, every element
+     * that sorts before its greatest element is emitted, so no element is delayed by much more than the {@code timespan}.  Elements that arrive after elements that sort after them have been emitted
+     * are emitted immediately.
      *
      * @param comparator a {@link Comparator} to use when sorting the elements within the window
-     * @param timespan   the duration of the 'temporal locality'
+     * @param timespan   the duration of the 'temporal locality' and the maximum delay of an element
      * @param <T>        The type of the elements to be sorted
      * @return a {@link Flux} providing the sorted elements
      */
     public static <T> Function<Flux<T>, Flux<T>> timespan(Comparator<T> comparator, Duration timespan) {
-        return source -> {
-            Queue<Tuple2<Long, T>> accumulator = new PriorityQueue<>((o1, o2) -> comparator.compare(o1.getT2(), o2.getT2()));
-            Object monitor = new Object();
-
-            DirectProcessor<Void> d = DirectProcessor.create();
-
-            Cancellation cancellation = source
-                .timestamp()
-                .subscribe(e -> {
-                    synchronized (monitor) {
-                        accumulator.add(e);
-                    }
-                }, d::onError, d::onComplete);
-
-            return Flux
-                .interval(timespan)
-                .takeUntilOther(d)
-                .flatMap(n -> getItems(accumulator, comparator, timespan), null, () -> getItems(accumulator, comparator, Duration.ZERO))
-                .doOnCancel(cancellation::dispose);
-        };
+        Duration tick = timespan.dividedBy(TICKS_PER_TIMESPAN);
+
+        return source -> Flux.defer(() -> {
+            Reorderer<T> reorderer = new Reorderer<>(comparator);
+
+            return source
+                .publish(shared -> Flux.<Object>merge(shared, Flux.interval(tick).takeUntilOther(shared.then()).map(n -> TICK)))
+                .flatMapIterable(reorderer::onSignal)
+                .concatWith(Flux.defer(() -> Flux.fromIterable(reorderer.drain())));
+        });
     }
 
-    private static <T> Flux<T> getItems(Queue<Tuple2<Long, T>> accumulator, Object monitor, Duration timespan) {
-        List<T> items = new ArrayList<>();
+    /**
+     * Holds the state of a single sort.  Elements and ticks are delivered as a single serialized sequence so that no synchronization is required.
+     */
+    private static final class Reorderer<T> {
+
+        private final Comparator<T> comparator;
+
+        private final Queue<T> queue;
+
+        private final List<T> slots = new ArrayList<>(Collections.nCopies(TICKS_PER_TIMESPAN, null));
 
-        synchronized (monitor) {
-            while (isBefore(accumulator.peek(), timespan)) {
-                items.add(accumulator.remove().getT2());
+        private int index = 0;
+
+        private T watermark;
+
+        private Reorderer(Comparator<T> comparator) {
+            this.comparator = comparator;
+            this.queue = new PriorityQueue<>(comparator);
+        }
+
+        private List<T> drain() {
+            List<T> items = new ArrayList<>(this.queue.size());
+
+            while (!this.queue.isEmpty()) {
+                items.add(this.queue.remove());
             }
+
+            return items;
         }
 
-        return Flux.fromIterable(items);
-    }
+        private boolean isAfter(T candidate, T reference) {
+            return reference == null || this.comparator.compare(candidate, reference) > 0;
+        }
+
+        private Iterable<T> onElement(T element) {
+            if (!isAfter(element, this.watermark)) {
+                return Collections.singletonList(element);
+            }
+
+            this.queue.add(element);
+
+            if (isAfter(element, this.slots.get(this.index))) {
+                this.slots.set(this.index, element);
+            }
+
+            return Collections.emptyList();
+        }
+
+        @SuppressWarnings("unchecked")
+        private Iterable<T> onSignal(Object signal) {
+            return signal == TICK ? onTick() : onElement((T) signal);
+        }
+
+        private Iterable<T> onTick() {
+            this.index = (this.index + 1) % TICKS_PER_TIMESPAN;
+
+            T expired = this.slots.set(this.index, null);
+            if (expired != null && isAfter(expired, this.watermark)) {
+                this.watermark = expired;
+            }
+
+            if (this.watermark == null || this.queue.isEmpty() || isAfter(this.queue.peek(), this.watermark)) {
+                return Collections.emptyList();
+            }
+
+            List<T> items = new ArrayList<>();
+
+            while (!this.queue.isEmpty() && !isAfter(this.queue.peek(), this.watermark)) {
+                items.add(this.queue.remove());
+            }
+
+            return items;
+        }
 
-    private static <T> boolean isBefore(Tuple2<Long, T> candidate, Duration timespan) {
-        return candidate != null && (Duration.ZERO == timespan || Instant.ofEpochMilli(candidate.getT1()).isBefore(Instant.now().minus(timespan)));
     }
 
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import org.cloudfoundry.util.test.TestSubscriber;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+
+public final class BatchLoaderTest {
+
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void load() throws InterruptedException {
+        BatchLoader<String, String> loader = new BatchLoader<>(this::lookup, 10, Duration.ofMillis(50));
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        Flux.just("test-key-1", "test-key-2", "test-key-1")
+            .flatMap(loader::load)
+            .subscribe(testSubscriber
+                .expectCount(3));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+        assertEquals(1, this.batches.size());
+        assertEquals(2, this.batches.get(0).size());
+    }
+
+    @Test
+    public void loadEmpty() throws InterruptedException {
+        BatchLoader<String, String> loader = new BatchLoader<>(keys -> Flux.empty(), 10, Duration.ofMillis(50));
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        loader.load("test-key")
+            .subscribe(testSubscriber
+                .expectCount(0));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void loadError() throws InterruptedException {
+        BatchLoader<String, String> loader = new BatchLoader<>(keys -> Flux.error(new IllegalStateException("test-message")), 10, Duration.ofMillis(50));
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        loader.load("test-key")
+            .subscribe(testSubscriber
+                .expectError(IllegalStateException.class, "test-message"));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void loadMaximumBatchSize() throws InterruptedException {
+        BatchLoader<String, String> loader = new BatchLoader<>(this::lookup, 2, Duration.ofMillis(50));
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        Flux.just("test-key-1", "test-key-2", "test-key-3")
+            .flatMap(loader::load)
+            .subscribe(testSubscriber
+                .expectCount(3));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+        assertEquals(2, this.batches.size());
+    }
+
+    private Flux<Tuple2<String, String>> lookup(List<String> keys) {
+        this.batches.add(keys);
+
+        return Flux.fromIterable(keys)
+            .map(key -> Tuples.of(key, key.toUpperCase()));
+    }
+
+}
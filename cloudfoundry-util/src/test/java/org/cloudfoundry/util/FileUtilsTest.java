@@ -0,0 +1,156 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.util;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public final class FileUtilsTest {
+
+    private Path root;
+
+    private Path staging;
+
+    @After
+    public void delete() throws IOException {
+        for (Path path : new Path[]{this.root, this.staging}) {
+            try (Stream<Path> contents = Files.walk(path)) {
+                for (Path p : contents.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                    Files.delete(p);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void entryOrder() throws IOException {
+        try (ZipFile zipFile = new ZipFile(archive(1).toFile())) {
+            assertEquals(Arrays.asList("alpha.txt", "beta.jar", "gamma/", "gamma/delta.png"), names(zipFile));
+        }
+    }
+
+    @Test
+    public void entryOrderParallel() throws IOException {
+        try (ZipFile zipFile = new ZipFile(archive(4).toFile())) {
+            List<String> names = names(zipFile);
+            Collections.sort(names);
+
+            assertEquals(Arrays.asList("alpha.txt", "beta.jar", "gamma/", "gamma/delta.png"), names);
+        }
+    }
+
+    @Test
+    public void method() throws IOException {
+        try (ZipFile zipFile = new ZipFile(archive(4).toFile())) {
+            assertEquals(ZipEntry.DEFLATED, zipFile.getEntry("alpha.txt").getMethod());
+            assertEquals(ZipEntry.STORED, zipFile.getEntry("beta.jar").getMethod());
+            assertEquals(ZipEntry.STORED, zipFile.getEntry("gamma/").getMethod());
+            assertEquals(ZipEntry.STORED, zipFile.getEntry("gamma/delta.png").getMethod());
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        this.root = Files.createTempDirectory("file-utils-test-root");
+        this.staging = Files.createTempDirectory("file-utils-test-staging");
+
+        Files.write(this.root.resolve("alpha.txt"), "alpha-alpha-alpha-alpha".getBytes("UTF-8"));
+        Files.write(this.root.resolve("beta.jar"), "beta".getBytes("UTF-8"));
+        Files.createDirectory(this.root.resolve("gamma"));
+        Files.write(this.root.resolve("gamma/delta.png"), "delta".getBytes("UTF-8"));
+
+        Files.setPosixFilePermissions(this.root.resolve("alpha.txt"), PosixFilePermissions.fromString("rwxr-x---"));
+        Files.setPosixFilePermissions(this.root.resolve("beta.jar"), PosixFilePermissions.fromString("rw-r--r--"));
+    }
+
+    @Test
+    public void stagingDeleted() throws IOException {
+        InputStream in = FileUtils.toInputStream(this.root, p -> true, this.staging, 4);
+        assertEquals(1, count(this.staging));
+
+        in.close();
+        assertEquals(0, count(this.staging));
+    }
+
+    @Test
+    public void stagingDeletedOnFailure() throws IOException {
+        try {
+            FileUtils.toInputStream(this.root, p -> {
+                throw new IllegalStateException("test-failure");
+            }, this.staging, 4);
+            fail("Expected failure");
+        } catch (IllegalStateException e) {
+            assertEquals("test-failure", e.getMessage());
+        }
+
+        assertEquals(0, count(this.staging));
+    }
+
+    @Test
+    public void unixMode() throws IOException {
+        try (ZipFile zipFile = new ZipFile(archive(4).toFile())) {
+            assertEquals(0750, zipFile.getEntry("alpha.txt").getUnixMode() & 0777);
+            assertEquals(0644, zipFile.getEntry("beta.jar").getUnixMode() & 0777);
+            assertTrue(zipFile.getEntry("gamma/").isDirectory());
+        }
+    }
+
+    private static long count(Path directory) throws IOException {
+        try (Stream<Path> contents = Files.list(directory)) {
+            return contents.count();
+        }
+    }
+
+    private static List<String> names(ZipFile zipFile) {
+        return Collections.list(zipFile.getEntries()).stream()
+            .map(ZipArchiveEntry::getName)
+            .collect(Collectors.toList());
+    }
+
+    private Path archive(int parallelism) throws IOException {
+        Path archive = this.staging.resolve("archive.zip");
+
+        try (InputStream in = FileUtils.toInputStream(this.root, p -> true, this.staging, parallelism)) {
+            Files.copy(in, archive, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        return archive;
+    }
+
+}
@@ -65,6 +65,68 @@ public final class PaginationUtilsTest {
         testSubscriber.verify(Duration.ofSeconds(1));
     }
 
+    @Test
+    public void requestClientV2ResourcesConcurrency() throws InterruptedException {
+        Spaces spaces = mock(Spaces.class, RETURNS_SMART_NULLS);
+        TestSubscriber<SpaceResource> testSubscriber = new TestSubscriber<>();
+
+        for (int page = 1; page <= 5; page++) {
+            requestListSpaces(spaces, page, 5);
+            testSubscriber.expectEquals(SpaceResource.builder()
+                .entity(SpaceEntity.builder()
+                    .name(String.valueOf(page))
+                    .build())
+                .build());
+        }
+
+        PaginationUtils
+            .requestClientV2Resources(page -> spaces
+                .list(ListSpacesRequest.builder()
+                    .page(page)
+                    .build()), 2)
+            .subscribe(testSubscriber);
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void requestClientV2ResourcesInvalidConcurrency() {
+        Spaces spaces = mock(Spaces.class, RETURNS_SMART_NULLS);
+
+        PaginationUtils
+            .requestClientV2Resources(page -> spaces
+                .list(ListSpacesRequest.builder()
+                    .page(page)
+                    .build()), 0);
+    }
+
+    @Test
+    public void requestClientV2ResourcesSlowPage() throws InterruptedException {
+        TestSubscriber<SpaceResource> testSubscriber = new TestSubscriber<>();
+
+        for (int page = 1; page <= 5; page++) {
+            testSubscriber.expectEquals(SpaceResource.builder()
+                .entity(SpaceEntity.builder()
+                    .name(String.valueOf(page))
+                    .build())
+                .build());
+        }
+
+        PaginationUtils
+            .requestClientV2Resources(page -> Mono.delay(Duration.ofMillis(page == 2 ? 200 : 10))
+                .map(n -> ListSpacesResponse.builder()
+                    .resource(SpaceResource.builder()
+                        .entity(SpaceEntity.builder()
+                            .name(String.valueOf(page))
+                            .build())
+                        .build())
+                    .totalPages(5)
+                    .build()), 2)
+            .subscribe(testSubscriber);
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+    }
+
     @Test
     public void requestClientV2ResourcesEmpty() throws InterruptedException {
         Spaces spaces = mock(Spaces.class, RETURNS_SMART_NULLS);
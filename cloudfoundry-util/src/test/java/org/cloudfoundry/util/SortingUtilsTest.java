@@ -0,0 +1,58 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import org.cloudfoundry.util.test.TestSubscriber;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Comparator;
+
+public final class SortingUtilsTest {
+
+    @Test
+    public void timespan() throws InterruptedException {
+        TestSubscriber<Integer> testSubscriber = new TestSubscriber<>();
+
+        Flux.just(3, 1, 2)
+            .compose(SortingUtils.timespan(Comparator.naturalOrder(), Duration.ofSeconds(1)))
+            .subscribe(testSubscriber
+                .expectEquals(1)
+                .expectEquals(2)
+                .expectEquals(3));
+
+        testSubscriber.verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void timespanLatecomer() throws InterruptedException {
+        TestSubscriber<Integer> testSubscriber = new TestSubscriber<>();
+
+        Flux.just(2, 3)
+            .concatWith(Mono.delay(Duration.ofMillis(500)).map(n -> 1))
+            .compose(SortingUtils.timespan(Comparator.naturalOrder(), Duration.ofMillis(100)))
+            .subscribe(testSubscriber
+                .expectEquals(2)
+                .expectEquals(3)
+                .expectEquals(1));
+
+        testSubscriber.verify(Duration.ofSeconds(2));
+    }
+
+}